@@ -0,0 +1,25 @@
+#!/bin/sh
+# Запуск узла приложения или разовой команды миграций (docker run <image> migrate).
+# Флаги JVM зависят от того, как собран образ: CDS-архив есть только при CDS=true,
+# spring.aot.enabled - только при SPRING_AOT=true (AOT-классы без флага игнорируются)
+set -e
+
+CDS_OPTS=""
+if [ -f /app/application.jsa ]; then
+  CDS_OPTS="-XX:SharedArchiveFile=/app/application.jsa -Xlog:cds=off -Xlog:cds+dynamic=off"
+fi
+
+if [ "$1" = "migrate" ]; then
+  shift
+  # shellcheck disable=SC2086
+  exec java $CDS_OPTS $JAVA_OPTS -cp /app/order-service.jar \
+    com.example.orderservice.migration.DatabaseMigrationApplication "$@"
+fi
+
+AOT_OPTS=""
+if [ "$SPRING_AOT_ENABLED" = "true" ]; then
+  AOT_OPTS="-Dspring.aot.enabled=true"
+fi
+
+# shellcheck disable=SC2086
+exec java $CDS_OPTS $AOT_OPTS $JAVA_OPTS -jar /app/order-service.jar "$@"
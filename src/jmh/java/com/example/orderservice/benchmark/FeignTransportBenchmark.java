@@ -0,0 +1,108 @@
+package com.example.orderservice.benchmark;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import feign.Client;
+import feign.Feign;
+import feign.Request;
+import feign.RequestLine;
+import feign.hc5.ApacheHttp5Client;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolReusePolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+// Сравнение транспорта Feign по умолчанию (HttpURLConnection) с пулом Apache HttpClient 5
+// при тех же настройках, что и в application.yml.
+// Запуск: ./gradlew jmh -Pjmh.includes=FeignTransportBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(32)
+public class FeignTransportBenchmark {
+
+    @Param({"default", "hc5-pooled"})
+    private String transport;
+
+    @Param({"2"})
+    private int serverDelayMs;
+
+    private WireMockServer server;
+    private CloseableHttpClient pooledHttpClient;
+    private UserApi api;
+
+    interface UserApi {
+        @RequestLine("GET /api/users/{id}")
+        String getUserById(@feign.Param("id") long id);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = new WireMockServer(wireMockConfig().dynamicPort().containerThreads(128));
+        server.start();
+        server.stubFor(WireMock.get(WireMock.urlPathMatching("/api/users/[0-9]+"))
+                .willReturn(WireMock.aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withFixedDelay(serverDelayMs)
+                        .withBody("{\"id\":1,\"name\":\"John\",\"surname\":\"Doe\",\"active\":true}")));
+
+        api = Feign.builder()
+                .client(createClient())
+                .options(new Request.Options(1, TimeUnit.SECONDS, 2, TimeUnit.SECONDS, true))
+                .target(UserApi.class, server.baseUrl());
+    }
+
+    private Client createClient() {
+        if ("default".equals(transport)) {
+            return new Client.Default(null, null);
+        }
+        pooledHttpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(200)
+                        .setMaxConnPerRoute(50)
+                        .setConnPoolPolicy(PoolReusePolicy.LIFO)
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.ofSeconds(1))
+                                .setSocketTimeout(Timeout.ofSeconds(2))
+                                .setTimeToLive(TimeValue.ofMinutes(5))
+                                .build())
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .build();
+        return new ApacheHttp5Client(pooledHttpClient);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (pooledHttpClient != null) {
+            pooledHttpClient.close();
+        }
+        server.stop();
+    }
+
+    @Benchmark
+    public String getUserById() {
+        return api.getUserById(ThreadLocalRandom.current().nextLong(1, 10_000));
+    }
+}
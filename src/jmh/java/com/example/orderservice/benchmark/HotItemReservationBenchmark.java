@@ -0,0 +1,147 @@
+package com.example.orderservice.benchmark;
+
+import liquibase.Liquibase;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Резервирование остатка одного «горячего» товара из множества потоков: заказ, строка заказа
+// и условное списание в одной транзакции, как в OrderService.createOrder. Сравнивается одна строка
+// items.stock_quantity и остаток, разбитый на части в item_stock_shards. Остаток заведомо не кончается.
+// Нужен Docker. Запуск: ./gradlew jmh -Pjmh.includes=HotItemReservationBenchmark
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(16)
+public class HotItemReservationBenchmark {
+    private static final int STOCK = 1_000_000_000;
+
+    @State(Scope.Benchmark)
+    public static class Stock {
+        // 0 - остаток в строке товара
+        @Param({"0", "8"})
+        int shards;
+
+        PostgreSQLContainer<?> postgres;
+        long itemId;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            postgres = new PostgreSQLContainer<>("postgres:16-alpine").withCommand("postgres", "-c", "max_connections=200");
+            postgres.start();
+            try (Connection connection = open()) {
+                Database database = DatabaseFactory.getInstance()
+                        .findCorrectDatabaseImplementation(new JdbcConnection(connection));
+                try (Liquibase liquibase = new Liquibase("db/changelog/db.changelog-master.yaml",
+                        new ClassLoaderResourceAccessor(), database)) {
+                    liquibase.update("");
+                }
+                seed(connection);
+            }
+        }
+
+        private void seed(Connection connection) throws SQLException {
+            try (Statement statement = connection.createStatement()) {
+                try (ResultSet rs = statement.executeQuery("INSERT INTO items (name, price, created_at, updated_at) "
+                        + "VALUES ('hot item', 10.00, now(), now()) RETURNING id")) {
+                    rs.next();
+                    itemId = rs.getLong(1);
+                }
+                if (shards == 0) {
+                    statement.executeUpdate("UPDATE items SET stock_quantity = " + STOCK + " WHERE id = " + itemId);
+                } else {
+                    statement.executeUpdate("UPDATE items SET stock_shards = " + shards + " WHERE id = " + itemId);
+                    statement.executeUpdate("INSERT INTO item_stock_shards (item_id, shard, quantity) "
+                            + "SELECT " + itemId + ", g, " + STOCK / shards + " FROM generate_series(0, " + (shards - 1) + ") g");
+                }
+            }
+        }
+
+        Connection open() throws SQLException {
+            return DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            postgres.stop();
+        }
+    }
+
+    // Своё соединение на поток, как у отдельного соединения пула на запрос
+    @State(Scope.Thread)
+    public static class Session {
+        Connection connection;
+        PreparedStatement insertOrder;
+        PreparedStatement insertLine;
+        PreparedStatement reserveItem;
+        PreparedStatement reserveShard;
+
+        @Setup(Level.Trial)
+        public void setUp(Stock stock) throws SQLException {
+            connection = stock.open();
+            connection.setAutoCommit(false);
+            insertOrder = connection.prepareStatement("INSERT INTO orders (user_id, status, total_price, deleted, "
+                    + "created_at, updated_at) VALUES (1, 'PENDING', 10.00, false, now(), now()) RETURNING id");
+            insertLine = connection.prepareStatement("INSERT INTO order_items (order_id, item_id, quantity, unit_price, "
+                    + "item_name, stock_reserved, created_at, updated_at) VALUES (?, ?, 1, 10.00, 'hot item', true, now(), now())");
+            reserveItem = connection.prepareStatement(
+                    "UPDATE items SET stock_quantity = stock_quantity - 1 WHERE id = ? AND stock_quantity >= 1");
+            reserveShard = connection.prepareStatement("UPDATE item_stock_shards SET quantity = quantity - 1 "
+                    + "WHERE item_id = ? AND shard = ? AND quantity >= 1");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public long reserve(Stock stock, Session session) throws SQLException {
+        long orderId;
+        try (ResultSet rs = session.insertOrder.executeQuery()) {
+            rs.next();
+            orderId = rs.getLong(1);
+        }
+        session.insertLine.setLong(1, orderId);
+        session.insertLine.setLong(2, stock.itemId);
+        session.insertLine.executeUpdate();
+
+        int updated;
+        if (stock.shards == 0) {
+            session.reserveItem.setLong(1, stock.itemId);
+            updated = session.reserveItem.executeUpdate();
+        } else {
+            session.reserveShard.setLong(1, stock.itemId);
+            session.reserveShard.setInt(2, ThreadLocalRandom.current().nextInt(stock.shards));
+            updated = session.reserveShard.executeUpdate();
+        }
+        if (updated != 1) {
+            session.connection.rollback();
+            throw new IllegalStateException("Stock unexpectedly exhausted");
+        }
+        session.connection.commit();
+        return orderId;
+    }
+}
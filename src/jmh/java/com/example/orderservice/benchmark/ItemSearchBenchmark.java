@@ -0,0 +1,127 @@
+package com.example.orderservice.benchmark;
+
+import com.example.orderservice.specification.ItemFullTextQuery;
+import liquibase.Liquibase;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+// Поиск товаров на миллионе строк: прежний путь (lower(name) LIKE '%...%', как ItemSpecifications.nameContains)
+// против полнотекстового запроса по search_vector с GIN-индексом. Оба варианта отдают страницу из 20
+// строк и общее число совпадений, как Page в контроллере. Схема поднимается настоящими миграциями Liquibase.
+// Нужен Docker. Запуск: ./gradlew jmh -Pjmh.includes=ItemSearchBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ItemSearchBenchmark {
+    private static final String[] WORDS = {
+        "red", "green", "blue", "black", "steel", "wooden", "compact", "large", "wireless", "portable",
+        "widget", "gadget", "kettle", "lamp", "chair", "table", "speaker", "charger", "cable", "bottle"
+    };
+    private static final String SUBSTRING_PAGE =
+            "SELECT id, name, price FROM items WHERE lower(name) LIKE ? ORDER BY name LIMIT 20";
+    private static final String SUBSTRING_COUNT = "SELECT count(*) FROM items WHERE lower(name) LIKE ?";
+    private static final String FULLTEXT_PAGE = "SELECT i.id, i.name, i.price FROM items i "
+            + "CROSS JOIN to_tsquery('simple', ?) q WHERE i.search_vector @@ q "
+            + "ORDER BY ts_rank(i.search_vector, q) DESC, i.id LIMIT 20";
+    private static final String FULLTEXT_COUNT =
+            "SELECT count(*) FROM items i WHERE i.search_vector @@ to_tsquery('simple', ?)";
+
+    @Param({"1000000"})
+    private int items;
+
+    // Редкое слово, частое слово и запрос из двух слов с недописанным вторым
+    @Param({"kettle", "red", "wireless spea"})
+    private String query;
+
+    private PostgreSQLContainer<?> postgres;
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+        postgres.start();
+        connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+
+        Database database = DatabaseFactory.getInstance()
+                .findCorrectDatabaseImplementation(new JdbcConnection(connection));
+        try (Liquibase liquibase = new Liquibase("db/changelog/db.changelog-master.yaml",
+                new ClassLoaderResourceAccessor(), database)) {
+            liquibase.update("");
+        }
+        seed();
+    }
+
+    private void seed() throws SQLException {
+        connection.setAutoCommit(true);
+        try (PreparedStatement insert = connection.prepareStatement("""
+                INSERT INTO items (name, price, created_at, updated_at)
+                SELECT w[1 + (g * 7) % 20] || ' ' || w[1 + (g * 13) % 20] || ' ' || w[1 + (g / 20) % 20] || ' ' || g,
+                       1 + (g % 10000) / 100.0, now(), now()
+                FROM generate_series(1, ?) g, (SELECT ?::text[] AS w) words""")) {
+            insert.setInt(1, items);
+            insert.setArray(2, connection.createArrayOf("text", WORDS));
+            insert.executeUpdate();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("VACUUM ANALYZE items");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public void substring(Blackhole blackhole) throws SQLException {
+        String pattern = "%" + query.toLowerCase() + "%";
+        page(SUBSTRING_PAGE, SUBSTRING_COUNT, pattern, blackhole);
+    }
+
+    @Benchmark
+    public void fullText(Blackhole blackhole) throws SQLException {
+        page(FULLTEXT_PAGE, FULLTEXT_COUNT, ItemFullTextQuery.toPrefixTsQuery(query), blackhole);
+    }
+
+    private void page(String pageSql, String countSql, String parameter, Blackhole blackhole) throws SQLException {
+        try (PreparedStatement page = connection.prepareStatement(pageSql)) {
+            page.setString(1, parameter);
+            try (ResultSet rs = page.executeQuery()) {
+                while (rs.next()) {
+                    blackhole.consume(rs.getLong(1));
+                    blackhole.consume(rs.getString(2));
+                }
+            }
+        }
+        try (PreparedStatement count = connection.prepareStatement(countSql)) {
+            count.setString(1, parameter);
+            try (ResultSet rs = count.executeQuery()) {
+                rs.next();
+                blackhole.consume(rs.getLong(1));
+            }
+        }
+    }
+}
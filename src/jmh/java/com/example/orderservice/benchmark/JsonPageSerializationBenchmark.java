@@ -0,0 +1,75 @@
+package com.example.orderservice.benchmark;
+
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.dto.PageResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.PageImpl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+// JSON-ответ GET /api/orders: исходный путь (PageImpl + рефлексия) против PageResponse и Blackbird.
+// Запись идёт прямо в поток, как в HttpMessageConverter.
+// Аллокации: ./gradlew jmh -Pjmh.includes=JsonPageSerializationBenchmark -Pjmh.profilers=gc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonPageSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private final OutputStream sink = OutputStream.nullOutputStream();
+    private PageImpl<OrderResponse> pageImpl;
+    private PageResponse<OrderResponse> envelope;
+    private ObjectMapper reflective;
+    private ObjectMapper blackbird;
+
+    @Setup
+    public void setUp() {
+        pageImpl = OrderSerializationBenchmark.samplePage(pageSize);
+        envelope = PageResponse.of(pageImpl);
+        reflective = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        blackbird = OrderSerializationBenchmark.mapper(new JsonFactory());
+        // Конвертер Spring тоже не закрывает поток ответа
+        for (ObjectMapper mapper : new ObjectMapper[] {reflective, blackbird}) {
+            mapper.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        }
+    }
+
+    @Benchmark
+    public void pageImplReflective() throws IOException {
+        reflective.writeValue(sink, pageImpl);
+    }
+
+    @Benchmark
+    public void envelopeReflective() throws IOException {
+        reflective.writeValue(sink, envelope);
+    }
+
+    @Benchmark
+    public void envelopeBlackbird() throws IOException {
+        blackbird.writeValue(sink, envelope);
+    }
+
+    // Тот же ответ через промежуточный byte[] — для сравнения аллокаций с потоковой записью
+    @Benchmark
+    public byte[] envelopeBlackbirdToBytes() throws IOException {
+        return blackbird.writeValueAsBytes(envelope);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.orderservice.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.example.orderservice.logging.RateLimitingTurboFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Стоимость логирования для потока запроса: синхронная запись в поток (как прежний консольный вывод)
+// против асинхронной очереди из logback-spring.xml, с ограничителем подробных логов и без него.
+// Вывод идёт в нулевое устройство, поэтому цифры для sync - нижняя граница; реальная консоль медленнее.
+// Запуск: ./gradlew jmh -Pjmh.includes=LoggingBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(8)
+public class LoggingBenchmark {
+    private static final String PATTERN =
+            "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%t] %-40.40logger{39} : %m%n";
+
+    @Param({"sync", "async"})
+    private String appender;
+
+    @Param({"off", "rate-limited"})
+    private String sampling;
+
+    private LoggerContext context;
+    private Logger serviceLogger;
+    private Logger sqlLogger;
+
+    @Setup
+    public void setUp() throws FileNotFoundException {
+        context = new LoggerContext();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> output = new OutputStreamAppender<>();
+        output.setContext(context);
+        output.setName("CONSOLE");
+        output.setEncoder(encoder);
+        output.setOutputStream(new FileOutputStream(nullDevice()));
+        output.start();
+
+        Appender<ILoggingEvent> root = output;
+        if ("async".equals(appender)) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setName("ASYNC_CONSOLE");
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(1638);
+            async.setNeverBlock(true);
+            async.setIncludeCallerData(false);
+            async.addAppender(output);
+            async.start();
+            root = async;
+        }
+
+        if ("rate-limited".equals(sampling)) {
+            RateLimitingTurboFilter filter = new RateLimitingTurboFilter();
+            filter.setContext(context);
+            filter.addLoggerName("org.hibernate.SQL");
+            filter.setMaxPerSecond(50);
+            filter.start();
+            context.addTurboFilter(filter);
+        }
+
+        Logger rootLogger = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        rootLogger.setLevel(Level.INFO);
+        rootLogger.addAppender(root);
+
+        serviceLogger = context.getLogger("com.example.orderservice.service.OrderService");
+        sqlLogger = context.getLogger("org.hibernate.SQL");
+        sqlLogger.setLevel(Level.DEBUG);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+    }
+
+    // INFO из OrderService на каждое создание заказа
+    @Benchmark
+    public void serviceInfo() {
+        serviceLogger.info("Order created with id: {}", ThreadLocalRandom.current().nextLong(1_000_000));
+    }
+
+    // DEBUG-лог SQL на каждый запрос к базе
+    @Benchmark
+    public void sqlDebug() {
+        sqlLogger.debug("select o1_0.id,o1_0.created_at,o1_0.deleted,o1_0.status,o1_0.total_price,o1_0.user_id "
+                + "from orders o1_0 where o1_0.id=? and not(o1_0.deleted)");
+    }
+
+    private static String nullDevice() {
+        return System.getProperty("os.name").startsWith("Windows") ? "NUL" : "/dev/null";
+    }
+}
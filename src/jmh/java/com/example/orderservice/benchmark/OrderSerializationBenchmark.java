@@ -0,0 +1,149 @@
+package com.example.orderservice.benchmark;
+
+import com.example.orderservice.dto.OrderItemResponse;
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.dto.PageResponse;
+import com.example.orderservice.dto.UserResponseDTO;
+import com.example.orderservice.entity.OrderStatus;
+import com.example.orderservice.serialization.OrderProtobufWriter;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.google.protobuf.CodedOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Сериализация страницы заказов GET /api/orders в JSON, Smile, CBOR и Protobuf.
+// Размеры ответов (сырые и после gzip) печатаются один раз при старте каждого прогона.
+// Запуск: ./gradlew jmh -Pjmh.includes=OrderSerializationBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private PageResponse<OrderResponse> page;
+    private ObjectMapper json;
+    private ObjectMapper smile;
+    private ObjectMapper cbor;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+
+    @Setup
+    public void setUp() throws IOException {
+        json = mapper(new JsonFactory());
+        smile = mapper(new SmileFactory());
+        cbor = mapper(new CBORFactory());
+        page = PageResponse.of(samplePage(pageSize));
+
+        System.out.printf("%npageSize=%d payload bytes (raw / gzip): json %s, smile %s, cbor %s, protobuf %s%n",
+                pageSize, sizes(json()), sizes(smile()), sizes(cbor()), sizes(protobuf()));
+    }
+
+    @Benchmark
+    public byte[] json() throws IOException {
+        buffer.reset();
+        json.writeValue(buffer, page);
+        return buffer.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] smile() throws IOException {
+        buffer.reset();
+        smile.writeValue(buffer, page);
+        return buffer.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] cbor() throws IOException {
+        buffer.reset();
+        cbor.writeValue(buffer, page);
+        return buffer.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] protobuf() throws IOException {
+        buffer.reset();
+        CodedOutputStream out = CodedOutputStream.newInstance(buffer);
+        OrderProtobufWriter.writeOrderPage(out, page);
+        out.flush();
+        return buffer.toByteArray();
+    }
+
+    // Те же модули, что регистрирует приложение (см. JacksonConfig)
+    static ObjectMapper mapper(JsonFactory factory) {
+        return new ObjectMapper(factory)
+                .registerModule(new JavaTimeModule())
+                .registerModule(new BlackbirdModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static String sizes(byte[] payload) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(payload);
+        }
+        return payload.length + " / " + compressed.size();
+    }
+
+    // Типичный заказ: 3 позиции и данные покупателя
+    static PageImpl<OrderResponse> samplePage(int size) {
+        List<OrderResponse> orders = new ArrayList<>(size);
+        LocalDateTime base = LocalDateTime.of(2025, 3, 14, 10, 0);
+        for (int i = 0; i < size; i++) {
+            UserResponseDTO user = new UserResponseDTO();
+            user.setId(1000L + i);
+            user.setName("John");
+            user.setSurname("Doe");
+            user.setEmail("john.doe" + i + "@example.com");
+            user.setBirthDate(LocalDate.of(1990, 1, 1 + i % 28));
+            user.setActive(true);
+
+            List<OrderItemResponse> items = new ArrayList<>();
+            for (int j = 0; j < 3; j++) {
+                OrderItemResponse item = new OrderItemResponse();
+                item.setId(10_000L + i * 3L + j);
+                item.setItemId(500L + j);
+                item.setItemName("Wireless charger model " + j);
+                item.setItemPrice(new BigDecimal("19.99").add(BigDecimal.valueOf(j)));
+                item.setQuantity(1 + j);
+                items.add(item);
+            }
+
+            OrderResponse order = new OrderResponse();
+            order.setId(100_000L + i);
+            order.setUserId(user.getId());
+            order.setStatus(OrderStatus.values()[i % OrderStatus.values().length]);
+            order.setTotalPrice(new BigDecimal("125.94"));
+            order.setCreatedAt(base.plusMinutes(i));
+            order.setUpdatedAt(base.plusMinutes(i + 5L));
+            order.setItems(items);
+            order.setUserInfo(user);
+            orders.add(order);
+        }
+        return new PageImpl<>(orders, PageRequest.of(0, size), 10_000);
+    }
+}
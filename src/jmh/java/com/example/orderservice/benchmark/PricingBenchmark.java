@@ -0,0 +1,59 @@
+package com.example.orderservice.benchmark;
+
+import com.example.orderservice.pricing.PricingEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Итог заказа: прежняя цепочка BigDecimal против PricingEngine на копейках.
+// Цены приходят из БД как BigDecimal, поэтому их конвертация входит в замер.
+// ./gradlew jmh -Pjmh.includes=PricingBenchmark -Pjmh.profilers=gc
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PricingBenchmark {
+
+    @Param({"3", "50", "1000"})
+    private int lines;
+
+    private BigDecimal[] prices;
+    private int[] quantities;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        prices = new BigDecimal[lines];
+        quantities = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            prices[i] = BigDecimal.valueOf(random.nextLong(100, 100_000), 2);
+            quantities[i] = random.nextInt(1, 20);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalChain() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            total = total.add(prices[i].multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal pricingEngine() {
+        long total = 0;
+        for (int i = 0; i < lines; i++) {
+            total = PricingEngine.addLine(total, PricingEngine.toMinorUnits(prices[i]), quantities[i]);
+        }
+        return PricingEngine.toDecimal(total);
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.orderservice.cache;
+
+import com.example.orderservice.config.CacheInvalidationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+// Слушает канал инвалидации на отдельном соединении вне пула Hikari: LISTEN держит соединение
+// всё время работы узла. После (пере)подключения кэши очищаются целиком, потому что уведомления,
+// отправленные пока соединения не было, PostgreSQL не хранит
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheInvalidationListener implements SmartLifecycle {
+    static final String APPLICATION_NAME = "order-service-cache-invalidation";
+
+    private final DataSourceProperties dataSourceProperties;
+    private final CacheInvalidationProperties properties;
+    private final CacheInvalidationPublisher publisher;
+    private final CacheManager cacheManager;
+    private final Counter received;
+    private final Counter resyncs;
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread worker;
+
+    public CacheInvalidationListener(DataSourceProperties dataSourceProperties,
+                                     CacheInvalidationProperties properties,
+                                     CacheInvalidationPublisher publisher,
+                                     CacheManager cacheManager,
+                                     MeterRegistry meterRegistry) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.properties = properties;
+        this.publisher = publisher;
+        this.cacheManager = cacheManager;
+        this.received = meterRegistry.counter("cache.invalidation.received");
+        this.resyncs = meterRegistry.counter("cache.invalidation.resyncs");
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = Thread.ofPlatform()
+                .name("cache-invalidation-listener")
+                .daemon(true)
+                .start(this::listenLoop);
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        // Закрытие соединения прерывает ожидание в getNotifications
+        closeQuietly();
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            worker = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listenLoop() {
+        int pollTimeoutMillis = (int) properties.getPollTimeout().toMillis();
+        while (running) {
+            try {
+                PGConnection pgConnection = connect();
+                resync();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMillis);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handle(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Cache invalidation listener lost its connection, reconnecting in {}: {}",
+                            properties.getReconnectDelay(), e.getMessage());
+                }
+            } finally {
+                closeQuietly();
+            }
+
+            if (running && !pause()) {
+                break;
+            }
+        }
+    }
+
+    private PGConnection connect() throws SQLException {
+        Properties info = new Properties();
+        if (dataSourceProperties.determineUsername() != null) {
+            info.setProperty("user", dataSourceProperties.determineUsername());
+        }
+        if (dataSourceProperties.determinePassword() != null) {
+            info.setProperty("password", dataSourceProperties.determinePassword());
+        }
+        info.setProperty("ApplicationName", APPLICATION_NAME);
+        // Без keepalive обрыв сети без RST не был бы замечен, и узел молча перестал бы получать уведомления
+        info.setProperty("tcpKeepAlive", "true");
+
+        Connection opened = DriverManager.getConnection(dataSourceProperties.determineUrl(), info);
+        connection = opened;
+        if (!opened.isWrapperFor(PGConnection.class)) {
+            throw new SQLException("Cache invalidation requires a PostgreSQL database");
+        }
+        try (Statement statement = opened.createStatement()) {
+            statement.execute("LISTEN " + quoteIdentifier(properties.getChannel()));
+        }
+        log.info("Listening for cache invalidations on channel {}", properties.getChannel());
+        return opened.unwrap(PGConnection.class);
+    }
+
+    void handle(String payload) {
+        CacheInvalidationMessage message;
+        try {
+            message = CacheInvalidationMessage.decode(payload);
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring cache invalidation: {}", e.getMessage());
+            return;
+        }
+        received.increment();
+        // Свой узел уже сбросил запись после фиксации транзакции
+        if (!publisher.getNodeId().equals(message.origin())) {
+            publisher.applyLocally(message);
+        }
+    }
+
+    private void resync() {
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        resyncs.increment();
+    }
+
+    private boolean pause() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(properties.getReconnectDelay().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void closeQuietly() {
+        Connection current = connection;
+        connection = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (SQLException e) {
+                log.debug("Failed to close cache invalidation connection: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static String quoteIdentifier(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.orderservice.cache;
+
+// Полезная нагрузка NOTIFY: "<узел>|<кэш>|<id>" или "<узел>|<кэш>|*" для сброса всего кэша.
+// Ключи кэшей - идентификаторы сущностей, поэтому id передаётся как число
+public record CacheInvalidationMessage(String origin, String cacheName, Long key) {
+    private static final String SEPARATOR = "|";
+    private static final String ALL_KEYS = "*";
+
+    public static CacheInvalidationMessage evict(String origin, String cacheName, Long key) {
+        return new CacheInvalidationMessage(origin, cacheName, key);
+    }
+
+    public static CacheInvalidationMessage evictAll(String origin, String cacheName) {
+        return new CacheInvalidationMessage(origin, cacheName, null);
+    }
+
+    public boolean isEvictAll() {
+        return key == null;
+    }
+
+    public String encode() {
+        return origin + SEPARATOR + cacheName + SEPARATOR + (key == null ? ALL_KEYS : key.toString());
+    }
+
+    public static CacheInvalidationMessage decode(String payload) {
+        String[] parts = payload == null ? new String[0] : payload.split("\\|", -1);
+        if (parts.length != 3 || parts[0].isEmpty() || parts[1].isEmpty()) {
+            throw new IllegalArgumentException("Malformed cache invalidation payload: " + payload);
+        }
+        if (ALL_KEYS.equals(parts[2])) {
+            return evictAll(parts[0], parts[1]);
+        }
+        try {
+            return evict(parts[0], parts[1], Long.valueOf(parts[2]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cache invalidation payload: " + payload, e);
+        }
+    }
+}
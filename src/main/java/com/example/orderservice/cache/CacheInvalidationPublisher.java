@@ -0,0 +1,76 @@
+package com.example.orderservice.cache;
+
+import com.example.orderservice.config.CacheInvalidationProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+// Сбрасывает запись в локальном кэше и рассылает уведомление остальным узлам.
+// pg_notify выполняется в той же транзакции, что и изменение: PostgreSQL доставляет его
+// слушателям только после COMMIT и отбрасывает при откате. Локальный кэш тоже сбрасывается
+// после фиксации, иначе параллельное чтение успело бы положить в него старое значение
+@Slf4j
+@Component
+public class CacheInvalidationPublisher {
+
+    private final CacheManager cacheManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheInvalidationProperties properties;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public CacheInvalidationPublisher(CacheManager cacheManager, JdbcTemplate jdbcTemplate,
+                                      CacheInvalidationProperties properties) {
+        this.cacheManager = cacheManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void evict(String cacheName, Long key) {
+        publish(CacheInvalidationMessage.evict(nodeId, cacheName, key));
+    }
+
+    public void evictAll(String cacheName) {
+        publish(CacheInvalidationMessage.evictAll(nodeId, cacheName));
+    }
+
+    private void publish(CacheInvalidationMessage message) {
+        if (properties.isEnabled()) {
+            jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class,
+                    properties.getChannel(), message.encode());
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyLocally(message);
+                }
+            });
+        } else {
+            applyLocally(message);
+        }
+    }
+
+    void applyLocally(CacheInvalidationMessage message) {
+        Cache cache = cacheManager.getCache(message.cacheName());
+        if (cache == null) {
+            return;
+        }
+        if (message.isEvictAll()) {
+            cache.clear();
+        } else {
+            cache.evict(message.key());
+        }
+        log.debug("Cache invalidated: {}", message.encode());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.orderservice.client;
+
+import com.example.orderservice.config.UserServiceClientProperties;
+import com.example.orderservice.dto.UserResponseDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Hedged requests для getUserById: если ответ не пришёл за hedging.delay,
+// отправляется второй запрос и используется тот ответ, что придёт первым.
+// Запрос идемпотентный, поэтому дублирование безопасно
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(value = "user.service.hedging.enabled", havingValue = "true")
+public class HedgingUserServiceClient implements UserServiceClient, DisposableBean {
+
+    private final UserServiceClient delegate;
+    private final long hedgeDelayNanos;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+
+    public HedgingUserServiceClient(@Qualifier(UserServiceClient.FEIGN_QUALIFIER) UserServiceClient delegate,
+                                    UserServiceClientProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.hedgeDelayNanos = properties.getHedging().getDelay().toNanos();
+        this.hedgesSent = meterRegistry.counter("user.service.hedged.requests", "result", "sent");
+        this.hedgesWon = meterRegistry.counter("user.service.hedged.requests", "result", "won");
+    }
+
+    @Override
+    public UserResponseDTO getUserById(Long id) {
+        CompletableFuture<UserResponseDTO> primary = CompletableFuture.supplyAsync(() -> delegate.getUserById(id), executor);
+        try {
+            return primary.get(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return hedge(id, primary);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            primary.cancel(true);
+            throw new IllegalStateException("Interrupted while fetching user " + id, e);
+        }
+    }
+
+    @Override
+    public UserResponseDTO getUserByEmail(String email) {
+        return delegate.getUserByEmail(email);
+    }
+
+    private UserResponseDTO hedge(Long id, CompletableFuture<UserResponseDTO> primary) {
+        hedgesSent.increment();
+        log.debug("User service is slow for id {}, sending hedged request", id);
+        CompletableFuture<UserResponseDTO> hedged = CompletableFuture.supplyAsync(() -> delegate.getUserById(id), executor);
+
+        // Первый успешный ответ; ошибка - только если упали оба запроса
+        CompletableFuture<UserResponseDTO> winner = new CompletableFuture<>();
+        primary.whenComplete((user, error) -> {
+            if (error == null) {
+                winner.complete(user);
+            } else if (hedged.isCompletedExceptionally()) {
+                winner.completeExceptionally(error);
+            }
+        });
+        hedged.whenComplete((user, error) -> {
+            if (error == null) {
+                if (winner.complete(user)) {
+                    hedgesWon.increment();
+                }
+            } else if (primary.isCompletedExceptionally()) {
+                winner.completeExceptionally(error);
+            }
+        });
+
+        try {
+            return winner.join();
+        } catch (CompletionException e) {
+            throw unwrap(e.getCause());
+        } finally {
+            primary.cancel(true);
+            hedged.cancel(true);
+        }
+    }
+
+    private RuntimeException unwrap(Throwable cause) {
+        Throwable actual = cause instanceof CompletionException && cause.getCause() != null ? cause.getCause() : cause;
+        if (actual instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new IllegalStateException(actual);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -5,8 +5,10 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 
-@FeignClient(name = "user-service", url = "${user.service.url:http://localhost:8080}")
+@FeignClient(name = "user-service", url = "${user.service.url:http://localhost:8080}",
+        qualifiers = UserServiceClient.FEIGN_QUALIFIER, primary = false)
 public interface UserServiceClient {
+    String FEIGN_QUALIFIER = "userServiceFeignClient";
 
     @GetMapping("/api/users/{id}")
     UserResponseDTO getUserById(@PathVariable("id") Long id);
@@ -0,0 +1,88 @@
+package com.example.orderservice.concurrency;
+
+import com.example.orderservice.config.ConcurrencyLimitProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Градиентный лимитер: сравнивает краткосрочную задержку с долгосрочной
+// и уменьшает допустимую конкурентность, как только запросы начинают стоять в очереди
+public class AdaptiveConcurrencyLimiter {
+    private static final double LONG_WINDOW = 600;
+    private static final double SHORT_WINDOW = 10;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final double smoothing;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private double longRtt;
+    private double shortRtt;
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties.Adaptive settings) {
+        this.minLimit = settings.getMinLimit();
+        this.maxLimit = settings.getMaxLimit();
+        this.latencyTolerance = settings.getLatencyTolerance();
+        this.smoothing = settings.getSmoothing();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, settings.getInitialLimit()));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos) {
+        int inFlightAtRelease = inFlight.getAndDecrement();
+        onSample(latencyNanos, inFlightAtRelease);
+    }
+
+    // Освобождение без замера: запрос не выполнялся (например, отклонён bulkhead)
+    public void cancel() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void onSample(long latencyNanos, int inFlightAtRelease) {
+        double rtt = latencyNanos;
+        if (longRtt == 0) {
+            longRtt = rtt;
+            shortRtt = rtt;
+            return;
+        }
+        longRtt += (rtt - longRtt) / LONG_WINDOW;
+        shortRtt += (rtt - shortRtt) / SHORT_WINDOW;
+
+        // Долгосрочная база не должна застревать на деградировавшем значении
+        if (longRtt / shortRtt > latencyTolerance) {
+            longRtt *= 0.95;
+        }
+
+        // Лимит не растёт, пока он не используется хотя бы наполовину
+        if (inFlightAtRelease < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, latencyTolerance * longRtt / shortRtt));
+        double queueSize = Math.sqrt(limit);
+        double newLimit = limit * gradient + queueSize;
+        newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
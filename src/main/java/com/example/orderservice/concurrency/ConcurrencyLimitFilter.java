@@ -0,0 +1,66 @@
+package com.example.orderservice.concurrency;
+
+import com.example.orderservice.config.ConcurrencyLimitProperties;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@RequiredArgsConstructor
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final ConcurrencyLimitProperties properties;
+    private final EndpointClassifier endpointClassifier;
+    private final ConcurrencyLimitRegistry registry;
+    private final ServiceUnavailableResponder responder;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = endpointClassifier.classify(request);
+
+        // Сначала адаптивный лимит: при росте задержек запрос отбрасывается сразу, не занимая место в bulkhead
+        AdaptiveConcurrencyLimiter limiter = registry.limiter(endpointClass);
+        if (!limiter.tryAcquire()) {
+            registry.recordLimiterRejection(endpointClass);
+            log.debug("Shedding {} request {} - adaptive limit {} reached",
+                    endpointClass, request.getRequestURI(), limiter.getLimit());
+            responder.reject(response, properties.getRetryAfter(), "Server is overloaded, retry later");
+            return;
+        }
+
+        Bulkhead bulkhead = registry.bulkhead(endpointClass);
+        if (!bulkhead.tryAcquirePermission()) {
+            limiter.cancel();
+            registry.recordBulkheadRejection(endpointClass);
+            log.debug("Bulkhead {} is full, rejecting {}", bulkhead.getName(), request.getRequestURI());
+            responder.reject(response, properties.getRetryAfter(), "Too many concurrent requests, retry later");
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            bulkhead.onComplete();
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.orderservice.concurrency;
+
+import com.example.orderservice.config.ConcurrencyLimitProperties;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+public class ConcurrencyLimitRegistry implements MeterBinder {
+    private static final String CLASS_TAG = "class";
+
+    private final Map<EndpointClass, Bulkhead> bulkheads = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> bulkheadRejections = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> limiterRejections = new EnumMap<>(EndpointClass.class);
+    private final Map<EndpointClass, Counter> poolRejections = new EnumMap<>(EndpointClass.class);
+
+    public ConcurrencyLimitRegistry(BulkheadRegistry bulkheadRegistry, ConcurrencyLimitProperties properties) {
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            bulkheads.put(endpointClass, bulkheadRegistry.bulkhead(endpointClass.getInstanceName()));
+            limiters.put(endpointClass, new AdaptiveConcurrencyLimiter(properties.adaptiveFor(endpointClass)));
+        }
+    }
+
+    public Bulkhead bulkhead(EndpointClass endpointClass) {
+        return bulkheads.get(endpointClass);
+    }
+
+    public AdaptiveConcurrencyLimiter limiter(EndpointClass endpointClass) {
+        return limiters.get(endpointClass);
+    }
+
+    public void recordBulkheadRejection(EndpointClass endpointClass) {
+        Counter counter = bulkheadRejections.get(endpointClass);
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    public void recordLimiterRejection(EndpointClass endpointClass) {
+        Counter counter = limiterRejections.get(endpointClass);
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    public void recordPoolRejection(EndpointClass endpointClass) {
+        Counter counter = poolRejections.get(endpointClass);
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        limiters.forEach((endpointClass, limiter) -> {
+            String tag = endpointClass.getInstanceName();
+            Gauge.builder("http.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                    .tag(CLASS_TAG, tag)
+                    .description("Current adaptive concurrency limit")
+                    .register(registry);
+            Gauge.builder("http.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                    .tag(CLASS_TAG, tag)
+                    .description("Requests currently admitted by the adaptive limiter")
+                    .register(registry);
+            bulkheadRejections.put(endpointClass, Counter.builder("http.concurrency.rejected")
+                    .tag(CLASS_TAG, tag)
+                    .tag("reason", "bulkhead")
+                    .register(registry));
+            limiterRejections.put(endpointClass, Counter.builder("http.concurrency.rejected")
+                    .tag(CLASS_TAG, tag)
+                    .tag("reason", "adaptive-limit")
+                    .register(registry));
+            poolRejections.put(endpointClass, Counter.builder("http.concurrency.rejected")
+                    .tag(CLASS_TAG, tag)
+                    .tag("reason", "db-pool")
+                    .register(registry));
+        });
+    }
+}
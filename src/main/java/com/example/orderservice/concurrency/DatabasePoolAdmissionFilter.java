@@ -0,0 +1,53 @@
+package com.example.orderservice.concurrency;
+
+import com.example.orderservice.config.ConcurrencyLimitProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Стоит перед ConcurrencyLimitFilter: когда запросы уже ждут соединения в Hikari, новая выборка
+// отклоняется сразу, а не висит в getConnection до тайм-аута, занимая поток и место в лимите.
+// Записи и чтения по id допускаются - соединения пула остаются им
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class DatabasePoolAdmissionFilter extends OncePerRequestFilter {
+
+    private final ConcurrencyLimitProperties properties;
+    private final EndpointClassifier endpointClassifier;
+    private final DatabasePoolMonitor poolMonitor;
+    private final ConcurrencyLimitRegistry registry;
+    private final ServiceUnavailableResponder responder;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || !properties.getPool().isEnabled() || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = endpointClassifier.classify(request);
+        if (endpointClass == EndpointClass.SCAN) {
+            DatabasePoolMonitor.Snapshot pool = poolMonitor.current();
+            if (pool.state() != DatabasePoolMonitor.State.HEALTHY) {
+                registry.recordPoolRejection(endpointClass);
+                log.debug("Shedding {} request {} - database pool {}: average wait {} ms, {} threads waiting",
+                        endpointClass, request.getRequestURI(), pool.state(), pool.averageWait().toMillis(), pool.pending());
+                responder.reject(response, properties.getRetryAfter(), "Database is overloaded, retry later");
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
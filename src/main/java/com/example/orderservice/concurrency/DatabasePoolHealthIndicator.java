@@ -0,0 +1,35 @@
+package com.example.orderservice.concurrency;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+// Компонент databasePool в /actuator/health и в группе readiness. DEGRADED отвечает 200: узел
+// продолжает принимать записи, выборки отсекает DatabasePoolAdmissionFilter. OUT_OF_SERVICE (503)
+// выводит узел из балансировки, пока пул не перестанет отдавать тайм-ауты
+@Component
+@RequiredArgsConstructor
+public class DatabasePoolHealthIndicator implements HealthIndicator {
+    public static final Status DEGRADED = new Status("DEGRADED", "Database pool waits are high, scans are shed");
+
+    private final DatabasePoolMonitor poolMonitor;
+
+    @Override
+    public Health health() {
+        DatabasePoolMonitor.Snapshot pool = poolMonitor.current();
+        Health.Builder builder = switch (pool.state()) {
+            case HEALTHY -> Health.up();
+            case DEGRADED -> Health.status(DEGRADED);
+            case SATURATED -> Health.outOfService();
+        };
+        return builder
+                .withDetail("averageWaitMs", pool.averageWait().toMillis())
+                .withDetail("threadsAwaitingConnection", pool.pending())
+                .withDetail("activeConnections", pool.active())
+                .withDetail("totalConnections", pool.total())
+                .withDetail("timeouts", pool.timeouts())
+                .build();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.orderservice.concurrency;
+
+import com.example.orderservice.config.ConcurrencyLimitProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Состояние пула Hikari для допуска запросов и readiness. Потоки, ждущие соединения, берутся из MXBean пула,
+// средняя задержка getConnection - из приращения таймера hikaricp.connections.acquire за интервал,
+// тайм-ауты - из счётчика hikaricp.connections.timeout. Пересчёт не чаще sample-interval: фильтр
+// обращается к монитору на каждом запросе
+@Slf4j
+@Component
+public class DatabasePoolMonitor {
+    private static final String POOL_TAG = "pool";
+
+    public enum State {
+        HEALTHY,
+        // Запросы заметно ждут соединения: тяжёлые выборки отклоняются
+        DEGRADED,
+        // Соединения не выдаются вовремя: узел выводится из readiness
+        SATURATED
+    }
+
+    public record Snapshot(State state, Duration averageWait, int pending, int active, int total, long timeouts,
+                           long sampledAtNanos) {
+    }
+
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrencyLimitProperties.Pool settings;
+    private final AtomicBoolean sampling = new AtomicBoolean();
+
+    private volatile Snapshot snapshot;
+    // Накопленные значения метрик на момент прошлого замера; меняются только под флагом sampling
+    private long lastAcquireCount;
+    private double lastAcquireNanos;
+    private double lastTimeouts;
+
+    public DatabasePoolMonitor(DataSource dataSource, MeterRegistry meterRegistry, ConcurrencyLimitProperties properties) {
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+        this.settings = properties.getPool();
+        this.snapshot = new Snapshot(State.HEALTHY, Duration.ZERO, 0, 0, 0, 0, System.nanoTime());
+    }
+
+    // Пока один поток пересчитывает, остальные получают предыдущий замер и не ждут
+    public Snapshot current() {
+        Snapshot last = snapshot;
+        long now = System.nanoTime();
+        if (now - last.sampledAtNanos() < settings.getSampleInterval().toNanos() || !sampling.compareAndSet(false, true)) {
+            return last;
+        }
+        try {
+            snapshot = sample(now);
+            if (snapshot.state() != last.state()) {
+                log.warn("Database pool state changed {} -> {}: average wait {} ms, {} threads waiting, {} timeouts",
+                        last.state(), snapshot.state(), snapshot.averageWait().toMillis(), snapshot.pending(),
+                        snapshot.timeouts());
+            }
+            return snapshot;
+        } finally {
+            sampling.set(false);
+        }
+    }
+
+    private Snapshot sample(long now) {
+        HikariDataSource hikari = hikari();
+        HikariPoolMXBean pool = hikari == null ? null : hikari.getHikariPoolMXBean();
+        if (pool == null) {
+            // Не Hikari или пул ещё не запущен: допуск по пулу не ограничивается
+            return new Snapshot(State.HEALTHY, Duration.ZERO, 0, 0, 0, 0, now);
+        }
+
+        Duration averageWait = Duration.ZERO;
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag(POOL_TAG, hikari.getPoolName()).timer();
+        if (acquire != null) {
+            long count = acquire.count();
+            double totalNanos = acquire.totalTime(TimeUnit.NANOSECONDS);
+            if (count > lastAcquireCount) {
+                averageWait = Duration.ofNanos((long) ((totalNanos - lastAcquireNanos) / (count - lastAcquireCount)));
+            }
+            lastAcquireCount = count;
+            lastAcquireNanos = totalNanos;
+        }
+
+        long timeouts = 0;
+        Counter timeoutCounter = meterRegistry.find("hikaricp.connections.timeout")
+                .tag(POOL_TAG, hikari.getPoolName()).counter();
+        if (timeoutCounter != null) {
+            timeouts = (long) (timeoutCounter.count() - lastTimeouts);
+            lastTimeouts = timeoutCounter.count();
+        }
+
+        int pending = pool.getThreadsAwaitingConnection();
+        State state;
+        if (timeouts > 0 || pending >= settings.getSaturatedPending()) {
+            state = State.SATURATED;
+        } else if (pending >= settings.getShedPending() || averageWait.compareTo(settings.getShedWait()) >= 0) {
+            state = State.DEGRADED;
+        } else {
+            state = State.HEALTHY;
+        }
+        return new Snapshot(state, averageWait, pending, pool.getActiveConnections(), pool.getTotalConnections(),
+                timeouts, now);
+    }
+
+    private HikariDataSource hikari() {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
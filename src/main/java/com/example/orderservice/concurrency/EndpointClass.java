@@ -0,0 +1,19 @@
+package com.example.orderservice.concurrency;
+
+public enum EndpointClass {
+    WRITE("write"),
+    POINT_READ("point-read"),
+    SCAN("scan"),
+    // Массовый импорт: длительные потоковые запросы, которые не должны влиять на лимиты остальных записей
+    BULK("bulk");
+
+    private final String instanceName;
+
+    EndpointClass(String instanceName) {
+        this.instanceName = instanceName;
+    }
+
+    public String getInstanceName() {
+        return instanceName;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.orderservice.concurrency;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Pattern;
+
+@Component
+public class EndpointClassifier {
+    // Чтение одной записи по первичному ключу
+    private static final Pattern POINT_READ_PATH = Pattern.compile(
+            "^/api/(orders|items)/\\d+$|^/api/items/exists/\\d+$");
+    private static final Pattern BULK_PATH = Pattern.compile("^/api/items/import$|^/api/orders/bulk/(status|delete)$");
+
+    public EndpointClass classify(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return BULK_PATH.matcher(request.getRequestURI()).matches() ? EndpointClass.BULK : EndpointClass.WRITE;
+        }
+        if (POINT_READ_PATH.matcher(request.getRequestURI()).matches()) {
+            return EndpointClass.POINT_READ;
+        }
+        return EndpointClass.SCAN;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.orderservice.concurrency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+public class ServiceUnavailableResponder {
+
+    private final ObjectMapper objectMapper;
+
+    // Тело ответа в том же формате, что и у GlobalExceptionHandler
+    public void reject(HttpServletResponse response, Duration retryAfter, String message) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                Map.of("error", "Service Unavailable", "message", message));
+    }
+}
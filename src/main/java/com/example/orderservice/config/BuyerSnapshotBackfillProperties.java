@@ -0,0 +1,18 @@
+package com.example.orderservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "orders.buyer-snapshot.backfill")
+public class BuyerSnapshotBackfillProperties {
+    private boolean enabled = false;
+    private int batchSize = 200;
+    private int maxBatchesPerRun = 50;
+    // Пауза между пачками, чтобы не нагружать user-service
+    private Duration pauseBetweenBatches = Duration.ofMillis(200);
+}
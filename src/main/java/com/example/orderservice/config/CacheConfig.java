@@ -0,0 +1,12 @@
+package com.example.orderservice.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Кэши Caffeine настраиваются через spring.cache.* в application.yml.
+// Между узлами кэши согласуются через CacheInvalidationPublisher / CacheInvalidationListener
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String ITEMS_CACHE = "items";
+}
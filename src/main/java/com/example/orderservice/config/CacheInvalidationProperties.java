@@ -0,0 +1,19 @@
+package com.example.orderservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cache.invalidation")
+public class CacheInvalidationProperties {
+    private boolean enabled = true;
+    // Канал NOTIFY/LISTEN, общий для всех реплик
+    private String channel = "cache_invalidation";
+    // Как долго слушатель ждёт уведомлений за один опрос соединения
+    private Duration pollTimeout = Duration.ofMillis(500);
+    private Duration reconnectDelay = Duration.ofSeconds(1);
+}
@@ -0,0 +1,50 @@
+package com.example.orderservice.config;
+
+import com.example.orderservice.concurrency.EndpointClass;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "concurrency-limits")
+public class ConcurrencyLimitProperties {
+    private boolean enabled = true;
+    private Duration retryAfter = Duration.ofSeconds(1);
+    private Map<EndpointClass, Adaptive> adaptive = new EnumMap<>(EndpointClass.class);
+    private Pool pool = new Pool();
+
+    public Adaptive adaptiveFor(EndpointClass endpointClass) {
+        return adaptive.getOrDefault(endpointClass, new Adaptive());
+    }
+
+    @Getter
+    @Setter
+    public static class Adaptive {
+        private int initialLimit = 20;
+        private int minLimit = 2;
+        private int maxLimit = 200;
+        // Во сколько раз краткосрочная задержка может превысить долгосрочную до снижения лимита
+        private double latencyTolerance = 2.0;
+        private double smoothing = 0.2;
+    }
+
+    // Допуск по состоянию пула соединений с базой (DatabasePoolMonitor)
+    @Getter
+    @Setter
+    public static class Pool {
+        private boolean enabled = true;
+        // Как часто пересчитываются средняя задержка getConnection и число ожидающих потоков
+        private Duration sampleInterval = Duration.ofMillis(500);
+        // Выше любого из порогов SCAN-запросы отклоняются, readiness - DEGRADED
+        private Duration shedWait = Duration.ofMillis(50);
+        private int shedPending = 5;
+        // Пул исчерпан: узел выводится из readiness. Порог высокий - при общей деградации базы
+        // выведенными оказались бы все реплики сразу
+        private int saturatedPending = 50;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.orderservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "orders.group-commit")
+public class GroupCommitProperties {
+    private boolean enabled = false;
+    // Сколько заказов максимум фиксируется одной транзакцией
+    private int maxBatchSize = 32;
+    // Сколько ждать попутчиков после первого заказа в пачке; добавляется к задержке каждого создания
+    private Duration linger = Duration.ofMillis(5);
+    // При переполненной очереди заказ создаётся сразу, отдельной транзакцией
+    private int queueCapacity = 1024;
+}
@@ -0,0 +1,18 @@
+package com.example.orderservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "idempotency")
+public class IdempotencyProperties {
+    private Duration ttl = Duration.ofHours(24);
+    private Duration lockTimeout = Duration.ofSeconds(30);
+    private Duration waitTimeout = Duration.ofSeconds(10);
+    private Duration pollInterval = Duration.ofMillis(50);
+    private int cleanupBatchSize = 500;
+}
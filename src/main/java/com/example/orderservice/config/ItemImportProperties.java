@@ -0,0 +1,16 @@
+package com.example.orderservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "items.import")
+public class ItemImportProperties {
+    // Сколько строк передаётся одним COPY и фиксируется одной транзакцией
+    private int chunkSize = 5000;
+    // Ограничение на размер отчёта, чтобы файл с миллионом плохих строк не съел память
+    private int maxReportedErrors = 1000;
+}
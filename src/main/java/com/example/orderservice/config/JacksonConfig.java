@@ -0,0 +1,21 @@
+package com.example.orderservice.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+
+// Spring Boot регистрирует бины Module во всех ObjectMapper из Jackson2ObjectMapperBuilder,
+// включая Smile и CBOR. Blackbird заменяет рефлексивный доступ к геттерам сгенерированными лямбдами
+@Configuration
+public class JacksonConfig {
+
+    // В native-образе классы во время работы не генерируются: там остаётся обычный доступ через рефлексию.
+    // Проверка в теле метода, а не условием на бине - условия Spring AOT вычисляет ещё на JVM при сборке
+    @Bean
+    public Module blackbirdModule() {
+        return NativeDetector.inNativeImage() ? new SimpleModule("blackbird-disabled") : new BlackbirdModule();
+    }
+}
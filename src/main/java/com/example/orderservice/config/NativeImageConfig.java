@@ -0,0 +1,46 @@
+package com.example.orderservice.config;
+
+import com.example.orderservice.dto.OrderRequest;
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.dto.UserResponseDTO;
+import com.example.orderservice.id.SnowflakeIdentifierGenerator;
+import com.example.orderservice.logging.RateLimitingTurboFilter;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+// Настройки для GraalVM native-image (./gradlew nativeCompile -Pnative). Подсказки описывают то, что
+// приложение создаёт или читает рефлексией мимо бинов Spring. Сущности, репозитории, мапперы MapStruct, прокси Feign-клиентов
+// и привязку @ConfigurationProperties (включая resilience4j) Spring AOT описывает сам;
+// Hibernate, Liquibase, Caffeine и HikariCP - GraalVM reachability metadata repository
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeImageConfig.Registrar.class)
+public class NativeImageConfig {
+
+    static class Registrar implements RuntimeHintsRegistrar {
+        private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Генератор из @IdGeneratorType Hibernate создаёт через конструктор по умолчанию
+            hints.reflection().registerType(SnowflakeIdentifierGenerator.class,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+            // Турбофильтр объявлен в logback-spring.xml: Joran создаёт его и вызывает сеттеры по именам элементов
+            hints.reflection().registerType(RateLimitingTurboFilter.class,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+            // Ответ user-service разбирает декодер Feign; ответ и запрос заказа - ещё и IdempotencyService
+            bindingRegistrar.registerReflectionHints(hints.reflection(),
+                    UserResponseDTO.class, OrderRequest.class, OrderResponse.class);
+
+            // Журнал миграций для разовой команды migrate; includeAll в native-образе каталог не перечислит,
+            // поэтому узлы native-образа собираются без Liquibase (см. processAot в build.gradle)
+            hints.resources().registerPattern("db/changelog/*");
+            hints.resources().registerPattern("db/changelog/versions/*");
+        }
+    }
+}
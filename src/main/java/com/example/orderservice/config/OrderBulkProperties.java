@@ -0,0 +1,14 @@
+package com.example.orderservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "orders.bulk")
+public class OrderBulkProperties {
+    // Заказов на одну транзакцию: блокировки строк не копятся до конца всей операции
+    private int chunkSize = 1000;
+    private int maxIds = 100_000;
+}
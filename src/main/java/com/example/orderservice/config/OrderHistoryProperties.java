@@ -0,0 +1,15 @@
+package com.example.orderservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "orders.history")
+public class OrderHistoryProperties {
+    private int defaultPageSize = 20;
+    private int maxPageSize = 100;
+    // GET /api/orders/user/{userId} без пагинации отдаёт не больше стольких последних заказов
+    private int legacyMaxResults = 1000;
+}
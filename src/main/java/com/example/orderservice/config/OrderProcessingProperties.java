@@ -0,0 +1,23 @@
+package com.example.orderservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "orders.processing")
+public class OrderProcessingProperties {
+    private boolean enabled = false;
+    // Потоков-воркеров на узел; узлы масштабируются независимо, SKIP LOCKED разводит их по разным заказам
+    private int workerThreads = 2;
+    private int batchSize = 20;
+    // Заказ, который воркер не завершил за это время (упал узел), снова становится доступен другим
+    private Duration visibilityTimeout = Duration.ofMinutes(5);
+    private int maxAttempts = 5;
+    // Отсрочка повтора растёт линейно с номером попытки
+    private Duration retryBackoff = Duration.ofSeconds(30);
+    private Duration pollInterval = Duration.ofSeconds(1);
+}
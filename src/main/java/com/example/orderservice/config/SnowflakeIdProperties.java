@@ -0,0 +1,21 @@
+package com.example.orderservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "ids.snowflake")
+public class SnowflakeIdProperties {
+    // Начало отсчёта времени в id; 41 бит миллисекунд хватает примерно на 69 лет от этой даты
+    private Instant epoch = Instant.parse("2025-01-01T00:00:00Z");
+    // Узел, не продливший аренду за это время, теряет свой node id, и его может занять другой
+    private Duration leaseDuration = Duration.ofSeconds(60);
+    private Duration renewInterval = Duration.ofSeconds(15);
+    // Небольшой откат часов (NTP) пережидается, при большем выдача id останавливается
+    private Duration maxClockBackward = Duration.ofMillis(50);
+}
@@ -0,0 +1,56 @@
+package com.example.orderservice.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.core5.http.HeaderElement;
+import org.apache.hc.core5.http.message.BasicHeaderElementIterator;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Настройка пула Apache HttpClient 5, через который Feign ходит в user-service.
+// Размер пула и таймауты задаются в spring.cloud.openfeign.* (application.yml)
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(value = "spring.cloud.openfeign.httpclient.hc5.enabled", havingValue = "true")
+public class UserServiceClientConfig {
+    private static final String KEEP_ALIVE_TIMEOUT = "timeout";
+
+    @Bean
+    public HttpClient5FeignConfiguration.HttpClientBuilderCustomizer userServiceHttpClientCustomizer(
+            UserServiceClientProperties properties) {
+        TimeValue defaultKeepAlive = TimeValue.of(properties.getKeepAlive());
+        return builder -> builder
+                .setKeepAliveStrategy((response, context) -> {
+                    BasicHeaderElementIterator it = new BasicHeaderElementIterator(response.headerIterator("Keep-Alive"));
+                    while (it.hasNext()) {
+                        HeaderElement element = it.next();
+                        if (KEEP_ALIVE_TIMEOUT.equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+                            try {
+                                return TimeValue.ofSeconds(Long.parseLong(element.getValue()));
+                            } catch (NumberFormatException ignored) {
+                                // Некорректный заголовок - используем значение по умолчанию
+                            }
+                        }
+                    }
+                    return defaultKeepAlive;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(properties.getIdleEviction()));
+    }
+
+    // Менеджер соединений создаёт автоконфигурация Feign уже после разбора пользовательских конфигураций,
+    // поэтому @ConditionalOnBean здесь не срабатывает: бин берётся лениво в момент привязки метрик
+    @Bean
+    public MeterBinder userServiceConnectionPoolMetrics(ObjectProvider<HttpClientConnectionManager> connectionManager) {
+        return registry -> {
+            if (connectionManager.getIfAvailable() instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, "user-service").bindTo(registry);
+            }
+        };
+    }
+}
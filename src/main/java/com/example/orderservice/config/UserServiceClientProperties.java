@@ -0,0 +1,26 @@
+package com.example.orderservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "user.service")
+public class UserServiceClientProperties {
+    private String url = "http://localhost:8080";
+    // Keep-alive для соединений, если сервер не прислал свой Keep-Alive timeout
+    private Duration keepAlive = Duration.ofSeconds(30);
+    private Duration idleEviction = Duration.ofSeconds(30);
+    private Hedging hedging = new Hedging();
+
+    @Getter
+    @Setter
+    public static class Hedging {
+        private boolean enabled = false;
+        // Задержка перед дублирующим запросом; разумно брать около p95 задержки user-service
+        private Duration delay = Duration.ofMillis(100);
+    }
+}
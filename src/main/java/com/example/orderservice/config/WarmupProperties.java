@@ -0,0 +1,23 @@
+package com.example.orderservice.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "warmup")
+public class WarmupProperties {
+    private boolean enabled = false;
+    // Предел всего прогрева: по его истечении узел объявляется готовым, даже если прогоны не закончены
+    private Duration timeBudget = Duration.ofSeconds(30);
+    // Прогонов сценария на все потоки; порядка нескольких тысяч хватает, чтобы горячие методы дошли до C2
+    private int iterations = 2000;
+    private int threads = 4;
+    // Заказов и товаров, по которым ходят точечные чтения
+    private int sampleSize = 50;
+    // Открыть соединения пула до minimum-idle заранее, а не на первых запросах
+    private boolean primePool = true;
+}
@@ -1,16 +1,27 @@
 package com.example.orderservice.controller;
 
 import com.example.orderservice.dto.ItemDTO;
+import com.example.orderservice.dto.ItemImportResult;
+import com.example.orderservice.dto.PageResponse;
+import com.example.orderservice.dto.StockRequest;
+import com.example.orderservice.dto.StockResponse;
+import com.example.orderservice.importing.ItemImportFormat;
+import com.example.orderservice.importing.ItemImportService;
 import com.example.orderservice.service.ItemService;
+import com.example.orderservice.service.StockService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -20,6 +31,8 @@ import java.util.List;
 public class ItemController {
 
     private final ItemService itemService;
+    private final ItemImportService itemImportService;
+    private final StockService stockService;
 
     @GetMapping("/{id}")
     public ResponseEntity<ItemDTO> getItemById(@PathVariable Long id) {
@@ -28,7 +41,7 @@ public class ItemController {
     }
 
     @GetMapping
-    public ResponseEntity<Page<ItemDTO>> getAllItems(
+    public ResponseEntity<PageResponse<ItemDTO>> getAllItems(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "name") String sortBy,
@@ -40,7 +53,7 @@ public class ItemController {
         Pageable pageable = PageRequest.of(page, size, sort);
 
         Page<ItemDTO> items = itemService.getItemsWithPagination(pageable);
-        return ResponseEntity.ok(items);
+        return ResponseEntity.ok(PageResponse.of(items));
     }
 
     @GetMapping("/search")
@@ -53,6 +66,17 @@ public class ItemController {
         return ResponseEntity.ok(items);
     }
 
+    // Ранжированный полнотекстовый поиск: /api/items/search?mode=fulltext&q=red wid
+    @GetMapping(value = "/search", params = "mode=fulltext")
+    public ResponseEntity<PageResponse<ItemDTO>> searchItemsFullText(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        Page<ItemDTO> items = itemService.searchItemsFullText(q, PageRequest.of(page, Math.min(size, 100)));
+        return ResponseEntity.ok(PageResponse.of(items));
+    }
+
     @GetMapping("/by-name/{name}")
     public ResponseEntity<List<ItemDTO>> getItemsByName(@PathVariable String name) {
         List<ItemDTO> items = itemService.getItemsByName(name);
@@ -78,6 +102,24 @@ public class ItemController {
         return ResponseEntity.ok(createdItem);
     }
 
+    // Тело читается потоком: файл каталога целиком в память не загружается
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ItemImportResult> importItems(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+
+        ItemImportFormat format = ItemImportFormat.fromContentType(MediaType.parseMediaType(contentType));
+        ItemImportResult result = itemImportService.importItems(body, format);
+        if (result.isCompleted()) {
+            return ResponseEntity.ok(result);
+        }
+        // Прерванный импорт - ошибка; тело говорит, до какой строки данные уже загружены
+        HttpStatus status = result.getAbortCause() == ItemImportResult.AbortCause.INPUT
+                ? HttpStatus.BAD_REQUEST
+                : HttpStatus.INTERNAL_SERVER_ERROR;
+        return ResponseEntity.status(status).body(result);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ItemDTO> updateItem(
             @PathVariable Long id,
@@ -93,6 +135,16 @@ public class ItemController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/{id}/stock")
+    public ResponseEntity<StockResponse> getStock(@PathVariable Long id) {
+        return ResponseEntity.ok(stockService.getStock(id));
+    }
+
+    @PutMapping("/{id}/stock")
+    public ResponseEntity<StockResponse> setStock(@PathVariable Long id, @Valid @RequestBody StockRequest request) {
+        return ResponseEntity.ok(stockService.setStock(id, request));
+    }
+
     @GetMapping("/exists/{id}")
     public ResponseEntity<Boolean> itemExists(@PathVariable Long id) {
         boolean exists = itemService.existsById(id);
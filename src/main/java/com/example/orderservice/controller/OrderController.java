@@ -1,8 +1,17 @@
 package com.example.orderservice.controller;
 
+import com.example.orderservice.dto.BulkOrderResult;
+import com.example.orderservice.dto.BulkOrderSelection;
+import com.example.orderservice.dto.BulkOrderStatusRequest;
+import com.example.orderservice.dto.CursorPageResponse;
+import com.example.orderservice.dto.OrderFields;
 import com.example.orderservice.dto.OrderRequest;
 import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.dto.PageResponse;
 import com.example.orderservice.entity.OrderStatus;
+import com.example.orderservice.service.IdempotencyService;
+import com.example.orderservice.service.OrderBulkService;
+import com.example.orderservice.service.OrderCreateBatcher;
 import com.example.orderservice.service.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -11,6 +20,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -20,7 +30,9 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -30,44 +42,97 @@ import java.util.List;
 @RequiredArgsConstructor
 public class OrderController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
+    private final OrderCreateBatcher orderCreateBatcher;
+    private final OrderBulkService orderBulkService;
 
     @PostMapping
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody OrderRequest request) {
-        OrderResponse response = orderService.createOrder(request);
+    public ResponseEntity<OrderResponse> createOrder(
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody OrderRequest request) {
+        OrderResponse response = idempotencyKey == null
+                ? orderCreateBatcher.createOrder(request)
+                : idempotencyService.execute(idempotencyKey, request, OrderResponse.class,
+                        claim -> orderCreateBatcher.createOrder(request, claim));
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<OrderResponse> getOrderById(@PathVariable Long id) {
-        OrderResponse response = orderService.getOrderById(id);
+    public ResponseEntity<OrderResponse> getOrderById(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean refreshUser,
+            @RequestParam(required = false) String fields) {
+        OrderResponse response = orderService.getOrderById(id, refreshUser, OrderFields.parse(fields));
         return ResponseEntity.ok(response);
     }
 
     @GetMapping
-    public ResponseEntity<Page<OrderResponse>> getOrders(
+    public ResponseEntity<PageResponse<OrderResponse>> getOrders(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
             @RequestParam(required = false) List<OrderStatus> statuses,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "createdAt") String sortBy) {
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "false") boolean refreshUser,
+            @RequestParam(required = false) String fields) {
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy).descending());
-        Page<OrderResponse> responses = orderService.getOrdersWithFilter(startDate, endDate, statuses, pageable);
-        return ResponseEntity.ok(responses);
+        Page<OrderResponse> responses = orderService.getOrdersWithFilter(startDate, endDate, statuses, pageable,
+                refreshUser, OrderFields.parse(fields));
+        return ResponseEntity.ok(PageResponse.of(responses));
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<OrderResponse>> getOrdersByUserId(@PathVariable Long userId) {
-        List<OrderResponse> responses = orderService.getOrdersByUserId(userId);
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<List<OrderResponse>> getOrdersByUserId(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "false") boolean refreshUser,
+            @RequestParam(required = false) String fields) {
+        CursorPageResponse<OrderResponse> responses = orderService.getOrdersByUserId(userId, refreshUser,
+                OrderFields.parse(fields));
+        return legacyList(userId, responses);
+    }
+
+    @GetMapping("/user/{userId}/history")
+    public ResponseEntity<CursorPageResponse<OrderResponse>> getOrderHistory(
+            @PathVariable Long userId,
+            @RequestParam(required = false) List<OrderStatus> statuses,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "false") boolean refreshUser,
+            @RequestParam(required = false) String fields) {
+        CursorPageResponse<OrderResponse> response = orderService.getOrderHistory(userId, statuses, cursor, size,
+                refreshUser, OrderFields.parse(fields));
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/user/email/{email}")
-    public ResponseEntity<List<OrderResponse>> getOrdersByUserEmail(@PathVariable String email) {
-        List<OrderResponse> responses = orderService.getOrdersByUserEmail(email);
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<List<OrderResponse>> getOrdersByUserEmail(
+            @PathVariable String email,
+            @RequestParam(defaultValue = "false") boolean refreshUser,
+            @RequestParam(required = false) String fields) {
+        CursorPageResponse<OrderResponse> responses = orderService.getOrdersByUserEmail(email, refreshUser,
+                OrderFields.parse(fields));
+        Long userId = responses.getContent().isEmpty() ? null : responses.getContent().get(0).getUserId();
+        return legacyList(userId, responses);
+    }
+
+    // Список без пагинации обрезан до legacy-max-results: Link rel="next" ведёт в историю по курсору
+    // с места, где список закончился
+    private ResponseEntity<List<OrderResponse>> legacyList(Long userId, CursorPageResponse<OrderResponse> responses) {
+        if (responses.getNextCursor() == null || userId == null) {
+            return ResponseEntity.ok(responses.getContent());
+        }
+        String next = UriComponentsBuilder.fromPath("/api/orders/user/{userId}/history")
+                .queryParam("cursor", responses.getNextCursor())
+                .buildAndExpand(userId)
+                .toUriString();
+        return ResponseEntity.ok()
+                .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                .body(responses.getContent());
     }
 
     @PutMapping("/{id}")
@@ -81,4 +146,16 @@ public class OrderController {
         orderService.deleteOrder(id);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/bulk/status")
+    public ResponseEntity<BulkOrderResult> changeStatusInBulk(@Valid @RequestBody BulkOrderStatusRequest request) {
+        BulkOrderResult result = orderBulkService.changeStatus(request, request.getStatus());
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<BulkOrderResult> deleteInBulk(@RequestBody BulkOrderSelection selection) {
+        BulkOrderResult result = orderBulkService.delete(selection);
+        return ResponseEntity.ok(result);
+    }
 }
\ No newline at end of file
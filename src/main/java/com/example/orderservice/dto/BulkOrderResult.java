@@ -0,0 +1,16 @@
+package com.example.orderservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkOrderResult {
+    // Только для выборки по id: сколько различных id передано
+    private Long requested;
+    private long affected;
+    // Не найдены, уже удалены или переход из их статуса не разрешён
+    private Long skipped;
+}
@@ -0,0 +1,29 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.entity.OrderStatus;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Заказы для массовой операции: либо явный список id, либо фильтр
+@Getter
+@Setter
+public class BulkOrderSelection {
+    private List<Long> ids;
+    private Filter filter;
+
+    @Getter
+    @Setter
+    public static class Filter {
+        private Long userId;
+        private List<OrderStatus> statuses;
+        private LocalDateTime startDate;
+        private LocalDateTime endDate;
+
+        public boolean isEmpty() {
+            return userId == null && (statuses == null || statuses.isEmpty()) && startDate == null && endDate == null;
+        }
+    }
+}
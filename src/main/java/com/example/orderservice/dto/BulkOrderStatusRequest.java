@@ -0,0 +1,13 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.entity.OrderStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class BulkOrderStatusRequest extends BulkOrderSelection {
+    @NotNull(message = "Target status is mandatory")
+    private OrderStatus status;
+}
@@ -0,0 +1,15 @@
+package com.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Страница по курсору: без totalElements, подсчёт всей истории на каждый запрос не нужен.
+// nextCursor == null - это последняя страница
+@Getter
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+    private final List<T> content;
+    private final String nextCursor;
+}
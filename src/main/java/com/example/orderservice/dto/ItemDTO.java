@@ -3,6 +3,7 @@ package com.example.orderservice.dto;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -21,6 +22,9 @@ public class ItemDTO {
     @Positive(message = "Price must be positive")
     private BigDecimal price;
 
+    @Size(max = 255, message = "External key must not exceed 255 characters")
+    private String externalKey;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.example.orderservice.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class ItemImportResult {
+    private long totalRows;
+    private long inserted;
+    private long updated;
+    private long rejected;
+    // false, если импорт прерван; уже зафиксированные пачки остаются в базе
+    private boolean completed = true;
+    private AbortCause abortCause;
+    private String abortReason;
+    // Строки файла до этой включительно обработаны: загружены в зафиксированных пачках или отклонены
+    private long committedThroughLine;
+    private boolean errorsTruncated;
+    private List<ItemImportError> errors = new ArrayList<>();
+
+    public enum AbortCause {
+        // Тело запроса не дочитано
+        INPUT,
+        // Пачка не записалась; подробности только в логе сервера
+        DATABASE
+    }
+}
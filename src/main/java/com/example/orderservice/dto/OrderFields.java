@@ -0,0 +1,32 @@
+package com.example.orderservice.dto;
+
+import java.util.Set;
+
+// Разреженный набор полей ответа: ?fields=id,status,totalPrice.
+// Скалярные поля дешёвые и возвращаются всегда; items и userInfo загружаются, только если перечислены
+public record OrderFields(boolean items, boolean userInfo) {
+    public static final OrderFields ALL = new OrderFields(true, true);
+
+    private static final Set<String> KNOWN_FIELDS = Set.of(
+            "id", "userId", "status", "totalPrice", "createdAt", "updatedAt", "items", "userInfo");
+
+    public static OrderFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        boolean items = false;
+        boolean userInfo = false;
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!KNOWN_FIELDS.contains(name)) {
+                throw new IllegalArgumentException("Unknown order field: " + name + ", allowed: " + KNOWN_FIELDS);
+            }
+            items |= name.equals("items");
+            userInfo |= name.equals("userInfo");
+        }
+        return new OrderFields(items, userInfo);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.orderservice.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+
+// Позиция в истории заказов пользователя: (created_at, id) последнего заказа страницы.
+// Клиенту отдаётся непрозрачной строкой, чтобы формат можно было поменять
+public record OrderHistoryCursor(LocalDateTime createdAt, Long id) {
+
+    // Начало истории: позже любого реального заказа
+    public static final OrderHistoryCursor START = new OrderHistoryCursor(
+            LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    // orders.created_at NOT NULL (миграция 015): курсор "null|id" не разобрал бы и сам сервис
+    public OrderHistoryCursor {
+        Objects.requireNonNull(createdAt, "createdAt");
+        Objects.requireNonNull(id, "id");
+    }
+
+    public static OrderHistoryCursor parse(String value) {
+        if (value == null || value.isBlank()) {
+            return START;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf('|');
+            return new OrderHistoryCursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.orderservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -8,6 +9,8 @@ import java.math.BigDecimal;
 @Getter
 @Setter
 public class OrderItemResponse {
+    // Snowflake id, как и OrderResponse.id, - строкой
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
     private Long id;
     private Long itemId;
     private String itemName;
@@ -1,6 +1,8 @@
 package com.example.orderservice.dto;
 
 import com.example.orderservice.entity.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -11,12 +13,18 @@ import java.util.List;
 @Getter
 @Setter
 public class OrderResponse {
+    // Snowflake id (~2^57) больше Number.MAX_SAFE_INTEGER: в JSON отдаётся строкой,
+    // чтобы JavaScript-клиенты не округляли его. На входе принимаются и строка, и число
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
     private Long id;
     private Long userId;
     private OrderStatus status;
     private BigDecimal totalPrice;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // null, если поле не запрошено через ?fields=
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<OrderItemResponse> items;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private UserResponseDTO userInfo;
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.example.orderservice.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+// Компактная обёртка страницы вместо PageImpl: без pageable/sort и с постоянным форматом.
+// Имена полей совпадают с PageImpl, чтобы клиенты, читающие content/totalElements, не заметили замены
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class PageResponse<T> {
+    private final List<T> content;
+    private final int number;
+    private final int size;
+    private final long totalElements;
+    private final int totalPages;
+
+    public static <T> PageResponse<T> of(Page<T> page) {
+        return new PageResponse<>(page.getContent(), page.getNumber(), page.getSize(),
+                page.getTotalElements(), page.getTotalPages());
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.orderservice.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class StockRequest {
+    // null - остаток не ведётся, заказы товар не ограничивают
+    @PositiveOrZero(message = "Stock quantity must not be negative")
+    private Integer quantity;
+
+    // > 0 - остаток делится на части для товаров с большим числом параллельных заказов
+    @Min(value = 0, message = "Shards must not be negative")
+    @Max(value = 64, message = "Shards must not exceed 64")
+    private int shards;
+}
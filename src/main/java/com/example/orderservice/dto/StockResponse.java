@@ -0,0 +1,12 @@
+package com.example.orderservice.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class StockResponse {
+    private Long itemId;
+    private Integer quantity;
+    private int shards;
+}
@@ -0,0 +1,6 @@
+package com.example.orderservice.entity;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
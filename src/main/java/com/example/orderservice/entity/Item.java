@@ -10,6 +10,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.GenerationType;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -35,6 +36,17 @@ public class Item {
     @Column(precision = 10, scale = 2)
     private BigDecimal price;
 
+    @Column(name = "external_key", unique = true)
+    private String externalKey;
+
+    // Остаток меняется только условными UPDATE из StockService, поэтому сохранение сущности его не перезаписывает
+    @Column(name = "stock_quantity", insertable = false, updatable = false)
+    private Integer stockQuantity;
+
+    @ColumnDefault("0")
+    @Column(name = "stock_shards", nullable = false, insertable = false, updatable = false)
+    private int stockShards;
+
     @CreatedDate
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,40 @@
+package com.example.orderservice.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+// Часть остатка горячего товара: параллельные заказы списывают из разных строк и не ждут друг друга
+@Entity
+@Table(name = "item_stock_shards")
+@IdClass(ItemStockShard.Key.class)
+@Getter
+@Setter
+public class ItemStockShard {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Id
+    private Integer shard;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long itemId;
+        private Integer shard;
+    }
+}
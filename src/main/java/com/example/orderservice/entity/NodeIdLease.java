@@ -0,0 +1,26 @@
+package com.example.orderservice.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+// Аренда node id для генератора Snowflake: одновременно один node id принадлежит одному узлу
+@Entity
+@Table(name = "id_node_leases")
+@Getter
+@Setter
+public class NodeIdLease {
+    @Id
+    @Column(name = "node_id")
+    private Integer nodeId;
+
+    @Column(nullable = false, length = 64)
+    private String owner;
+
+    // Время в мс от Unix epoch: до этого момента владелец может выдавать id с этим node id
+    @Column(name = "expires_at_ms", nullable = false)
+    private Long expiresAtMs;
+}
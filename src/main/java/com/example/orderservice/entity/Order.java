@@ -1,13 +1,12 @@
 package com.example.orderservice.entity;
 
+import com.example.orderservice.id.SnowflakeId;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Column;
 import jakarta.persistence.Table;
 import jakarta.persistence.Index;
 import jakarta.persistence.EntityListeners;
-import jakarta.persistence.GenerationType;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.OneToMany;
@@ -32,8 +31,9 @@ import java.util.List;
 @Getter
 @Setter
 public class Order {
+    // Id упорядочен по времени создания: (id) можно использовать вместо (created_at, id) в keyset-выборках
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     private Long id;
 
     @Column(name = "user_id", nullable = false)
@@ -48,8 +48,22 @@ public class Order {
 
     private Boolean deleted = false;
 
+    // Снимок данных покупателя на момент создания заказа, чтобы не ходить в user-service при чтении
+    @Column(name = "buyer_name")
+    private String buyerName;
+
+    @Column(name = "buyer_surname")
+    private String buyerSurname;
+
+    @Column(name = "buyer_email")
+    private String buyerEmail;
+
+    // Когда снимок последний раз запрашивался; null - заказ ещё ждёт backfill
+    @Column(name = "buyer_snapshot_checked_at")
+    private LocalDateTime buyerSnapshotCheckedAt;
+
     @CreatedDate
-    @Column(name = "created_at", updatable = false)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @LastModifiedDate
@@ -1,8 +1,20 @@
 package com.example.orderservice.entity;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum OrderStatus {
     CREATED,
     PROCESSING,
     COMPLETED,
-    CANCELLED
-}
\ No newline at end of file
+    CANCELLED;
+
+    // Из каких статусов разрешён переход в этот; COMPLETED и CANCELLED - конечные
+    public Set<OrderStatus> allowedPredecessors() {
+        return switch (this) {
+            case CREATED -> EnumSet.noneOf(OrderStatus.class);
+            case PROCESSING -> EnumSet.of(CREATED);
+            case COMPLETED, CANCELLED -> EnumSet.of(CREATED, PROCESSING);
+        };
+    }
+}
@@ -39,6 +39,28 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
     }
 
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ConcurrentHashMap<String, String>> handleIdempotencyConflict(IdempotencyConflictException ex) {
+        ConcurrentHashMap<String, String> response = new ConcurrentHashMap<>();
+        response.put(ERROR, "Conflict");
+        response.put(MESSAGE, ex.getMessage());
+        if (log.isWarnEnabled()) {
+            log.warn("Idempotency conflict: {}", ex.getMessage());
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<ConcurrentHashMap<String, String>> handleInsufficientStock(InsufficientStockException ex) {
+        ConcurrentHashMap<String, String> response = new ConcurrentHashMap<>();
+        response.put(ERROR, "Conflict");
+        response.put(MESSAGE, ex.getMessage());
+        if (log.isWarnEnabled()) {
+            log.warn("Insufficient stock: {}", ex.getMessage());
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ConcurrentHashMap<String, String>> handleValidationExceptions(MethodArgumentNotValidException ex) {
         ConcurrentHashMap<String, String> errors = new ConcurrentHashMap<>();
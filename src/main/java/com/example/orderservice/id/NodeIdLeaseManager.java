@@ -0,0 +1,127 @@
+package com.example.orderservice.id;
+
+import com.example.orderservice.config.SnowflakeIdProperties;
+import com.example.orderservice.repository.NodeIdLeaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+
+// Выдаёт узлу node id для SnowflakeIdGenerator через таблицу аренды id_node_leases и продлевает аренду.
+// Сравнение времени идёт по часам узлов, поэтому lease-duration должна быть намного больше их расхождения
+@Slf4j
+@Component
+public class NodeIdLeaseManager implements SmartLifecycle {
+
+    private final NodeIdLeaseRepository leaseRepository;
+    private final SnowflakeIdProperties properties;
+    private final SnowflakeIdGenerator generator;
+    private final String owner = UUID.randomUUID().toString();
+    private volatile boolean running;
+
+    public NodeIdLeaseManager(NodeIdLeaseRepository leaseRepository, SnowflakeIdProperties properties) {
+        this.leaseRepository = leaseRepository;
+        this.properties = properties;
+        this.generator = new SnowflakeIdGenerator(properties.getEpoch().toEpochMilli(),
+                properties.getMaxClockBackward().toMillis(), System::currentTimeMillis);
+    }
+
+    public SnowflakeIdGenerator getGenerator() {
+        return generator;
+    }
+
+    // Аренда берётся при старте контекста, до веб-сервера и воркеров, а не лениво при первой вставке.
+    // Не в afterPropertiesSet: обучающий запуск для CDS-архива (spring.context.exit=onRefresh)
+    // завершается до этой фазы и обходится без базы
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        acquire();
+        SnowflakeIds.register(generator);
+        running = true;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Раньше остальных участников жизненного цикла и веб-сервера, поэтому и останавливается последним
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 8192;
+    }
+
+    @Scheduled(fixedDelayString = "${ids.snowflake.renew-interval:PT15S}")
+    public void renew() {
+        // Планировщик останавливается позже: после stop() аренду не берём заново
+        if (!running) {
+            return;
+        }
+        int nodeId = generator.getNodeId();
+        if (nodeId < 0) {
+            acquire();
+            return;
+        }
+
+        long expiresAt = System.currentTimeMillis() + properties.getLeaseDuration().toMillis();
+        if (leaseRepository.renew(nodeId, owner, expiresAt) == 1) {
+            generator.extend(expiresAt);
+            return;
+        }
+
+        // Аренду забрал другой узел (например, этот долго стоял на паузе GC): прежний node id использовать нельзя
+        log.warn("Lost Snowflake node id {} lease, acquiring a new one", nodeId);
+        generator.revoke();
+        acquire();
+    }
+
+    // При штатной остановке node id освобождается сразу, а не через lease-duration
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        SnowflakeIds.unregister(generator);
+        int nodeId = generator.getNodeId();
+        if (nodeId < 0) {
+            return;
+        }
+        generator.revoke();
+        try {
+            leaseRepository.renew(nodeId, owner, generator.getLastIssuedMillis() + 1);
+        } catch (Exception e) {
+            log.warn("Failed to release Snowflake node id {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private void acquire() {
+        for (int nodeId = 0; nodeId <= SnowflakeIdGenerator.MAX_NODE_ID; nodeId++) {
+            long now = System.currentTimeMillis();
+            long expiresAt = now + properties.getLeaseDuration().toMillis();
+
+            if (leaseRepository.tryInsert(nodeId, owner, expiresAt) == 1) {
+                generator.assign(nodeId, now, expiresAt);
+                log.info("Acquired new Snowflake node id {}", nodeId);
+                return;
+            }
+
+            Optional<Long> previous = leaseRepository.findExpiresAtMs(nodeId);
+            if (previous.isPresent() && previous.get() < now
+                    && leaseRepository.takeOverExpired(nodeId, owner, expiresAt, previous.get(), now) == 1) {
+                // Прежний владелец мог выдавать id до истечения своей аренды
+                generator.assign(nodeId, previous.get(), expiresAt);
+                log.info("Took over expired Snowflake node id {}", nodeId);
+                return;
+            }
+        }
+        throw new IllegalStateException("No free Snowflake node id: all "
+                + (SnowflakeIdGenerator.MAX_NODE_ID + 1) + " are leased");
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.orderservice.id;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+// 64-битный id: 1 бит знака (0) | 41 бит миллисекунд от epoch | 10 бит node id | 12 бит счётчика.
+// Id растут вместе со временем, поэтому сортировка по id совпадает с сортировкой по времени создания
+// с точностью до миллисекунды, и id может заменить (created_at, id) в keyset-пагинации
+public class SnowflakeIdGenerator {
+    static final int NODE_ID_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_ID_BITS) - 1;
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+    private static final int TIMESTAMP_SHIFT = NODE_ID_BITS + SEQUENCE_BITS;
+
+    private final long epochMillis;
+    private final long maxBackwardMillis;
+    private final LongSupplier clock;
+
+    private int nodeId = -1;
+    private long validUntilMillis;
+    private long lastTimestamp = -1;
+    private long sequence;
+
+    public SnowflakeIdGenerator(long epochMillis, long maxBackwardMillis, LongSupplier clock) {
+        this.epochMillis = epochMillis;
+        this.maxBackwardMillis = maxBackwardMillis;
+        this.clock = clock;
+    }
+
+    // floorMillis - время, до которого этот node id мог использовать прежний владелец:
+    // id с меньшей меткой времени могли уже быть выданы
+    public synchronized void assign(int nodeId, long floorMillis, long validUntilMillis) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.validUntilMillis = validUntilMillis;
+        this.lastTimestamp = Math.max(lastTimestamp, floorMillis - epochMillis);
+        this.sequence = MAX_SEQUENCE;
+    }
+
+    public synchronized void extend(long validUntilMillis) {
+        this.validUntilMillis = validUntilMillis;
+    }
+
+    public synchronized void revoke() {
+        this.nodeId = -1;
+    }
+
+    public synchronized int getNodeId() {
+        return nodeId;
+    }
+
+    // Последний момент (мс от Unix epoch), для которого уже выдавались id
+    public synchronized long getLastIssuedMillis() {
+        return lastTimestamp + epochMillis;
+    }
+
+    public synchronized long nextId() {
+        long now = clock.getAsLong();
+        if (nodeId < 0) {
+            throw new IllegalStateException("Snowflake node id is not assigned");
+        }
+        if (now >= validUntilMillis) {
+            throw new IllegalStateException("Snowflake node id lease for node " + nodeId + " has expired");
+        }
+
+        long timestamp = now - epochMillis;
+        if (timestamp < lastTimestamp) {
+            timestamp = waitForClock(lastTimestamp - timestamp);
+        }
+
+        if (timestamp == lastTimestamp) {
+            sequence = (sequence + 1) & MAX_SEQUENCE;
+            if (sequence == 0) {
+                // Счётчик миллисекунды исчерпан: ждём следующую
+                timestamp = waitUntilAfter(lastTimestamp);
+            }
+        } else {
+            sequence = 0;
+        }
+
+        lastTimestamp = timestamp;
+        return (timestamp << TIMESTAMP_SHIFT) | ((long) nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    public long timestampMillisOf(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + epochMillis;
+    }
+
+    public static int nodeIdOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+
+    public static long sequenceOf(long id) {
+        return id & MAX_SEQUENCE;
+    }
+
+    private long waitForClock(long backwardMillis) {
+        if (backwardMillis > maxBackwardMillis) {
+            throw new IllegalStateException("Clock moved backwards by " + backwardMillis
+                    + " ms, refusing to generate ids for node " + nodeId);
+        }
+        return waitUntilAfter(lastTimestamp - 1);
+    }
+
+    private long waitUntilAfter(long timestamp) {
+        long current = clock.getAsLong() - epochMillis;
+        while (current <= timestamp) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            current = clock.getAsLong() - epochMillis;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.orderservice.id;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+// Hibernate создаёт генераторы идентификаторов сам, вне контекста Spring,
+// поэтому генератор узла передаётся им через статическую ссылку.
+// Несколько контекстов в одной JVM (тесты) используют последний зарегистрированный генератор
+public final class SnowflakeIds {
+    private static final Deque<SnowflakeIdGenerator> GENERATORS = new ConcurrentLinkedDeque<>();
+
+    private SnowflakeIds() {
+    }
+
+    static void register(SnowflakeIdGenerator generator) {
+        GENERATORS.push(generator);
+    }
+
+    static void unregister(SnowflakeIdGenerator generator) {
+        GENERATORS.remove(generator);
+    }
+
+    public static long nextId() {
+        SnowflakeIdGenerator generator = GENERATORS.peek();
+        if (generator == null) {
+            throw new IllegalStateException("Snowflake id generator is not initialized");
+        }
+        return generator.nextId();
+    }
+}
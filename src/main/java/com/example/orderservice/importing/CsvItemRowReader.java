@@ -0,0 +1,133 @@
+package com.example.orderservice.importing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+// CSV с обязательной строкой заголовка; порядок колонок произвольный, лишние колонки заголовка игнорируются.
+// Записи выделяются по физическим строкам (значение в кавычках может занимать несколько строк) и разбираются
+// по одной: битые кавычки или лишние значения становятся ошибкой строки, а не всего импорта, а номер
+// строки - это номер первой физической строки записи с учётом пустых строк
+class CsvItemRowReader implements ItemRowReader {
+    private static final ObjectReader RECORD_READER = CsvMapper.builder()
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .build()
+            .readerFor(String[].class);
+    // Незакрытая кавычка не должна поглощать остаток файла: запись длиннее считается битой
+    private static final int MAX_RECORD_LINES = 100;
+
+    private final BufferedReader reader;
+    // Строки, прочитанные при поиске конца битой записи; разбираются заново
+    private final Deque<PhysicalLine> pushedBack = new ArrayDeque<>();
+    private final Map<String, Integer> columns = new HashMap<>();
+    private int headerSize;
+    private long line;
+
+    CsvItemRowReader(InputStream input) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        readHeader();
+    }
+
+    @Override
+    public ItemImportRow next() throws IOException {
+        if (headerSize == 0) {
+            return null;
+        }
+        PhysicalLine first = nextNonBlankLine();
+        if (first == null) {
+            return null;
+        }
+
+        StringBuilder text = new StringBuilder(first.text());
+        Deque<PhysicalLine> continuation = new ArrayDeque<>();
+        while (hasOpenQuote(text)) {
+            PhysicalLine more = nextLine();
+            if (more == null || continuation.size() + 1 >= MAX_RECORD_LINES) {
+                if (more != null) {
+                    continuation.addLast(more);
+                }
+                while (!continuation.isEmpty()) {
+                    pushedBack.addFirst(continuation.removeLast());
+                }
+                return ItemImportRow.malformed(first.number(), "Unterminated quoted value");
+            }
+            continuation.addLast(more);
+            text.append('\n').append(more.text());
+        }
+
+        String[] values;
+        try {
+            values = RECORD_READER.readValue(text.toString());
+        } catch (JsonProcessingException e) {
+            return ItemImportRow.malformed(first.number(), "Malformed CSV: " + e.getOriginalMessage());
+        }
+        if (values.length > headerSize) {
+            return ItemImportRow.malformed(first.number(),
+                    "Too many values: expected at most " + headerSize + ", got " + values.length);
+        }
+        return ItemImportRow.of(first.number(), value(values, "externalkey"), value(values, "name"), value(values, "price"));
+    }
+
+    private void readHeader() throws IOException {
+        PhysicalLine header = nextNonBlankLine();
+        if (header == null) {
+            return;
+        }
+        String[] names = RECORD_READER.readValue(header.text());
+        for (int i = 0; i < names.length; i++) {
+            columns.putIfAbsent(ItemRowReader.normalizeField(names[i]), i);
+        }
+        headerSize = names.length;
+    }
+
+    private String value(String[] values, String field) {
+        Integer index = columns.get(field);
+        return index == null || index >= values.length ? null : values[index];
+    }
+
+    private PhysicalLine nextNonBlankLine() throws IOException {
+        PhysicalLine next;
+        do {
+            next = nextLine();
+        } while (next != null && next.text().isBlank());
+        return next;
+    }
+
+    private PhysicalLine nextLine() throws IOException {
+        if (!pushedBack.isEmpty()) {
+            return pushedBack.removeFirst();
+        }
+        String text = reader.readLine();
+        return text == null ? null : new PhysicalLine(++line, text);
+    }
+
+    // Экранированная кавычка ("") не меняет чётность
+    private static boolean hasOpenQuote(CharSequence text) {
+        boolean open = false;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                open = !open;
+            }
+        }
+        return open;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private record PhysicalLine(long number, String text) {
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.orderservice.importing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+// Пачка строк уходит через COPY во временную таблицу, затем одним INSERT ... ON CONFLICT в items.
+// Каждая пачка - отдельная транзакция, поэтому уже загруженное не теряется при сбое на середине файла
+@Slf4j
+class ItemCopyWriter implements AutoCloseable {
+    private static final String CREATE_STAGING = """
+            CREATE TEMP TABLE IF NOT EXISTS item_import_staging (
+                line BIGINT NOT NULL,
+                external_key VARCHAR(255) NOT NULL,
+                name VARCHAR(255) NOT NULL,
+                price NUMERIC(10, 2) NOT NULL
+            ) ON COMMIT DELETE ROWS""";
+    private static final String DROP_STAGING = "DROP TABLE IF EXISTS item_import_staging";
+    private static final String COPY_STAGING =
+            "COPY item_import_staging (line, external_key, name, price) FROM STDIN WITH (FORMAT csv)";
+    // Повтор ключа внутри пачки: побеждает последняя строка файла.
+    // Неизменённые товары не переписываются, чтобы повторный импорт каталога не плодил мёртвые версии строк
+    private static final String UPSERT = """
+            WITH upserted AS (
+                INSERT INTO items (external_key, name, price, created_at, updated_at)
+                SELECT DISTINCT ON (external_key) external_key, name, price, CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP)
+                FROM item_import_staging
+                ORDER BY external_key, line DESC
+                ON CONFLICT (external_key) DO UPDATE
+                    SET name = EXCLUDED.name, price = EXCLUDED.price, updated_at = EXCLUDED.updated_at
+                    WHERE (items.name, items.price) IS DISTINCT FROM (EXCLUDED.name, EXCLUDED.price)
+                RETURNING (xmax = 0) AS inserted
+            )
+            SELECT count(*) FILTER (WHERE inserted), count(*) FILTER (WHERE NOT inserted) FROM upserted""";
+
+    private final Connection connection;
+    private final PGConnection pgConnection;
+    private final StringBuilder buffer = new StringBuilder(256);
+    private CopyIn copyIn;
+    private int pendingRows;
+
+    ItemCopyWriter(Connection connection) throws SQLException {
+        this.connection = connection;
+        this.pgConnection = connection.unwrap(PGConnection.class);
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_STAGING);
+        }
+        connection.commit();
+    }
+
+    void write(long line, String externalKey, String name, BigDecimal price) throws SQLException {
+        if (copyIn == null) {
+            copyIn = pgConnection.getCopyAPI().copyIn(COPY_STAGING);
+        }
+        buffer.setLength(0);
+        buffer.append(line).append(',');
+        appendQuoted(externalKey);
+        buffer.append(',');
+        appendQuoted(name);
+        buffer.append(',').append(price.toPlainString()).append('\n');
+
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        pendingRows++;
+    }
+
+    int getPendingRows() {
+        return pendingRows;
+    }
+
+    ChunkResult flush() throws SQLException {
+        if (copyIn == null) {
+            return new ChunkResult(0, 0);
+        }
+        try {
+            copyIn.endCopy();
+            copyIn = null;
+
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            ChunkResult result;
+            try (PreparedStatement upsert = connection.prepareStatement(UPSERT)) {
+                upsert.setTimestamp(1, now);
+                upsert.setTimestamp(2, now);
+                try (ResultSet rs = upsert.executeQuery()) {
+                    rs.next();
+                    result = new ChunkResult(rs.getLong(1), rs.getLong(2));
+                }
+            }
+            connection.commit();
+            pendingRows = 0;
+            return result;
+        } catch (SQLException e) {
+            abort();
+            throw e;
+        }
+    }
+
+    private void abort() {
+        try {
+            if (copyIn != null && copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+            connection.rollback();
+        } catch (SQLException e) {
+            // Исходная ошибка уже пробрасывается выше, здесь только фиксируем сбой отката
+            log.warn("Failed to roll back item import chunk: {}", e.getMessage());
+        } finally {
+            copyIn = null;
+            pendingRows = 0;
+        }
+    }
+
+    private void appendQuoted(String value) {
+        buffer.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                buffer.append('"');
+            }
+            buffer.append(c);
+        }
+        buffer.append('"');
+    }
+
+    @Override
+    public void close() throws SQLException {
+        abort();
+        // Соединение возвращается в пул - временная таблица не должна пережить импорт
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(DROP_STAGING);
+        }
+        connection.commit();
+    }
+
+    record ChunkResult(long inserted, long updated) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.orderservice.importing;
+
+import org.springframework.http.MediaType;
+
+public enum ItemImportFormat {
+    CSV(new MediaType("text", "csv")),
+    NDJSON(MediaType.APPLICATION_NDJSON);
+
+    private final MediaType mediaType;
+
+    ItemImportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public static ItemImportFormat fromContentType(MediaType contentType) {
+        for (ItemImportFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(contentType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported import content type: " + contentType
+                + ", expected text/csv or application/x-ndjson");
+    }
+}
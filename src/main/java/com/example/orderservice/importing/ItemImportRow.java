@@ -0,0 +1,17 @@
+package com.example.orderservice.importing;
+
+// Строка импорта в сыром виде; error заполняется, если строку не удалось разобрать
+public record ItemImportRow(long line, String externalKey, String name, String price, String error) {
+
+    public static ItemImportRow of(long line, String externalKey, String name, String price) {
+        return new ItemImportRow(line, externalKey, name, price, null);
+    }
+
+    public static ItemImportRow malformed(long line, String error) {
+        return new ItemImportRow(line, null, null, null, error);
+    }
+
+    public boolean isMalformed() {
+        return error != null;
+    }
+}
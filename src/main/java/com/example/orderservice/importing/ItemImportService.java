@@ -0,0 +1,161 @@
+package com.example.orderservice.importing;
+
+import com.example.orderservice.cache.CacheInvalidationPublisher;
+import com.example.orderservice.config.CacheConfig;
+import com.example.orderservice.config.ItemImportProperties;
+import com.example.orderservice.dto.ItemImportError;
+import com.example.orderservice.dto.ItemImportResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemImportService {
+    private static final int MAX_TEXT_LENGTH = 255;
+    // DECIMAL(10,2): не больше 8 знаков до запятой и 2 после
+    private static final int MAX_INTEGER_DIGITS = 8;
+    private static final int MAX_SCALE = 2;
+
+    private final DataSource dataSource;
+    private final ObjectMapper objectMapper;
+    private final ItemImportProperties properties;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+
+    // Транзакциями управляет ItemCopyWriter: одна транзакция на пачку, а не на весь файл
+    public ItemImportResult importItems(InputStream input, ItemImportFormat format) {
+        log.info("Starting bulk item import, format: {}", format);
+        ItemImportResult result = new ItemImportResult();
+
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.isWrapperFor(PGConnection.class)) {
+                throw new IllegalStateException("Bulk item import requires a PostgreSQL database");
+            }
+            try (ItemRowReader reader = ItemRowReader.open(format, input, objectMapper);
+                 ItemCopyWriter writer = new ItemCopyWriter(connection)) {
+                importRows(reader, writer, result);
+            }
+        } catch (IOException e) {
+            abort(result, ItemImportResult.AbortCause.INPUT, "Unreadable input: " + e.getMessage());
+        } catch (SQLException e) {
+            // Текст драйвера раскрывает SQL и ограничения схемы: он остаётся в логе, клиенту - только номер строки
+            log.error("Bulk item import failed, rows after line {} were not imported",
+                    result.getCommittedThroughLine(), e);
+            abort(result, ItemImportResult.AbortCause.DATABASE,
+                    "Database error, rows after line " + result.getCommittedThroughLine() + " were not imported");
+        }
+
+        // Обновлённые строки могли лежать в кэшах всех узлов; поштучная рассылка на миллион id не нужна
+        if (result.getUpdated() > 0) {
+            cacheInvalidationPublisher.evictAll(CacheConfig.ITEMS_CACHE);
+        }
+
+        log.info("Bulk item import finished: {} rows, {} inserted, {} updated, {} rejected, completed: {}",
+                result.getTotalRows(), result.getInserted(), result.getUpdated(),
+                result.getRejected(), result.isCompleted());
+        return result;
+    }
+
+    private void importRows(ItemRowReader reader, ItemCopyWriter writer, ItemImportResult result)
+            throws IOException, SQLException {
+        long lastLine = 0;
+        ItemImportRow row;
+        while ((row = reader.next()) != null) {
+            result.setTotalRows(result.getTotalRows() + 1);
+            lastLine = row.line();
+
+            String error = row.isMalformed() ? row.error() : validate(row);
+            if (error != null) {
+                reject(result, row, error);
+                continue;
+            }
+            // Цена разбирается один раз: проверяется и пишется одно и то же значение
+            BigDecimal price;
+            try {
+                price = new BigDecimal(row.price().trim());
+            } catch (NumberFormatException e) {
+                reject(result, row, "Price is not a number: " + row.price());
+                continue;
+            }
+            error = validatePrice(price);
+            if (error != null) {
+                reject(result, row, error);
+                continue;
+            }
+
+            writer.write(row.line(), row.externalKey().trim(), row.name().trim(), price);
+            if (writer.getPendingRows() >= properties.getChunkSize()) {
+                flush(writer, result, lastLine);
+            }
+        }
+        flush(writer, result, lastLine);
+    }
+
+    private void flush(ItemCopyWriter writer, ItemImportResult result, long lastLine) throws SQLException {
+        ItemCopyWriter.ChunkResult chunk = writer.flush();
+        result.setInserted(result.getInserted() + chunk.inserted());
+        result.setUpdated(result.getUpdated() + chunk.updated());
+        result.setCommittedThroughLine(lastLine);
+    }
+
+    private String validate(ItemImportRow row) {
+        if (isBlank(row.externalKey())) {
+            return "External key is mandatory";
+        }
+        if (row.externalKey().trim().length() > MAX_TEXT_LENGTH) {
+            return "External key must not exceed " + MAX_TEXT_LENGTH + " characters";
+        }
+        if (isBlank(row.name())) {
+            return "Item name is mandatory";
+        }
+        if (row.name().trim().length() > MAX_TEXT_LENGTH) {
+            return "Item name must not exceed " + MAX_TEXT_LENGTH + " characters";
+        }
+        if (isBlank(row.price())) {
+            return "Price is mandatory";
+        }
+        return null;
+    }
+
+    private String validatePrice(BigDecimal price) {
+        if (price.signum() <= 0) {
+            return "Price must be positive";
+        }
+        if (price.stripTrailingZeros().scale() > MAX_SCALE) {
+            return "Price must have at most " + MAX_SCALE + " decimal places";
+        }
+        if (price.precision() - price.scale() > MAX_INTEGER_DIGITS) {
+            return "Price is too large";
+        }
+        return null;
+    }
+
+    private void reject(ItemImportResult result, ItemImportRow row, String message) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getErrors().size() < properties.getMaxReportedErrors()) {
+            result.getErrors().add(new ItemImportError(row.line(), row.externalKey(), message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private void abort(ItemImportResult result, ItemImportResult.AbortCause cause, String reason) {
+        result.setCompleted(false);
+        result.setAbortCause(cause);
+        result.setAbortReason(reason);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
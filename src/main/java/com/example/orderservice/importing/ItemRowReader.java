@@ -0,0 +1,27 @@
+package com.example.orderservice.importing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+
+// Построчное чтение входного потока: в памяти держится только текущая строка
+public interface ItemRowReader extends Closeable {
+
+    // null, когда поток закончился
+    ItemImportRow next() throws IOException;
+
+    static ItemRowReader open(ItemImportFormat format, InputStream input, ObjectMapper objectMapper) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvItemRowReader(input);
+            case NDJSON -> new NdjsonItemRowReader(input, objectMapper);
+        };
+    }
+
+    // external_key, externalKey и External-Key считаются одним полем
+    static String normalizeField(String field) {
+        return field.replace("_", "").replace("-", "").trim().toLowerCase(Locale.ROOT);
+    }
+}
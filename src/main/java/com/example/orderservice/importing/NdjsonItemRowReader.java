@@ -0,0 +1,76 @@
+package com.example.orderservice.importing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+// Один JSON-объект на строку; битая строка становится ошибкой строки, а не всего импорта
+class NdjsonItemRowReader implements ItemRowReader {
+    private final BufferedReader reader;
+    private final ObjectReader jsonReader;
+    private long line;
+
+    NdjsonItemRowReader(InputStream input, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        // Цена читается сразу в BigDecimal, без промежуточного double
+        this.jsonReader = objectMapper.reader().with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+    }
+
+    @Override
+    public ItemImportRow next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+        } while (text.isBlank());
+
+        JsonNode node;
+        try {
+            node = jsonReader.readTree(text);
+        } catch (JsonProcessingException e) {
+            return ItemImportRow.malformed(line, "Malformed JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            return ItemImportRow.malformed(line, "Expected a JSON object");
+        }
+
+        String externalKey = null;
+        String name = null;
+        String price = null;
+        for (Map.Entry<String, JsonNode> field : node.properties()) {
+            switch (ItemRowReader.normalizeField(field.getKey())) {
+                case "externalkey" -> externalKey = text(field.getValue());
+                case "name" -> name = text(field.getValue());
+                case "price" -> price = text(field.getValue());
+                default -> {
+                    // Посторонние поля поставщика игнорируются
+                }
+            }
+        }
+        return ItemImportRow.of(line, externalKey, name, price);
+    }
+
+    private static String text(JsonNode value) {
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        return value.isNumber() ? value.decimalValue().toPlainString() : value.asText();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
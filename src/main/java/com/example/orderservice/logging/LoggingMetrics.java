@@ -0,0 +1,51 @@
+package com.example.orderservice.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+// Сколько событий отброшено ограничителем и насколько заполнена асинхронная очередь.
+// Конфигурация logback читается при каждом опросе: Spring может переинициализировать её после старта
+@Component
+public class LoggingMetrics implements MeterBinder {
+    private static final String ASYNC_APPENDER = "ASYNC_CONSOLE";
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("logging.sampling.dropped", this, LoggingMetrics::droppedBySampling)
+                .description("Verbose log events dropped by the rate-limiting filter")
+                .register(registry);
+        Gauge.builder("logging.async.queue.remaining", this, LoggingMetrics::asyncQueueRemaining)
+                .description("Free slots in the asynchronous log appender queue")
+                .register(registry);
+    }
+
+    private double droppedBySampling() {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return 0;
+        }
+        long dropped = 0;
+        for (TurboFilter filter : context.getTurboFilterList()) {
+            if (filter instanceof RateLimitingTurboFilter rateLimiting) {
+                dropped += rateLimiting.getDroppedCount();
+            }
+        }
+        return dropped;
+    }
+
+    private double asyncQueueRemaining() {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return Double.NaN;
+        }
+        Appender<?> appender = context.getLogger(Logger.ROOT_LOGGER_NAME).getAppender(ASYNC_APPENDER);
+        return appender instanceof AsyncAppender async ? async.getRemainingCapacity() : Double.NaN;
+    }
+}
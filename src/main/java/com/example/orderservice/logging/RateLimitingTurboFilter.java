@@ -0,0 +1,81 @@
+package com.example.orderservice.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Ограничивает число подробных событий (SQL, Feign) в секунду, чтобы DEBUG можно было
+// включить на нагруженном узле. Срабатывает до форматирования сообщения и постановки в очередь
+public class RateLimitingTurboFilter extends TurboFilter {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final List<String> loggers = new ArrayList<>();
+    private Level level = Level.DEBUG;
+    private int maxPerSecond = 50;
+
+    private final AtomicLong currentWindow = new AtomicLong();
+    private final AtomicInteger usedInWindow = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level eventLevel, String format,
+                              Object[] params, Throwable t) {
+        if (!isStarted() || eventLevel == null || eventLevel.levelInt > level.levelInt) {
+            return FilterReply.NEUTRAL;
+        }
+        // Уровень логгера выше события - событие и так будет отброшено, лимит не тратим
+        if (logger.getEffectiveLevel().levelInt > eventLevel.levelInt || !matches(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        long window = System.nanoTime() / NANOS_PER_SECOND;
+        long previous = currentWindow.get();
+        if (window != previous && currentWindow.compareAndSet(previous, window)) {
+            usedInWindow.set(0);
+        }
+
+        // isDebugEnabled() приходит без format: только проверяем остаток, чтобы вызывающий
+        // не собирал аргументы для сообщения, которое всё равно будет отброшено
+        if (format == null) {
+            return usedInWindow.get() < maxPerSecond ? FilterReply.NEUTRAL : FilterReply.DENY;
+        }
+        if (usedInWindow.incrementAndGet() <= maxPerSecond) {
+            return FilterReply.NEUTRAL;
+        }
+        dropped.incrementAndGet();
+        return FilterReply.DENY;
+    }
+
+    private boolean matches(String loggerName) {
+        for (String prefix : loggers) {
+            if (loggerName.startsWith(prefix)
+                    && (loggerName.length() == prefix.length() || loggerName.charAt(prefix.length()) == '.')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void addLoggerName(String loggerName) {
+        loggers.add(loggerName.trim());
+    }
+
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.DEBUG);
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+}
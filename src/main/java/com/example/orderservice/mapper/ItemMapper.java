@@ -10,6 +10,8 @@ public interface ItemMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "stockQuantity", ignore = true)
+    @Mapping(target = "stockShards", ignore = true)
     Item toEntity(ItemDTO itemDTO);
 
     ItemDTO toDTO(Item item);
@@ -18,5 +20,7 @@ public interface ItemMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "stockQuantity", ignore = true)
+    @Mapping(target = "stockShards", ignore = true)
     void updateEntityFromDTO(ItemDTO itemDTO, @MappingTarget Item item);
 }
\ No newline at end of file
@@ -12,12 +12,14 @@ public interface OrderItemMapper {
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "order", ignore = true)
     @Mapping(target = "item", ignore = true)
+    @Mapping(target = "unitPrice", ignore = true)
+    @Mapping(target = "itemName", ignore = true)
+    @Mapping(target = "stockReserved", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     OrderItem toEntity(OrderItemRequest request);
 
     @Mapping(source = "item.id", target = "itemId")
-    @Mapping(source = "item.name", target = "itemName")
-    @Mapping(source = "item.price", target = "itemPrice")
+    @Mapping(source = "unitPrice", target = "itemPrice")
     OrderItemResponse toResponse(OrderItem orderItem);
 }
\ No newline at end of file
@@ -15,6 +15,10 @@ public interface OrderMapper {
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "deleted", ignore = true)
     @Mapping(target = "totalPrice", ignore = true)
+    @Mapping(target = "buyerName", ignore = true)
+    @Mapping(target = "buyerSurname", ignore = true)
+    @Mapping(target = "buyerEmail", ignore = true)
+    @Mapping(target = "buyerSnapshotCheckedAt", ignore = true)
     Order toEntity(OrderRequest request);
 
     @Mapping(target = "items", ignore = true)
@@ -0,0 +1,37 @@
+package com.example.orderservice.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+// Разовый запуск миграций Liquibase отдельно от узлов приложения (LIQUIBASE_ENABLED=false на узлах):
+// java -cp order-service.jar com.example.orderservice.migration.DatabaseMigrationApplication
+// Контекст содержит только DataSource и Liquibase, без JPA, Feign и веб-сервера.
+// Класс без @Configuration, чтобы сканирование компонентов основного приложения его не подхватило
+@Slf4j
+@ImportAutoConfiguration({DataSourceAutoConfiguration.class, LiquibaseAutoConfiguration.class})
+public class DatabaseMigrationApplication {
+
+    private DatabaseMigrationApplication() {
+        // Prevent instantiation
+    }
+
+    public static void main(String[] args) {
+        // Аргумент командной строки перекрывает LIQUIBASE_ENABLED=false, унаследованный из окружения узлов
+        String[] arguments = Stream.concat(Stream.of("--spring.liquibase.enabled=true"), Arrays.stream(args))
+                .toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DatabaseMigrationApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments);
+        log.info("Database migrations applied");
+        System.exit(SpringApplication.exit(context));
+    }
+}
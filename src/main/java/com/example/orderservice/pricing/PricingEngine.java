@@ -0,0 +1,59 @@
+package com.example.orderservice.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Суммы заказа в копейках (long) вместо цепочки BigDecimal.multiply/add на каждую позицию.
+// BigDecimal остаётся только на границах: цена товара на входе и итог заказа на выходе.
+// Диапазон и округление соответствуют колонкам DECIMAL(10,2)
+public final class PricingEngine {
+    public static final int SCALE = 2;
+    public static final long MAX_AMOUNT_MINOR = 9_999_999_999L;
+
+    private static final BigDecimal MAX_AMOUNT = BigDecimal.valueOf(MAX_AMOUNT_MINOR, SCALE);
+
+    private PricingEngine() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    // Цена -> копейки; лишние знаки округляются HALF_UP, как это делает PostgreSQL для numeric
+    public static long toMinorUnits(BigDecimal amount) {
+        if (amount == null) {
+            throw new IllegalArgumentException("Price is not set");
+        }
+        BigDecimal scaled = amount.setScale(SCALE, RoundingMode.HALF_UP);
+        if (scaled.abs().compareTo(MAX_AMOUNT) > 0) {
+            throw new IllegalArgumentException("Amount " + amount + " exceeds the maximum of " + MAX_AMOUNT);
+        }
+        return scaled.unscaledValue().longValue();
+    }
+
+    // Цена до 10^10 копеек на количество до 2^31 может выйти за long, поэтому multiplyExact
+    public static long lineTotal(long unitPriceMinor, int quantity) {
+        try {
+            return checkRange(Math.multiplyExact(unitPriceMinor, (long) quantity));
+        } catch (ArithmeticException e) {
+            throw totalOverflow();
+        }
+    }
+
+    // Оба слагаемых уже в пределах DECIMAL(10,2), так что сумма помещается в long
+    public static long addLine(long totalMinor, long unitPriceMinor, int quantity) {
+        return checkRange(totalMinor + lineTotal(unitPriceMinor, quantity));
+    }
+
+    public static BigDecimal toDecimal(long amountMinor) {
+        return BigDecimal.valueOf(amountMinor, SCALE);
+    }
+
+    private static long checkRange(long amountMinor) {
+        if (amountMinor > MAX_AMOUNT_MINOR || amountMinor < -MAX_AMOUNT_MINOR) {
+            throw totalOverflow();
+        }
+        return amountMinor;
+    }
+
+    private static IllegalArgumentException totalOverflow() {
+        return new IllegalArgumentException("Order total exceeds the maximum of " + MAX_AMOUNT);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.orderservice.processing;
+
+import com.example.orderservice.config.OrderProcessingProperties;
+import com.example.orderservice.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderProcessingQueue {
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OrderRepository orderRepository;
+    private final OrderProcessingProperties properties;
+
+    // Блокировка строк держится только на время этой короткой транзакции;
+    // дальше заказ защищён токеном и сроком processing_locked_until
+    @Transactional
+    public List<Long> claim(String token) {
+        LocalDateTime now = LocalDateTime.now();
+        int abandoned = orderRepository.abandonExhausted(now, properties.getMaxAttempts(), properties.getBatchSize(),
+                "Worker did not finish attempt " + properties.getMaxAttempts() + " within the visibility timeout");
+        if (abandoned > 0) {
+            log.warn("{} orders exhausted processing attempts on a lost worker and were returned to CREATED", abandoned);
+        }
+        List<Long> ids = orderRepository.lockProcessable(now, properties.getMaxAttempts(), properties.getBatchSize());
+        if (!ids.isEmpty()) {
+            orderRepository.markClaimed(ids, token, now.plus(properties.getVisibilityTimeout()), now);
+        }
+        return ids;
+    }
+
+    public boolean complete(Long id, String token) {
+        return orderRepository.completeProcessing(id, token, LocalDateTime.now()) == 1;
+    }
+
+    public boolean fail(Long id, String token, String error) {
+        Integer attempts = orderRepository.findProcessingAttempts(id);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime nextAttemptAt = now.plus(properties.getRetryBackoff().multipliedBy(attempts == null ? 1 : attempts));
+        String message = error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        return orderRepository.failProcessing(id, token, message, nextAttemptAt, now) == 1;
+    }
+}
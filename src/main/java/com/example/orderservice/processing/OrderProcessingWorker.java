@@ -0,0 +1,148 @@
+package com.example.orderservice.processing;
+
+import com.example.orderservice.config.OrderProcessingProperties;
+import com.example.orderservice.dto.OrderFields;
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.service.OrderService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Переводит заказы CREATED -> PROCESSING -> COMPLETED. Каждый поток забирает пачку заказов
+// (FOR UPDATE SKIP LOCKED, см. OrderProcessingQueue), выполняет OrderProcessor и фиксирует результат.
+// Узлы и потоки не координируются между собой: один заказ не достаётся двум воркерам,
+// пока не истёк visibility-timeout взявшего его воркера
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "orders.processing.enabled", havingValue = "true")
+public class OrderProcessingWorker implements SmartLifecycle {
+    private static final String RESULT_TAG = "result";
+
+    private final OrderProcessingQueue queue;
+    private final OrderService orderService;
+    private final OrderProcessor processor;
+    private final OrderProcessingProperties properties;
+    private final Counter completed;
+    private final Counter failed;
+    private final Counter lost;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public OrderProcessingWorker(OrderProcessingQueue queue,
+                                 OrderService orderService,
+                                 ObjectProvider<OrderProcessor> processor,
+                                 OrderProcessingProperties properties,
+                                 MeterRegistry meterRegistry) {
+        this.queue = queue;
+        this.orderService = orderService;
+        // Без своего шага обработки заказ просто проходит по статусам
+        this.processor = processor.getIfAvailable(() -> order -> { });
+        this.properties = properties;
+        this.completed = meterRegistry.counter("orders.processing", RESULT_TAG, "completed");
+        this.failed = meterRegistry.counter("orders.processing", RESULT_TAG, "failed");
+        this.lost = meterRegistry.counter("orders.processing", RESULT_TAG, "lost");
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < properties.getWorkerThreads(); i++) {
+            workers.add(Thread.ofPlatform()
+                    .name("order-processing-" + i)
+                    .daemon(true)
+                    .start(this::workLoop));
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        // Текущий заказ дорабатывается; незавершённые из пачки вернутся в очередь по visibility-timeout
+        for (Thread worker : workers) {
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    void workLoop() {
+        while (running) {
+            try {
+                if (processBatch() == 0 && !pause()) {
+                    return;
+                }
+            } catch (RuntimeException e) {
+                log.error("Order processing worker failed to claim orders", e);
+                if (!pause()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    int processBatch() {
+        String token = UUID.randomUUID().toString();
+        List<Long> ids = queue.claim(token);
+        for (Long id : ids) {
+            if (!running) {
+                break;
+            }
+            processOne(id, token);
+        }
+        return ids.size();
+    }
+
+    private void processOne(Long id, String token) {
+        try {
+            OrderResponse order = orderService.getOrderById(id, false, OrderFields.ALL);
+            processor.process(order);
+        } catch (Exception e) {
+            log.warn("Processing of order {} failed: {}", id, e.getMessage());
+            failed.increment();
+            if (!queue.fail(id, token, e.getMessage())) {
+                lost.increment();
+            }
+            return;
+        }
+
+        if (queue.complete(id, token)) {
+            completed.increment();
+        } else {
+            // Срок истёк и заказ забрал другой воркер, либо статус изменили через API
+            log.warn("Order {} was no longer claimed by this worker when processing finished", id);
+            lost.increment();
+        }
+    }
+
+    private boolean pause() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(properties.getPollInterval().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
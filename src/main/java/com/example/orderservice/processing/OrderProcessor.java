@@ -0,0 +1,10 @@
+package com.example.orderservice.processing;
+
+import com.example.orderservice.dto.OrderResponse;
+
+// Шаг обработки заказа, который выполняет OrderProcessingWorker между PROCESSING и COMPLETED.
+// Вызывается вне транзакции и может повторяться после сбоя, поэтому должен быть идемпотентным
+public interface OrderProcessor {
+
+    void process(OrderResponse order);
+}
@@ -0,0 +1,77 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.entity.IdempotencyKey;
+import com.example.orderservice.entity.IdempotencyStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    // Проекция вместо сущности: повторные чтения не берутся из кэша persistence context
+    @Query("SELECT k.requestHash AS requestHash, k.status AS status, k.responseBody AS responseBody "
+            + "FROM IdempotencyKey k WHERE k.key = :key")
+    Optional<KeyState> findStateByKey(@Param("key") String key);
+
+    // Захват ключа: 1 - ключ наш, 0 - ключ уже занят другим запросом
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, request_hash, status, owner_token, locked_until, "
+            + "created_at, expires_at) VALUES (:key, :requestHash, 'IN_PROGRESS', :ownerToken, :lockedUntil, :now, :expiresAt) "
+            + "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int tryInsert(@Param("key") String key,
+                  @Param("requestHash") String requestHash,
+                  @Param("ownerToken") String ownerToken,
+                  @Param("lockedUntil") LocalDateTime lockedUntil,
+                  @Param("now") LocalDateTime now,
+                  @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Перехват зависшего ключа, если владелец не завершил работу до locked_until. Прежний владелец
+    // после этого не сможет ни сохранить ответ, ни освободить ключ
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.lockedUntil = :lockedUntil, k.ownerToken = :ownerToken "
+            + "WHERE k.key = :key AND k.status = com.example.orderservice.entity.IdempotencyStatus.IN_PROGRESS "
+            + "AND k.lockedUntil < :now")
+    int takeOverExpiredLock(@Param("key") String key,
+                            @Param("ownerToken") String ownerToken,
+                            @Param("lockedUntil") LocalDateTime lockedUntil,
+                            @Param("now") LocalDateTime now);
+
+    // Выполняется в транзакции самого действия: ответ фиксируется вместе с заказом или не фиксируется вовсе
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyKey k SET k.status = com.example.orderservice.entity.IdempotencyStatus.COMPLETED, "
+            + "k.responseBody = :responseBody, k.lockedUntil = null WHERE k.key = :key AND k.ownerToken = :ownerToken "
+            + "AND k.status = com.example.orderservice.entity.IdempotencyStatus.IN_PROGRESS")
+    int complete(@Param("key") String key, @Param("ownerToken") String ownerToken,
+                 @Param("responseBody") String responseBody);
+
+    // Только незавершённый ключ своего запроса: после фиксации действия ключ уже COMPLETED и не удаляется
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.key = :key AND k.ownerToken = :ownerToken "
+            + "AND k.status = com.example.orderservice.entity.IdempotencyStatus.IN_PROGRESS")
+    int release(@Param("key") String key, @Param("ownerToken") String ownerToken);
+
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_keys WHERE idempotency_key IN "
+            + "(SELECT idempotency_key FROM idempotency_keys WHERE expires_at < :now LIMIT :batchSize)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+
+    interface KeyState {
+        String getRequestHash();
+
+        IdempotencyStatus getStatus();
+
+        String getResponseBody();
+    }
+}
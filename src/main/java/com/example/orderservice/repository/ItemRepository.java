@@ -1,8 +1,11 @@
 package com.example.orderservice.repository;
 
 import com.example.orderservice.entity.Item;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -23,6 +26,31 @@ public interface ItemRepository extends JpaRepository<Item, Long>, JpaSpecificat
     @Query("SELECT i FROM Item i WHERE i.price >= :minPrice")
     List<Item> findItemsAbovePrice(@Param("minPrice") BigDecimal minPrice);
 
+    // Полнотекстовый поиск по search_vector (GIN-индекс, только PostgreSQL), по убыванию релевантности.
+    // to_tsquery прямо в условии: через CROSS JOIN запрос становится условием соединения, и общий план
+    // подготовленного оператора (GENERIC_PLAN) читает items целиком вместо индекса
+    @Query(value = "SELECT i.* FROM items i "
+            + "WHERE i.search_vector @@ to_tsquery('simple', :query) "
+            + "ORDER BY ts_rank(i.search_vector, to_tsquery('simple', :query)) DESC, i.id",
+            countQuery = "SELECT count(*) FROM items i WHERE i.search_vector @@ to_tsquery('simple', :query)",
+            nativeQuery = true)
+    Page<Item> searchByFullText(@Param("query") String tsQuery, Pageable pageable);
+
+    // Условное списание одним UPDATE: блокировка строки держится только до конца транзакции заказа
+    @Modifying
+    @Query("UPDATE Item i SET i.stockQuantity = i.stockQuantity - :quantity "
+            + "WHERE i.id = :id AND i.stockQuantity >= :quantity")
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE Item i SET i.stockQuantity = i.stockQuantity + :quantity "
+            + "WHERE i.id = :id AND i.stockQuantity IS NOT NULL")
+    int releaseStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE Item i SET i.stockQuantity = :quantity, i.stockShards = :shards WHERE i.id = :id")
+    int setStock(@Param("id") Long id, @Param("quantity") Integer quantity, @Param("shards") int shards);
+
     // Проверка, используется ли товар в заказах
     @Query("SELECT COUNT(oi) > 0 FROM OrderItem oi WHERE oi.item.id = :itemId")
     boolean existsInOrderItems(@Param("itemId") Long itemId);
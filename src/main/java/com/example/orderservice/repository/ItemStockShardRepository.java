@@ -0,0 +1,47 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.entity.ItemStockShard;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ItemStockShardRepository extends JpaRepository<ItemStockShard, ItemStockShard.Key> {
+
+    // Быстрый путь: списание из первой незанятой части с достаточным остатком, обход со случайной
+    // части start. Части, заблокированные другими заказами, пропускаются (SKIP LOCKED) - запрос
+    // никогда не ждёт чужую блокировку и не держит одну часть, ожидая другую
+    @Modifying
+    @Query(value = "UPDATE item_stock_shards SET quantity = quantity - :quantity "
+            + "WHERE item_id = :itemId AND shard = (SELECT shard FROM item_stock_shards "
+            + "WHERE item_id = :itemId AND quantity >= :quantity "
+            + "ORDER BY (shard + :shards - :start) % :shards LIMIT 1 FOR UPDATE SKIP LOCKED)",
+            nativeQuery = true)
+    int reserveFromUnlocked(@Param("itemId") Long itemId,
+                            @Param("quantity") int quantity,
+                            @Param("start") int start,
+                            @Param("shards") int shards);
+
+    @Modifying
+    @Query("UPDATE ItemStockShard s SET s.quantity = s.quantity + :quantity "
+            + "WHERE s.itemId = :itemId AND s.shard = :shard")
+    int release(@Param("itemId") Long itemId, @Param("shard") int shard, @Param("quantity") int quantity);
+
+    // Медленный путь: ни в одной части не хватило остатка, списываем из нескольких под блокировкой
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ItemStockShard s WHERE s.itemId = :itemId ORDER BY s.shard")
+    List<ItemStockShard> lockAllByItemId(@Param("itemId") Long itemId);
+
+    @Query("SELECT COALESCE(SUM(s.quantity), 0) FROM ItemStockShard s WHERE s.itemId = :itemId")
+    long sumQuantityByItemId(@Param("itemId") Long itemId);
+
+    @Modifying
+    @Query("DELETE FROM ItemStockShard s WHERE s.itemId = :itemId")
+    void deleteByItemId(@Param("itemId") Long itemId);
+}
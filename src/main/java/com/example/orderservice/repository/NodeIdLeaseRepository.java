@@ -0,0 +1,42 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.entity.NodeIdLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface NodeIdLeaseRepository extends JpaRepository<NodeIdLease, Integer> {
+
+    // Свободный node id: 1 - аренда наша, 0 - node id уже занят
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO id_node_leases (node_id, owner, expires_at_ms) "
+            + "VALUES (:nodeId, :owner, :expiresAtMs) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int tryInsert(@Param("nodeId") int nodeId, @Param("owner") String owner, @Param("expiresAtMs") long expiresAtMs);
+
+    // Перехват аренды, которую прежний владелец не продлил. Сравнение с прочитанным expires_at_ms
+    // работает как compare-and-set: два узла не заберут один node id одновременно
+    @Transactional
+    @Modifying
+    @Query("UPDATE NodeIdLease l SET l.owner = :owner, l.expiresAtMs = :expiresAtMs "
+            + "WHERE l.nodeId = :nodeId AND l.expiresAtMs = :previousExpiresAtMs AND l.expiresAtMs < :now")
+    int takeOverExpired(@Param("nodeId") int nodeId,
+                        @Param("owner") String owner,
+                        @Param("expiresAtMs") long expiresAtMs,
+                        @Param("previousExpiresAtMs") long previousExpiresAtMs,
+                        @Param("now") long now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE NodeIdLease l SET l.expiresAtMs = :expiresAtMs WHERE l.nodeId = :nodeId AND l.owner = :owner")
+    int renew(@Param("nodeId") int nodeId, @Param("owner") String owner, @Param("expiresAtMs") long expiresAtMs);
+
+    @Query("SELECT l.expiresAtMs FROM NodeIdLease l WHERE l.nodeId = :nodeId")
+    Optional<Long> findExpiresAtMs(@Param("nodeId") int nodeId);
+}
@@ -11,7 +11,10 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,13 +24,112 @@ public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecific
     @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.id = :id AND o.deleted = false")
     Optional<Order> findByIdAndDeletedFalse(@Param("id") Long id);
 
-    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.userId = :userId AND o.deleted = false")
-    List<Order> findByUserIdAndDeletedFalse(@Param("userId") Long userId);
+    // Без позиций заказа: для ответов, где items не запрошены
+    @Query("SELECT o FROM Order o WHERE o.id = :id AND o.deleted = false")
+    Optional<Order> findWithoutItemsByIdAndDeletedFalse(@Param("id") Long id);
+
+    // История заказов пользователя по курсору (created_at, id): сравнение кортежей начинает чтение
+    // idx_orders_user_history ровно с позиции курсора, без OFFSET
+    @Query(value = "SELECT id FROM orders WHERE user_id = :userId AND deleted = false "
+            + "AND (created_at, id) < (:createdAt, :id) "
+            + "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<Long> findHistoryIds(@Param("userId") Long userId,
+                              @Param("createdAt") LocalDateTime createdAt,
+                              @Param("id") Long id,
+                              @Param("limit") int limit);
+
+    @Query(value = "SELECT id FROM orders WHERE user_id = :userId AND deleted = false AND status IN (:statuses) "
+            + "AND (created_at, id) < (:createdAt, :id) "
+            + "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<Long> findHistoryIdsByStatuses(@Param("userId") Long userId,
+                                        @Param("statuses") Collection<String> statuses,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        @Param("limit") int limit);
+
+    // Вторая фаза страницы: заказы с позициями по уже отобранным id, без пагинации поверх JOIN FETCH
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.id IN :ids")
+    List<Order> findAllWithItemsByIdIn(@Param("ids") Collection<Long> ids);
 
     @Modifying
     @Query("UPDATE Order o SET o.deleted = true WHERE o.id = :id")
     void softDelete(@Param("id") Long id);
 
+    @Query("SELECT DISTINCT o.userId FROM Order o "
+            + "WHERE o.buyerName IS NULL AND o.buyerEmail IS NULL AND o.buyerSnapshotCheckedAt IS NULL "
+            + "AND o.userId > :afterUserId ORDER BY o.userId")
+    List<Long> findUserIdsWithoutBuyerSnapshot(@Param("afterUserId") Long afterUserId, Pageable pageable);
+
+    // Отметка проверки ставится и при пустых данных: такие пользователи больше не перебираются
+    @Transactional
+    @Modifying
+    @Query("UPDATE Order o SET o.buyerName = :name, o.buyerSurname = :surname, o.buyerEmail = :email, "
+            + "o.buyerSnapshotCheckedAt = :checkedAt "
+            + "WHERE o.userId = :userId AND o.buyerName IS NULL AND o.buyerEmail IS NULL "
+            + "AND o.buyerSnapshotCheckedAt IS NULL")
+    int fillBuyerSnapshot(@Param("userId") Long userId,
+                          @Param("name") String name,
+                          @Param("surname") String surname,
+                          @Param("email") String email,
+                          @Param("checkedAt") LocalDateTime checkedAt);
+
+    // Очередь обработки: заказы, ожидающие первой или повторной попытки, и заказы, чей воркер
+    // не уложился в visibility timeout. SKIP LOCKED - параллельные воркеры берут разные строки.
+    // Просроченные заказы с исчерпанными попытками сюда не попадают - их возвращает abandonExhausted
+    @Query(value = "SELECT id FROM orders WHERE deleted = false AND processing_attempts < :maxAttempts "
+            + "AND ((status = 'CREATED' AND (processing_next_attempt_at IS NULL OR processing_next_attempt_at <= :now)) "
+            + "OR (status = 'PROCESSING' AND processing_locked_until < :now)) "
+            + "ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockProcessable(@Param("now") LocalDateTime now,
+                               @Param("maxAttempts") int maxAttempts,
+                               @Param("batchSize") int batchSize);
+
+    // Воркер умер на последней попытке: заказ возвращается в CREATED с ошибкой, как после неудачной
+    // последней попытки, и больше не выбирается очередью; токен и срок блокировки сбрасываются
+    @Modifying
+    @Query(value = "UPDATE orders SET status = 'CREATED', processing_claimed_by = NULL, processing_locked_until = NULL, "
+            + "processing_next_attempt_at = NULL, processing_error = :error, updated_at = :now "
+            + "WHERE id IN (SELECT id FROM orders WHERE deleted = false AND status = 'PROCESSING' "
+            + "AND processing_locked_until < :now AND processing_attempts >= :maxAttempts "
+            + "ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int abandonExhausted(@Param("now") LocalDateTime now,
+                         @Param("maxAttempts") int maxAttempts,
+                         @Param("batchSize") int batchSize,
+                         @Param("error") String error);
+
+    @Modifying
+    @Query(value = "UPDATE orders SET status = 'PROCESSING', processing_claimed_by = :token, "
+            + "processing_locked_until = :lockedUntil, processing_attempts = processing_attempts + 1, "
+            + "updated_at = :now WHERE id IN (:ids)", nativeQuery = true)
+    int markClaimed(@Param("ids") Collection<Long> ids,
+                    @Param("token") String token,
+                    @Param("lockedUntil") LocalDateTime lockedUntil,
+                    @Param("now") LocalDateTime now);
+
+    // Условие на токен: если заказ уже забрал другой воркер после истечения срока, результат не записывается
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE orders SET status = 'COMPLETED', processing_claimed_by = NULL, "
+            + "processing_locked_until = NULL, processing_error = NULL, updated_at = :now "
+            + "WHERE id = :id AND status = 'PROCESSING' AND processing_claimed_by = :token", nativeQuery = true)
+    int completeProcessing(@Param("id") Long id, @Param("token") String token, @Param("now") LocalDateTime now);
+
+    // Возврат в очередь с отсрочкой; после max-attempts заказ остаётся CREATED с текстом ошибки
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE orders SET status = 'CREATED', processing_claimed_by = NULL, "
+            + "processing_locked_until = NULL, processing_next_attempt_at = :nextAttemptAt, "
+            + "processing_error = :error, updated_at = :now "
+            + "WHERE id = :id AND status = 'PROCESSING' AND processing_claimed_by = :token", nativeQuery = true)
+    int failProcessing(@Param("id") Long id,
+                       @Param("token") String token,
+                       @Param("error") String error,
+                       @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                       @Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT processing_attempts FROM orders WHERE id = :id", nativeQuery = true)
+    Integer findProcessingAttempts(@Param("id") Long id);
+
     @Nonnull
     @Override
     Page<Order> findAll(@Nonnull Specification<Order> spec, @Nonnull Pageable pageable);
@@ -0,0 +1,86 @@
+package com.example.orderservice.serialization;
+
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.dto.PageResponse;
+import com.google.protobuf.CodedOutputStream;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+// Ответы /api/orders в формате proto/orders.proto: заказ, список заказов или страница.
+// Только запись: запросы по-прежнему принимаются в JSON
+public class OrderProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+    public OrderProtobufHttpMessageConverter() {
+        super(PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return OrderResponse.class.isAssignableFrom(clazz)
+                || PageResponse.class.isAssignableFrom(clazz)
+                || Iterable.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(@Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        if (OrderResponse.class.isAssignableFrom(clazz)) {
+            return true;
+        }
+        // PageResponse<OrderResponse> и List<OrderResponse>: тип элемента берётся из сигнатуры метода контроллера
+        ResolvableType bodyType = ResolvableType.forType(type != null ? type : clazz);
+        ResolvableType elementType;
+        if (PageResponse.class.isAssignableFrom(clazz)) {
+            elementType = bodyType.as(PageResponse.class).getGeneric(0);
+        } else if (Iterable.class.isAssignableFrom(clazz)) {
+            elementType = bodyType.as(Iterable.class).getGeneric(0);
+        } else {
+            return false;
+        }
+        return OrderResponse.class.equals(elementType.resolve());
+    }
+
+    @Override
+    protected void writeInternal(Object body, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(outputMessage.getBody());
+        if (body instanceof OrderResponse order) {
+            OrderProtobufWriter.writeOrder(out, order);
+        } else if (body instanceof PageResponse<?> page) {
+            OrderProtobufWriter.writeOrderPage(out, page);
+        } else {
+            OrderProtobufWriter.writeOrderList(out, (Iterable<?>) body);
+        }
+        out.flush();
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+}
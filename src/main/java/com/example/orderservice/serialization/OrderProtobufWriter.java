@@ -0,0 +1,183 @@
+package com.example.orderservice.serialization;
+
+import com.example.orderservice.dto.OrderItemResponse;
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.dto.PageResponse;
+import com.example.orderservice.dto.UserResponseDTO;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.temporal.TemporalAccessor;
+
+// Запись сообщений из proto/orders.proto напрямую через CodedOutputStream.
+// Вложенные сообщения пишутся с префиксом длины, поэтому размер считается до записи.
+// Поля со значениями по умолчанию (null, 0, "") не пишутся, как в proto3
+public final class OrderProtobufWriter {
+    private static final int ORDER_LIST_ORDERS = 1;
+    private static final int PAGE_CONTENT = 1;
+    private static final int PAGE_TOTAL_ELEMENTS = 2;
+    private static final int PAGE_TOTAL_PAGES = 3;
+    private static final int PAGE_NUMBER = 4;
+    private static final int PAGE_SIZE = 5;
+
+    private OrderProtobufWriter() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    public static void writeOrder(CodedOutputStream out, OrderResponse order) throws IOException {
+        writeOrderFields(out, order);
+    }
+
+    public static void writeOrderList(CodedOutputStream out, Iterable<?> orders) throws IOException {
+        for (Object order : orders) {
+            writeMessageField(out, ORDER_LIST_ORDERS, (OrderResponse) order);
+        }
+    }
+
+    public static void writeOrderPage(CodedOutputStream out, PageResponse<?> page) throws IOException {
+        for (Object order : page.getContent()) {
+            writeMessageField(out, PAGE_CONTENT, (OrderResponse) order);
+        }
+        if (page.getTotalElements() != 0) {
+            out.writeInt64(PAGE_TOTAL_ELEMENTS, page.getTotalElements());
+        }
+        if (page.getTotalPages() != 0) {
+            out.writeInt32(PAGE_TOTAL_PAGES, page.getTotalPages());
+        }
+        if (page.getNumber() != 0) {
+            out.writeInt32(PAGE_NUMBER, page.getNumber());
+        }
+        if (page.getSize() != 0) {
+            out.writeInt32(PAGE_SIZE, page.getSize());
+        }
+    }
+
+    private static void writeMessageField(CodedOutputStream out, int field, OrderResponse order) throws IOException {
+        out.writeTag(field, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(orderSize(order));
+        writeOrderFields(out, order);
+    }
+
+    // Order
+    private static void writeOrderFields(CodedOutputStream out, OrderResponse order) throws IOException {
+        writeInt64(out, 1, order.getId());
+        writeInt64(out, 2, order.getUserId());
+        if (order.getStatus() != null) {
+            out.writeEnum(3, order.getStatus().ordinal() + 1);
+        }
+        writeString(out, 4, decimal(order.getTotalPrice()));
+        writeString(out, 5, temporal(order.getCreatedAt()));
+        writeString(out, 6, temporal(order.getUpdatedAt()));
+        if (order.getItems() != null) {
+            for (OrderItemResponse item : order.getItems()) {
+                out.writeTag(7, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                out.writeUInt32NoTag(itemSize(item));
+                writeItemFields(out, item);
+            }
+        }
+        if (order.getUserInfo() != null) {
+            out.writeTag(8, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(userSize(order.getUserInfo()));
+            writeUserFields(out, order.getUserInfo());
+        }
+    }
+
+    private static int orderSize(OrderResponse order) {
+        int size = int64Size(1, order.getId()) + int64Size(2, order.getUserId());
+        if (order.getStatus() != null) {
+            size += CodedOutputStream.computeEnumSize(3, order.getStatus().ordinal() + 1);
+        }
+        size += stringSize(4, decimal(order.getTotalPrice()))
+                + stringSize(5, temporal(order.getCreatedAt()))
+                + stringSize(6, temporal(order.getUpdatedAt()));
+        if (order.getItems() != null) {
+            for (OrderItemResponse item : order.getItems()) {
+                size += messageSize(7, itemSize(item));
+            }
+        }
+        if (order.getUserInfo() != null) {
+            size += messageSize(8, userSize(order.getUserInfo()));
+        }
+        return size;
+    }
+
+    // OrderItem
+    private static void writeItemFields(CodedOutputStream out, OrderItemResponse item) throws IOException {
+        writeInt64(out, 1, item.getId());
+        writeInt64(out, 2, item.getItemId());
+        writeString(out, 3, item.getItemName());
+        writeString(out, 4, decimal(item.getItemPrice()));
+        if (item.getQuantity() != null && item.getQuantity() != 0) {
+            out.writeInt32(5, item.getQuantity());
+        }
+    }
+
+    private static int itemSize(OrderItemResponse item) {
+        int size = int64Size(1, item.getId())
+                + int64Size(2, item.getItemId())
+                + stringSize(3, item.getItemName())
+                + stringSize(4, decimal(item.getItemPrice()));
+        if (item.getQuantity() != null && item.getQuantity() != 0) {
+            size += CodedOutputStream.computeInt32Size(5, item.getQuantity());
+        }
+        return size;
+    }
+
+    // User
+    private static void writeUserFields(CodedOutputStream out, UserResponseDTO user) throws IOException {
+        writeInt64(out, 1, user.getId());
+        writeString(out, 2, user.getName());
+        writeString(out, 3, user.getSurname());
+        writeString(out, 4, temporal(user.getBirthDate()));
+        writeString(out, 5, user.getEmail());
+        if (Boolean.TRUE.equals(user.getActive())) {
+            out.writeBool(6, true);
+        }
+    }
+
+    private static int userSize(UserResponseDTO user) {
+        int size = int64Size(1, user.getId())
+                + stringSize(2, user.getName())
+                + stringSize(3, user.getSurname())
+                + stringSize(4, temporal(user.getBirthDate()))
+                + stringSize(5, user.getEmail());
+        if (Boolean.TRUE.equals(user.getActive())) {
+            size += CodedOutputStream.computeBoolSize(6, true);
+        }
+        return size;
+    }
+
+    private static void writeInt64(CodedOutputStream out, int field, Long value) throws IOException {
+        if (value != null && value != 0) {
+            out.writeInt64(field, value);
+        }
+    }
+
+    private static void writeString(CodedOutputStream out, int field, String value) throws IOException {
+        if (value != null && !value.isEmpty()) {
+            out.writeString(field, value);
+        }
+    }
+
+    private static int int64Size(int field, Long value) {
+        return value != null && value != 0 ? CodedOutputStream.computeInt64Size(field, value) : 0;
+    }
+
+    private static int stringSize(int field, String value) {
+        return value != null && !value.isEmpty() ? CodedOutputStream.computeStringSize(field, value) : 0;
+    }
+
+    private static int messageSize(int field, int size) {
+        return CodedOutputStream.computeTagSize(field) + CodedOutputStream.computeUInt32SizeNoTag(size) + size;
+    }
+
+    private static String decimal(BigDecimal value) {
+        return value == null ? null : value.toPlainString();
+    }
+
+    private static String temporal(TemporalAccessor value) {
+        return value == null ? null : value.toString();
+    }
+}
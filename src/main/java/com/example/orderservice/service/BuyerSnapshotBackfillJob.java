@@ -0,0 +1,126 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.config.BuyerSnapshotBackfillProperties;
+import com.example.orderservice.dto.UserResponseDTO;
+import com.example.orderservice.repository.OrderRepository;
+import feign.FeignException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Заполняет снимок покупателя у заказов, созданных до его появления.
+// Один запрос в user-service на пользователя и одно UPDATE на все его заказы.
+// Запросы идут через circuit breaker userService: пока он открыт, проход прерывается
+// и продолжается с того же пользователя при следующем запуске
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "orders.buyer-snapshot.backfill.enabled", havingValue = "true")
+public class BuyerSnapshotBackfillJob {
+
+    private final OrderRepository orderRepository;
+    private final UserServiceClient userServiceClient;
+    private final BuyerSnapshotBackfillProperties properties;
+    private final CircuitBreaker circuitBreaker;
+
+    // Курсор по user_id: пользователи, которых не удалось загрузить, не блокируют остальных
+    private long lastUserId;
+
+    public BuyerSnapshotBackfillJob(OrderRepository orderRepository,
+                                    UserServiceClient userServiceClient,
+                                    BuyerSnapshotBackfillProperties properties,
+                                    CircuitBreakerRegistry circuitBreakerRegistry) {
+        this.orderRepository = orderRepository;
+        this.userServiceClient = userServiceClient;
+        this.properties = properties;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("userService");
+    }
+
+    @Scheduled(fixedDelayString = "${orders.buyer-snapshot.backfill.interval:PT1M}")
+    public synchronized void backfill() {
+        int updatedOrders = 0;
+        for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+            List<Long> userIds = orderRepository.findUserIdsWithoutBuyerSnapshot(
+                    lastUserId, PageRequest.of(0, properties.getBatchSize()));
+            if (userIds.isEmpty()) {
+                // Проход завершён; пропущенные пользователи будут повторены со следующего запуска
+                lastUserId = 0;
+                break;
+            }
+
+            for (Long userId : userIds) {
+                try {
+                    updatedOrders += fillForUser(userId);
+                } catch (CallNotPermittedException e) {
+                    log.warn("Buyer snapshot backfill paused at userId {}: user-service circuit breaker is open", userId);
+                    logUpdated(updatedOrders);
+                    return;
+                }
+                lastUserId = userId;
+            }
+
+            if (!pause()) {
+                break;
+            }
+        }
+
+        logUpdated(updatedOrders);
+    }
+
+    private void logUpdated(int updatedOrders) {
+        if (updatedOrders > 0) {
+            log.info("Buyer snapshot backfill updated {} orders", updatedOrders);
+        }
+    }
+
+    // Пустой ответ и 404 тоже отмечаются как проверенные; сбой вызова - нет, пользователь повторится
+    private int fillForUser(Long userId) {
+        LocalDateTime checkedAt = LocalDateTime.now();
+        try {
+            UserResponseDTO user = circuitBreaker.executeSupplier(() -> userServiceClient.getUserById(userId));
+            if (user == null || user.getId() == null) {
+                return orderRepository.fillBuyerSnapshot(userId, null, null, null, checkedAt);
+            }
+            return orderRepository.fillBuyerSnapshot(userId, user.getName(), user.getSurname(), user.getEmail(),
+                    checkedAt);
+        } catch (CallNotPermittedException e) {
+            throw e;
+        } catch (Exception e) {
+            if (isNotFound(e)) {
+                log.warn("User {} not found, marking buyer snapshot as checked", userId);
+                return orderRepository.fillBuyerSnapshot(userId, null, null, null, checkedAt);
+            }
+            log.warn("Skipping buyer snapshot backfill for userId: {}, error: {}", userId, e.getMessage());
+            return 0;
+        }
+    }
+
+    // С включённым circuitbreaker в OpenFeign ошибка клиента приходит обёрнутой
+    private static boolean isNotFound(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof FeignException.NotFound) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean pause() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(properties.getPauseBetweenBatches().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
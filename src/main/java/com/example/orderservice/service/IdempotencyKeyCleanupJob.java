@@ -0,0 +1,36 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.config.IdempotencyProperties;
+import com.example.orderservice.repository.IdempotencyKeyRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyKeyCleanupJob {
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final IdempotencyProperties properties;
+
+    // Удаление пачками, чтобы не держать длинную транзакцию и блокировки на большой таблице
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval:PT5M}")
+    public void purgeExpiredKeys() {
+        LocalDateTime now = LocalDateTime.now();
+        int batchSize = properties.getCleanupBatchSize();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = idempotencyKeyRepository.deleteExpiredBatch(now, batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+
+        if (total > 0) {
+            log.info("Purged {} expired idempotency keys", total);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.config.IdempotencyProperties;
+import com.example.orderservice.entity.IdempotencyStatus;
+import com.example.orderservice.exception.IdempotencyConflictException;
+import com.example.orderservice.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+// Действие получает Claim и обязано вызвать complete(claim, response) в своей транзакции:
+// ответ сохраняется атомарно с результатом (заказом). Поэтому ключ освобождается только если
+// транзакция действия откатилась, а перехват зависшего ключа не повторяет уже зафиксированный заказ
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final IdempotencyProperties properties;
+    private final ObjectMapper objectMapper;
+
+    // Запросы, выполняемые на этом узле: дубликаты ждут их завершения без опроса БД
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+
+    public <T> T execute(String key, Object request, Class<T> responseType, Function<Claim, T> action) {
+        validateKey(key);
+        String requestHash = hash(request);
+        long deadline = System.nanoTime() + properties.getWaitTimeout().toNanos();
+
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            Claim claim = new Claim(key, UUID.randomUUID().toString());
+            if (idempotencyKeyRepository.tryInsert(key, requestHash, claim.ownerToken(),
+                    now.plus(properties.getLockTimeout()), now, now.plus(properties.getTtl())) == 1) {
+                return run(claim, action);
+            }
+
+            Optional<IdempotencyKeyRepository.KeyState> existing = idempotencyKeyRepository.findStateByKey(key);
+            if (existing.isEmpty()) {
+                // Первый запрос завершился ошибкой и освободил ключ - пробуем захватить снова
+                continue;
+            }
+
+            IdempotencyKeyRepository.KeyState stored = existing.get();
+            if (!stored.getRequestHash().equals(requestHash)) {
+                throw new IdempotencyConflictException(
+                        "Idempotency key " + key + " was already used with a different request");
+            }
+            if (stored.getStatus() == IdempotencyStatus.COMPLETED) {
+                log.debug("Replaying stored response for idempotency key: {}", key);
+                return readResponse(key, stored.getResponseBody(), responseType);
+            }
+            // Ключ IN_PROGRESS с истёкшим сроком: транзакция прежнего владельца не зафиксировалась
+            // (иначе ключ был бы COMPLETED) или ещё не завершилась - тогда её complete() не пройдёт
+            if (idempotencyKeyRepository.takeOverExpiredLock(key, claim.ownerToken(),
+                    now.plus(properties.getLockTimeout()), now) == 1) {
+                log.warn("Idempotency key {} lock expired, taking over", key);
+                return run(claim, action);
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                throw new IdempotencyConflictException(
+                        "Request with idempotency key " + key + " is still in progress");
+            }
+            awaitInFlight(key, deadline);
+        }
+    }
+
+    // Сохраняет ответ в транзакции действия. Ключ, перехваченный другим запросом, не обновляется -
+    // исключение откатывает транзакцию вместе с заказом
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void complete(Claim claim, Object response) {
+        if (idempotencyKeyRepository.complete(claim.key(), claim.ownerToken(), writeResponse(response)) != 1) {
+            throw new IdempotencyConflictException(
+                    "Idempotency key " + claim.key() + " was taken over by another request");
+        }
+    }
+
+    private <T> T run(Claim claim, Function<Claim, T> action) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        inFlight.put(claim.key(), done);
+        try {
+            return action.apply(claim);
+        } catch (RuntimeException e) {
+            // Если транзакция действия всё же зафиксировалась (ошибка после COMMIT), ключ уже COMPLETED
+            // и не удаляется: release затрагивает только IN_PROGRESS-ключ своего владельца
+            idempotencyKeyRepository.release(claim.key(), claim.ownerToken());
+            throw e;
+        } finally {
+            inFlight.remove(claim.key(), done);
+            done.complete(null);
+        }
+    }
+
+    private void awaitInFlight(String key, long deadline) {
+        long remaining = deadline - System.nanoTime();
+        long wait = Math.min(properties.getPollInterval().toNanos(), remaining);
+        CompletableFuture<Void> local = inFlight.get(key);
+        try {
+            if (local != null) {
+                local.get(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+            } else if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for idempotency key " + key);
+        } catch (TimeoutException | ExecutionException e) {
+            // Результат перечитывается из таблицы на следующей итерации
+        }
+    }
+
+    private void validateKey(String key) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters long");
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Unable to hash request for idempotency check", e);
+        }
+    }
+
+    private String writeResponse(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to store idempotent response", e);
+        }
+    }
+
+    private <T> T readResponse(String key, String responseBody, Class<T> responseType) {
+        try {
+            return objectMapper.readValue(responseBody, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to read stored response for idempotency key " + key, e);
+        }
+    }
+
+    // Захваченный ключ: ownerToken отличает этот запрос от перехватившего ключ после lock-timeout
+    public record Claim(String key, String ownerToken) {
+    }
+}
@@ -1,12 +1,16 @@
 package com.example.orderservice.service;
 
+import com.example.orderservice.cache.CacheInvalidationPublisher;
+import com.example.orderservice.config.CacheConfig;
 import com.example.orderservice.dto.ItemDTO;
 import com.example.orderservice.entity.Item;
 import com.example.orderservice.mapper.ItemMapper;
 import com.example.orderservice.repository.ItemRepository;
+import com.example.orderservice.specification.ItemFullTextQuery;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -24,7 +28,9 @@ public class ItemService {
 
     private final ItemRepository itemRepository;
     private final ItemMapper itemMapper;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
 
+    @Cacheable(cacheNames = CacheConfig.ITEMS_CACHE, key = "#id")
     @Transactional(readOnly = true)
     public ItemDTO getItemById(Long id) {
         log.debug("Fetching item by id: {}", id);
@@ -70,6 +76,17 @@ public class ItemService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public Page<ItemDTO> searchItemsFullText(String text, Pageable pageable) {
+        log.debug("Full-text item search: {}, {}", text, pageable);
+        String tsQuery = ItemFullTextQuery.toPrefixTsQuery(text);
+        if (tsQuery == null) {
+            throw new IllegalArgumentException("Search query must contain at least one letter or digit");
+        }
+        return itemRepository.searchByFullText(tsQuery, pageable)
+                .map(itemMapper::toDTO);
+    }
+
     @Transactional
     public ItemDTO createItem(ItemDTO itemDTO) {
         log.info("Creating new item: {}", itemDTO.getName());
@@ -100,6 +117,7 @@ public class ItemService {
         existingItem.setUpdatedAt(LocalDateTime.now());
 
         Item updatedItem = itemRepository.save(existingItem);
+        cacheInvalidationPublisher.evict(CacheConfig.ITEMS_CACHE, id);
 
         log.info("Item updated with id: {}", id);
         return itemMapper.toDTO(updatedItem);
@@ -118,6 +136,7 @@ public class ItemService {
         }
 
         itemRepository.delete(item);
+        cacheInvalidationPublisher.evict(CacheConfig.ITEMS_CACHE, id);
         log.info("Item deleted with id: {}", id);
     }
 
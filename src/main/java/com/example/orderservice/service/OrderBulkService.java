@@ -0,0 +1,189 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.config.OrderBulkProperties;
+import com.example.orderservice.dto.BulkOrderResult;
+import com.example.orderservice.dto.BulkOrderSelection;
+import com.example.orderservice.entity.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Массовая смена статуса и мягкое удаление заказов. Один UPDATE на пачку вместо загрузки
+// каждого заказа в сессию; допустимость перехода проверяется в WHERE, поэтому заказ,
+// параллельно ушедший в другой статус, просто не попадает в число изменённых.
+// Каждая пачка - отдельная транзакция: блокировки не держатся на всю операцию,
+// а прерванная операция оставляет зафиксированными уже обработанные пачки
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderBulkService {
+
+    private static final String STATUS_BY_IDS = """
+            UPDATE orders SET status = :target, updated_at = :now
+            WHERE id IN (:ids) AND deleted = false AND status IN (:from)
+            RETURNING id""";
+
+    // Условия повторяются снаружи подзапроса: при конкурентном изменении строки
+    // PostgreSQL перепроверяет только условия самого UPDATE
+    private static final String STATUS_BY_FILTER = """
+            UPDATE orders SET status = :target, updated_at = :now
+            WHERE id IN (SELECT id FROM orders WHERE deleted = false AND status IN (:from)%s ORDER BY id LIMIT :limit)
+              AND deleted = false AND status IN (:from)
+            RETURNING id""";
+
+    private static final String DELETE_BY_IDS = """
+            UPDATE orders SET deleted = true, updated_at = :now
+            WHERE id IN (:ids) AND deleted = false
+            RETURNING id""";
+
+    private static final String DELETE_BY_FILTER = """
+            UPDATE orders SET deleted = true, updated_at = :now
+            WHERE id IN (SELECT id FROM orders WHERE deleted = false%s ORDER BY id LIMIT :limit)
+              AND deleted = false
+            RETURNING id""";
+
+    private static final String UNRESERVE_LINES = """
+            UPDATE order_items SET stock_reserved = false, updated_at = :now
+            WHERE order_id IN (:ids) AND stock_reserved = true
+            RETURNING item_id, quantity""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StockService stockService;
+    private final OrderBulkProperties properties;
+
+    public BulkOrderResult changeStatus(BulkOrderSelection selection, OrderStatus target) {
+        Set<OrderStatus> from = target.allowedPredecessors();
+        if (from.isEmpty()) {
+            throw new IllegalArgumentException("Orders cannot be moved to status " + target + " in bulk");
+        }
+        // Отменённый заказ больше не держит остаток
+        boolean releaseStock = target == OrderStatus.CANCELLED;
+        log.info("Bulk status change to {}", target);
+
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("target", target.name())
+                .addValue("from", from.stream().map(Enum::name).toList());
+        BulkOrderResult result = execute(selection, params, STATUS_BY_IDS, STATUS_BY_FILTER, releaseStock);
+        log.info("Bulk status change to {} affected {} orders", target, result.getAffected());
+        return result;
+    }
+
+    public BulkOrderResult delete(BulkOrderSelection selection) {
+        log.info("Bulk soft delete of orders");
+        BulkOrderResult result = execute(selection, new MapSqlParameterSource(), DELETE_BY_IDS, DELETE_BY_FILTER, true);
+        log.info("Bulk soft delete affected {} orders", result.getAffected());
+        return result;
+    }
+
+    private BulkOrderResult execute(BulkOrderSelection selection, MapSqlParameterSource params,
+                                    String byIds, String byFilter, boolean releaseStock) {
+        boolean hasIds = selection.getIds() != null && !selection.getIds().isEmpty();
+        boolean hasFilter = selection.getFilter() != null && !selection.getFilter().isEmpty();
+        if (hasIds == hasFilter) {
+            throw new IllegalArgumentException("Exactly one of non-empty ids or filter must be specified");
+        }
+        return hasIds
+                ? executeByIds(selection.getIds(), params, byIds, releaseStock)
+                : executeByFilter(selection.getFilter(), params, byFilter, releaseStock);
+    }
+
+    private BulkOrderResult executeByIds(List<Long> requestedIds, MapSqlParameterSource params, String sql,
+                                         boolean releaseStock) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(requestedIds));
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("Order ids must not be null");
+        }
+        if (ids.size() > properties.getMaxIds()) {
+            throw new IllegalArgumentException("Too many order ids: " + ids.size() + ", max " + properties.getMaxIds());
+        }
+
+        long affected = 0;
+        for (int from = 0; from < ids.size(); from += properties.getChunkSize()) {
+            List<Long> chunk = ids.subList(from, Math.min(from + properties.getChunkSize(), ids.size()));
+            affected += executeChunk(sql, params.addValue("ids", chunk), releaseStock).size();
+        }
+
+        BulkOrderResult result = new BulkOrderResult();
+        result.setRequested((long) ids.size());
+        result.setAffected(affected);
+        result.setSkipped(ids.size() - affected);
+        return result;
+    }
+
+    // Каждая пачка берёт первые подходящие заказы по id; обработанные перестают подходить под условие,
+    // так что цикл завершается, когда подходящих не осталось
+    private BulkOrderResult executeByFilter(BulkOrderSelection.Filter filter, MapSqlParameterSource params,
+                                            String template, boolean releaseStock) {
+        String sql = template.formatted(filterConditions(filter, params));
+        params.addValue("limit", properties.getChunkSize());
+
+        long affected = 0;
+        List<Long> updated;
+        do {
+            updated = executeChunk(sql, params, releaseStock);
+            affected += updated.size();
+        } while (!updated.isEmpty());
+
+        BulkOrderResult result = new BulkOrderResult();
+        result.setAffected(affected);
+        return result;
+    }
+
+    private List<Long> executeChunk(String sql, MapSqlParameterSource params, boolean releaseStock) {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            params.addValue("now", now);
+            List<Long> updated = jdbcTemplate.queryForList(sql, params, Long.class);
+            if (releaseStock && !updated.isEmpty()) {
+                releaseStock(updated, now);
+            }
+            return updated;
+        });
+    }
+
+    private void releaseStock(List<Long> orderIds, LocalDateTime now) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", orderIds)
+                .addValue("now", now);
+        Map<Long, Integer> quantities = new TreeMap<>();
+        jdbcTemplate.query(UNRESERVE_LINES, params,
+                (RowCallbackHandler) rs -> quantities.merge(rs.getLong("item_id"), rs.getInt("quantity"), Integer::sum));
+        if (!quantities.isEmpty()) {
+            stockService.releaseTotals(quantities);
+        }
+    }
+
+    private String filterConditions(BulkOrderSelection.Filter filter, MapSqlParameterSource params) {
+        StringBuilder conditions = new StringBuilder();
+        if (filter.getUserId() != null) {
+            conditions.append(" AND user_id = :userId");
+            params.addValue("userId", filter.getUserId());
+        }
+        if (filter.getStatuses() != null && !filter.getStatuses().isEmpty()) {
+            conditions.append(" AND status IN (:statuses)");
+            params.addValue("statuses", filter.getStatuses().stream().distinct().map(Enum::name).toList());
+        }
+        if (filter.getStartDate() != null) {
+            conditions.append(" AND created_at >= :startDate");
+            params.addValue("startDate", filter.getStartDate());
+        }
+        if (filter.getEndDate() != null) {
+            conditions.append(" AND created_at <= :endDate");
+            params.addValue("endDate", filter.getEndDate());
+        }
+        return conditions.toString();
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.config.GroupCommitProperties;
+import com.example.orderservice.dto.OrderRequest;
+import com.example.orderservice.dto.OrderResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+// Групповая фиксация создания заказов: запросы копятся linger миллисекунд (или до max-batch-size)
+// и сохраняются одной транзакцией - один сброс WAL на пачку вместо одного на заказ.
+// Проверка покупателя в user-service выполняется на потоке запроса до постановки в очередь.
+// Если заказ пачки падает, транзакция откатывается, заказ получает свою ошибку, а остальные
+// сохраняются повторно без него. Ошибку при COMMIT нельзя отнести к конкретному заказу -
+// тогда каждый заказ пачки сохраняется отдельной транзакцией. Так же обрабатываются deadlock и
+// тайм-аут блокировки: пачка списывает остатки заказ за заказом, поэтому строки items в ней
+// блокируются не по возрастанию id, и конфликт - свойство пачки, а не заказа, на котором он проявился.
+// Одиночный заказ блокирует строки по возрастанию id (StockService). Ответ по ключу идемпотентности
+// сохраняется в той же транзакции, что и заказ
+@Slf4j
+@Component
+public class OrderCreateBatcher implements SmartLifecycle {
+
+    private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
+    private final TransactionTemplate transactionTemplate;
+    private final GroupCommitProperties properties;
+    private final BlockingQueue<PendingOrder> queue;
+    private final DistributionSummary batchSizes;
+    private final Counter fallbacks;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public OrderCreateBatcher(OrderService orderService,
+                              IdempotencyService idempotencyService,
+                              PlatformTransactionManager transactionManager,
+                              GroupCommitProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.orderService = orderService;
+        this.idempotencyService = idempotencyService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        this.batchSizes = DistributionSummary.builder("orders.group-commit.batch.size")
+                .description("Orders committed by one group-commit transaction")
+                .register(meterRegistry);
+        this.fallbacks = meterRegistry.counter("orders.group-commit.fallbacks");
+    }
+
+    public OrderResponse createOrder(OrderRequest request) {
+        return createOrder(request, null);
+    }
+
+    // claim == null - запрос без ключа идемпотентности
+    public OrderResponse createOrder(OrderRequest request, IdempotencyService.Claim claim) {
+        if (!running && claim == null) {
+            return orderService.createOrder(request);
+        }
+
+        OrderService.VerifiedBuyer buyer = orderService.verifyBuyer(request.getUserId());
+        PendingOrder pending = new PendingOrder(request, buyer, claim, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            if (running) {
+                fallbacks.increment();
+            }
+            return transactionTemplate.execute(status -> create(pending));
+        }
+        // Остановка могла начаться после проверки running: очередь уже никто не разберёт
+        if (!running && queue.remove(pending)) {
+            commitAlone(pending);
+        }
+
+        try {
+            return pending.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        running = true;
+        flusher = Thread.ofPlatform()
+                .name("order-group-commit")
+                .daemon(true)
+                .start(this::flushLoop);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        flusher.interrupt();
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Заказы, поставленные в очередь в момент остановки, сохраняются по одному
+        List<PendingOrder> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(this::commitAlone);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Стартует раньше и останавливается позже веб-сервера: принятые запросы дожидаются своей пачки
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void flushLoop() {
+        while (running) {
+            try {
+                List<PendingOrder> batch = nextBatch();
+                if (!batch.isEmpty()) {
+                    batchSizes.record(batch.size());
+                    commit(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Group commit flusher failed", e);
+            }
+        }
+    }
+
+    private List<PendingOrder> nextBatch() throws InterruptedException {
+        List<PendingOrder> batch = new ArrayList<>(properties.getMaxBatchSize());
+        PendingOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + properties.getLinger().toNanos();
+        while (batch.size() < properties.getMaxBatchSize()) {
+            queue.drainTo(batch, properties.getMaxBatchSize() - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= properties.getMaxBatchSize() || remaining <= 0) {
+                break;
+            }
+            PendingOrder next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void commit(List<PendingOrder> batch) {
+        List<PendingOrder> pending = new ArrayList<>(batch);
+        while (!pending.isEmpty()) {
+            BatchAttempt attempt = new BatchAttempt();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (int i = 0; i < pending.size(); i++) {
+                        PendingOrder order = pending.get(i);
+                        try {
+                            attempt.responses.add(create(order));
+                        } catch (PessimisticLockingFailureException e) {
+                            attempt.lockFailure = e;
+                            status.setRollbackOnly();
+                            return;
+                        } catch (RuntimeException e) {
+                            attempt.failedIndex = i;
+                            attempt.failure = e;
+                            status.setRollbackOnly();
+                            return;
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                // Ошибка при сбросе/фиксации: виновника не определить
+                log.warn("Group commit of {} orders failed, committing them one by one: {}",
+                        pending.size(), e.getMessage());
+                fallbacks.increment();
+                pending.forEach(this::commitAlone);
+                return;
+            }
+
+            if (attempt.lockFailure != null) {
+                log.warn("Group commit of {} orders hit a lock conflict, committing them one by one: {}",
+                        pending.size(), attempt.lockFailure.getMessage());
+                fallbacks.increment();
+                pending.forEach(this::commitAlone);
+                return;
+            }
+
+            if (attempt.failure == null) {
+                for (int i = 0; i < pending.size(); i++) {
+                    pending.get(i).result().complete(attempt.responses.get(i));
+                }
+                return;
+            }
+
+            pending.remove(attempt.failedIndex).result().completeExceptionally(attempt.failure);
+        }
+    }
+
+    private void commitAlone(PendingOrder order) {
+        try {
+            order.result().complete(transactionTemplate.execute(status -> create(order)));
+        } catch (RuntimeException e) {
+            order.result().completeExceptionally(e);
+        }
+    }
+
+    // Вызывается внутри транзакции заказа (пачки или одиночной)
+    private OrderResponse create(PendingOrder order) {
+        OrderResponse response = orderService.createVerifiedOrder(order.request(), order.buyer());
+        if (order.claim() != null) {
+            idempotencyService.complete(order.claim(), response);
+        }
+        return response;
+    }
+
+    private record PendingOrder(OrderRequest request, OrderService.VerifiedBuyer buyer, IdempotencyService.Claim claim,
+                                CompletableFuture<OrderResponse> result) {
+    }
+
+    private static final class BatchAttempt {
+        private final List<OrderResponse> responses = new ArrayList<>();
+        private int failedIndex = -1;
+        private RuntimeException failure;
+        private PessimisticLockingFailureException lockFailure;
+    }
+}
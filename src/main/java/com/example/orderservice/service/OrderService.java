@@ -1,6 +1,10 @@
 package com.example.orderservice.service;
 
 import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.config.OrderHistoryProperties;
+import com.example.orderservice.dto.CursorPageResponse;
+import com.example.orderservice.dto.OrderFields;
+import com.example.orderservice.dto.OrderHistoryCursor;
 import com.example.orderservice.dto.OrderItemRequest;
 import com.example.orderservice.dto.OrderResponse;
 import com.example.orderservice.dto.OrderItemResponse;
@@ -12,6 +16,7 @@ import com.example.orderservice.entity.OrderItem;
 import com.example.orderservice.entity.OrderStatus;
 import com.example.orderservice.mapper.OrderMapper;
 import com.example.orderservice.mapper.OrderItemMapper;
+import com.example.orderservice.pricing.PricingEngine;
 import com.example.orderservice.repository.ItemRepository;
 import com.example.orderservice.repository.OrderRepository;
 import com.example.orderservice.specification.OrderSpecifications;
@@ -24,11 +29,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -42,66 +51,180 @@ public class OrderService {
     private final UserServiceClient userServiceClient;
     private final OrderMapper orderMapper;
     private final OrderItemMapper orderItemMapper;
+    private final StockService stockService;
+    private final OrderHistoryProperties historyProperties;
 
     @Transactional(rollbackFor = Exception.class)
     public OrderResponse createOrder(OrderRequest request) {
-        log.info("Creating order for user: {}", request.getUserId());
+        return createVerifiedOrder(request, verifyBuyer(request.getUserId()));
+    }
+
+    // Проверка покупателя - вызов user-service; групповая запись выполняет её до транзакции
+    public VerifiedBuyer verifyBuyer(Long userId) {
+        log.info("Creating order for user: {}", userId);
 
         UserResponseDTO userInfo;
+        boolean userVerified = true;
         try {
-            userInfo = getUserInfoWithFallback(request.getUserId());
+            userInfo = getUserInfoWithFallback(userId);
         } catch (Exception e) {
             log.warn("Using fallback user info due to: {}", e.getMessage());
             userInfo = new UserResponseDTO();
-            userInfo.setId(request.getUserId());
+            userInfo.setId(userId);
             userInfo.setName("Fallback User");
             userInfo.setActive(true);
+            userVerified = false;
         }
 
         if (!Boolean.TRUE.equals(userInfo.getActive())) {
             throw new IllegalArgumentException("User is inactive");
         }
+        return new VerifiedBuyer(userInfo, userVerified);
+    }
 
+    @Transactional(propagation = Propagation.MANDATORY, rollbackFor = Exception.class)
+    public OrderResponse createVerifiedOrder(OrderRequest request, VerifiedBuyer buyer) {
         Order order = orderMapper.toEntity(request);
         order.setUserId(request.getUserId());
         order.setStatus(request.getStatus() != null ? request.getStatus() : OrderStatus.CREATED);
         order.setDeleted(false);
+        if (buyer.verified()) {
+            applyBuyerSnapshot(order, buyer.userInfo());
+        }
 
         processOrderItems(order, request.getItems());
+        if (order.getStatus() != OrderStatus.CANCELLED) {
+            stockService.reserve(order.getOrderItems());
+        }
 
         Order savedOrder = orderRepository.save(order);
         log.info("Order created with id: {}", savedOrder.getId());
 
-        return convertToResponse(savedOrder);
+        return convertToResponse(savedOrder, false, OrderFields.ALL);
     }
 
     @Transactional(readOnly = true)
     public OrderResponse getOrderById(Long id) {
+        return getOrderById(id, false);
+    }
+
+    @Transactional(readOnly = true)
+    public OrderResponse getOrderById(Long id, boolean refreshUser) {
+        return getOrderById(id, refreshUser, OrderFields.ALL);
+    }
+
+    @Transactional(readOnly = true)
+    public OrderResponse getOrderById(Long id, boolean refreshUser, OrderFields fields) {
         log.debug("Fetching order by id: {}", id);
-        Order order = orderRepository.findByIdAndDeletedFalse(id)
-                .orElseThrow(() -> new EntityNotFoundException(ORDER_NOT_FOUND_WITH_ID + id));
-        return convertToResponse(order);
+        Optional<Order> found = fields.items()
+                ? orderRepository.findByIdAndDeletedFalse(id)
+                : orderRepository.findWithoutItemsByIdAndDeletedFalse(id);
+        Order order = found.orElseThrow(() -> new EntityNotFoundException(ORDER_NOT_FOUND_WITH_ID + id));
+        return convertToResponse(order, refreshUser, fields);
     }
 
     @Transactional(readOnly = true)
     public Page<OrderResponse> getOrdersWithFilter(LocalDateTime startDate, LocalDateTime endDate,
                                                    List<OrderStatus> statuses, Pageable pageable) {
+        return getOrdersWithFilter(startDate, endDate, statuses, pageable, false);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<OrderResponse> getOrdersWithFilter(LocalDateTime startDate, LocalDateTime endDate,
+                                                   List<OrderStatus> statuses, Pageable pageable,
+                                                   boolean refreshUser) {
+        return getOrdersWithFilter(startDate, endDate, statuses, pageable, refreshUser, OrderFields.ALL);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<OrderResponse> getOrdersWithFilter(LocalDateTime startDate, LocalDateTime endDate,
+                                                   List<OrderStatus> statuses, Pageable pageable,
+                                                   boolean refreshUser, OrderFields fields) {
         Specification<Order> spec = OrderSpecifications.buildSpecification(startDate, endDate, statuses);
         Page<Order> orders = orderRepository.findAll(spec, pageable);
-        return orders.map(this::convertToResponse);
+        return orders.map(order -> convertToResponse(order, refreshUser, fields));
     }
 
     @Transactional(readOnly = true)
     public List<OrderResponse> getOrdersByUserId(Long userId) {
+        return getOrdersByUserId(userId, false);
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderResponse> getOrdersByUserId(Long userId, boolean refreshUser) {
+        return getOrdersByUserId(userId, refreshUser, OrderFields.ALL).getContent();
+    }
+
+    // Старый эндпоинт без пагинации: последние legacyMaxResults заказов, новые первыми.
+    // Если заказов больше, nextCursor указывает, с какого места продолжить в истории по курсору
+    @Transactional(readOnly = true)
+    public CursorPageResponse<OrderResponse> getOrdersByUserId(Long userId, boolean refreshUser, OrderFields fields) {
         log.debug("Fetching orders for user: {}", userId);
-        List<Order> orders = orderRepository.findByUserIdAndDeletedFalse(userId);
-        return orders.stream()
-                .map(this::convertToResponse)
+        int limit = historyProperties.getLegacyMaxResults();
+        CursorPageResponse<OrderResponse> orders = historyPage(userId, null, OrderHistoryCursor.START, limit,
+                refreshUser, fields);
+        if (orders.getNextCursor() != null) {
+            log.warn("Order list for user {} truncated to {} orders, use the paginated history", userId, limit);
+        }
+        return orders;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<OrderResponse> getOrderHistory(Long userId, List<OrderStatus> statuses, String cursor,
+                                                             Integer size, boolean refreshUser, OrderFields fields) {
+        int pageSize = size == null ? historyProperties.getDefaultPageSize() : size;
+        if (pageSize < 1 || pageSize > historyProperties.getMaxPageSize()) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + historyProperties.getMaxPageSize());
+        }
+        OrderHistoryCursor position = OrderHistoryCursor.parse(cursor);
+        log.debug("Fetching order history for user: {}, cursor: {}", userId, position);
+        return historyPage(userId, statuses, position, pageSize, refreshUser, fields);
+    }
+
+    private CursorPageResponse<OrderResponse> historyPage(Long userId, List<OrderStatus> statuses,
+                                                          OrderHistoryCursor position, int pageSize,
+                                                          boolean refreshUser, OrderFields fields) {
+        // Лишняя строка показывает, есть ли следующая страница, без отдельного count(*)
+        List<Long> ids = statuses == null || statuses.isEmpty()
+                ? orderRepository.findHistoryIds(userId, position.createdAt(), position.id(), pageSize + 1)
+                : orderRepository.findHistoryIdsByStatuses(userId, statuses.stream().map(Enum::name).toList(),
+                        position.createdAt(), position.id(), pageSize + 1);
+        boolean hasNext = ids.size() > pageSize;
+        List<Order> orders = loadInOrder(hasNext ? ids.subList(0, pageSize) : ids, fields.items());
+
+        String nextCursor = null;
+        if (hasNext) {
+            Order last = orders.get(orders.size() - 1);
+            nextCursor = new OrderHistoryCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        List<OrderResponse> content = orders.stream()
+                .map(order -> convertToResponse(order, refreshUser, fields))
                 .collect(Collectors.toList());
+        return new CursorPageResponse<>(content, nextCursor);
+    }
+
+    // IN (...) не сохраняет порядок, восстанавливаем его по списку id
+    private List<Order> loadInOrder(List<Long> ids, boolean withItems) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Order> orders = withItems ? orderRepository.findAllWithItemsByIdIn(ids) : orderRepository.findAllById(ids);
+        Map<Long, Order> byId = orders.stream().collect(Collectors.toMap(Order::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
     }
 
     @Transactional(readOnly = true)
     public List<OrderResponse> getOrdersByUserEmail(String email) {
+        return getOrdersByUserEmail(email, false);
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderResponse> getOrdersByUserEmail(String email, boolean refreshUser) {
+        return getOrdersByUserEmail(email, refreshUser, OrderFields.ALL).getContent();
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<OrderResponse> getOrdersByUserEmail(String email, boolean refreshUser, OrderFields fields) {
         log.debug("Fetching orders for user email: {}", email);
 
         UserResponseDTO userInfo = getUserByEmailWithFallback(email);
@@ -109,7 +232,7 @@ public class OrderService {
             throw new EntityNotFoundException("User not found with email: " + email);
         }
 
-        return getOrdersByUserId(userInfo.getId());
+        return getOrdersByUserId(userInfo.getId(), refreshUser, fields);
     }
 
     @Transactional(rollbackFor = Exception.class)
@@ -126,21 +249,28 @@ public class OrderService {
 
         existingOrder.setUserId(request.getUserId());
         existingOrder.setStatus(request.getStatus());
+        applyBuyerSnapshot(existingOrder, userInfo);
 
+        // Старые строки возвращают остаток, новые списывают заново, если заказ не отменён
+        stockService.release(existingOrder.getOrderItems());
         existingOrder.clearOrderItems();
         processOrderItems(existingOrder, request.getItems());
+        if (existingOrder.getStatus() != OrderStatus.CANCELLED) {
+            stockService.reserve(existingOrder.getOrderItems());
+        }
 
         Order updatedOrder = orderRepository.save(existingOrder);
         log.info("Order updated with id: {}", id);
 
-        return convertToResponse(updatedOrder);
+        return convertToResponse(updatedOrder, false, OrderFields.ALL);
     }
 
     @Transactional(rollbackFor = Exception.class)
     public void deleteOrder(Long id) {
         log.info("Soft deleting order with id: {}", id);
-        orderRepository.findByIdAndDeletedFalse(id)
+        Order order = orderRepository.findByIdAndDeletedFalse(id)
                 .orElseThrow(() -> new EntityNotFoundException(ORDER_NOT_FOUND_WITH_ID + id));
+        stockService.release(order.getOrderItems());
         orderRepository.softDelete(id);
         log.info("Order soft deleted with id: {}", id);
     }
@@ -150,7 +280,7 @@ public class OrderService {
             throw new IllegalArgumentException("Order must have at least one item");
         }
 
-        BigDecimal totalPrice = BigDecimal.ZERO;
+        long totalMinor = 0;
 
         for (OrderItemRequest itemRequest : items) {
             Item item = itemRepository.findById(itemRequest.getItemId())
@@ -163,17 +293,44 @@ public class OrderService {
             OrderItem orderItem = orderItemMapper.toEntity(itemRequest);
             orderItem.setItem(item);
             orderItem.setQuantity(itemRequest.getQuantity());
+            orderItem.setUnitPrice(item.getPrice());
+            orderItem.setItemName(item.getName());
 
             order.addOrderItem(orderItem);
 
-            BigDecimal itemTotal = item.getPrice().multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
-            totalPrice = totalPrice.add(itemTotal);
+            totalMinor = PricingEngine.addLine(totalMinor, PricingEngine.toMinorUnits(item.getPrice()),
+                    itemRequest.getQuantity());
         }
 
-        order.setTotalPrice(totalPrice);
+        order.setTotalPrice(PricingEngine.toDecimal(totalMinor));
+    }
+
+    private void applyBuyerSnapshot(Order order, UserResponseDTO userInfo) {
+        order.setBuyerName(userInfo.getName());
+        order.setBuyerSurname(userInfo.getSurname());
+        order.setBuyerEmail(userInfo.getEmail());
+        order.setBuyerSnapshotCheckedAt(LocalDateTime.now());
     }
 
-    private OrderResponse convertToResponse(Order order) {
+    // Отметка проверки без имени и email - backfill уже спрашивал user-service (пустой ответ или 404):
+    // такой снимок отдаётся как есть, повторный вызов ответа не изменит
+    private boolean hasBuyerSnapshot(Order order) {
+        return order.getBuyerName() != null || order.getBuyerEmail() != null
+                || order.getBuyerSnapshotCheckedAt() != null;
+    }
+
+    private UserResponseDTO buyerSnapshot(Order order) {
+        UserResponseDTO snapshot = new UserResponseDTO();
+        snapshot.setId(order.getUserId());
+        snapshot.setName(order.getBuyerName());
+        snapshot.setSurname(order.getBuyerSurname());
+        snapshot.setEmail(order.getBuyerEmail());
+        // Снимок делается только для проверенного покупателя, а неактивному заказ не создаётся
+        snapshot.setActive(true);
+        return snapshot;
+    }
+
+    private OrderResponse convertToResponse(Order order, boolean refreshUser, OrderFields fields) {
         OrderResponse response = orderMapper.toResponse(order);
         response.setUserId(order.getUserId());
         response.setStatus(order.getStatus());
@@ -181,9 +338,24 @@ public class OrderService {
         response.setCreatedAt(order.getCreatedAt());
         response.setUpdatedAt(order.getUpdatedAt());
 
+        // Снимок есть у всех новых заказов; старые, ещё не пройденные backfill, читаются из user-service
+        if (fields.userInfo()) {
+            response.setUserInfo(!refreshUser && hasBuyerSnapshot(order) ? buyerSnapshot(order) : fetchUserInfo(order));
+        }
+
+        // Без items коллекция orderItems не инициализируется и позиции с товарами не загружаются
+        if (fields.items()) {
+            List<OrderItemResponse> itemResponses = order.getOrderItems().stream()
+                    .map(orderItemMapper::toResponse)
+                    .collect(Collectors.toList());
+            response.setItems(itemResponses);
+        }
+        return response;
+    }
+
+    private UserResponseDTO fetchUserInfo(Order order) {
         try {
-            UserResponseDTO userInfo = getUserInfoWithFallback(order.getUserId());
-            response.setUserInfo(userInfo);
+            return getUserInfoWithFallback(order.getUserId());
         } catch (Exception e) {
             log.warn("Failed to fetch user info for order response, userId: {}, error: {}",
                     order.getUserId(), e.getMessage());
@@ -191,15 +363,8 @@ public class OrderService {
             fallbackUser.setId(order.getUserId());
             fallbackUser.setName("User information unavailable");
             fallbackUser.setActive(true);
-            response.setUserInfo(fallbackUser);
+            return fallbackUser;
         }
-
-        List<OrderItemResponse> itemResponses = order.getOrderItems().stream()
-                .map(orderItemMapper::toResponse)
-                .collect(Collectors.toList());
-
-        response.setItems(itemResponses);
-        return response;
     }
 
     @CircuitBreaker(name = "userService", fallbackMethod = "getUserInfoFallback")
@@ -232,4 +397,8 @@ public class OrderService {
             throw new IllegalArgumentException("User not found with email: " + email);
         }
     }
-}
\ No newline at end of file
+
+    // userInfo из user-service; verified = false, если использованы данные-заглушки
+    public record VerifiedBuyer(UserResponseDTO userInfo, boolean verified) {
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.StockRequest;
+import com.example.orderservice.dto.StockResponse;
+import com.example.orderservice.entity.Item;
+import com.example.orderservice.entity.ItemStockShard;
+import com.example.orderservice.entity.OrderItem;
+import com.example.orderservice.exception.InsufficientStockException;
+import com.example.orderservice.repository.ItemRepository;
+import com.example.orderservice.repository.ItemStockShardRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Остатки товаров. Списание - условный UPDATE без предварительного SELECT ... FOR UPDATE:
+// строка блокируется только на время транзакции заказа, а нехватка видна по числу изменённых строк.
+// Для горячих товаров остаток делится на части (item_stock_shards), и параллельные заказы
+// списывают из случайной незанятой части, не выстраиваясь в очередь на одну строку
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockService {
+
+    private final ItemRepository itemRepository;
+    private final ItemStockShardRepository shardRepository;
+    private final EntityManager entityManager;
+
+    // Вызывается в транзакции заказа до сохранения строк: флаг stockReserved попадает в INSERT,
+    // а при нехватке остатка заказ не вставляется вовсе
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserve(Collection<OrderItem> lines) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        Map<Long, Item> items = new TreeMap<>();
+        for (OrderItem line : lines) {
+            Item item = line.getItem();
+            if (item.getStockShards() == 0 && item.getStockQuantity() == null) {
+                continue;
+            }
+            line.setStockReserved(true);
+            quantities.merge(item.getId(), line.getQuantity(), Integer::sum);
+            items.put(item.getId(), item);
+        }
+
+        // Товары обходятся по возрастанию id: заказы с общими товарами не блокируют друг друга крест-накрест
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Item item = items.get(entry.getKey());
+            if (item.getStockShards() > 0) {
+                reserveFromShards(item, entry.getValue());
+            } else if (itemRepository.reserveStock(item.getId(), entry.getValue()) == 0) {
+                throw insufficientStock(item.getId());
+            }
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void release(Collection<OrderItem> lines) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        Map<Long, Item> items = new TreeMap<>();
+        for (OrderItem line : lines) {
+            if (!line.isStockReserved()) {
+                continue;
+            }
+            line.setStockReserved(false);
+            quantities.merge(line.getItem().getId(), line.getQuantity(), Integer::sum);
+            items.put(line.getItem().getId(), line.getItem());
+        }
+
+        releaseQuantities(quantities, items);
+    }
+
+    // Возврат по уже просуммированным строкам многих заказов (массовая отмена и удаление):
+    // флаги stock_reserved сняты вызывающим одним UPDATE
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void releaseTotals(Map<Long, Integer> quantitiesByItemId) {
+        Map<Long, Integer> quantities = new TreeMap<>(quantitiesByItemId);
+        Map<Long, Item> items = new TreeMap<>();
+        itemRepository.findAllById(quantities.keySet()).forEach(item -> items.put(item.getId(), item));
+        quantities.keySet().retainAll(items.keySet());
+        releaseQuantities(quantities, items);
+    }
+
+    @Transactional(readOnly = true)
+    public StockResponse getStock(Long itemId) {
+        Item item = findItem(itemId);
+        Integer quantity = item.getStockShards() > 0
+                ? Integer.valueOf(Math.toIntExact(shardRepository.sumQuantityByItemId(itemId)))
+                : item.getStockQuantity();
+        return toResponse(itemId, quantity, item.getStockShards());
+    }
+
+    // Абсолютная установка остатка (поступление, инвентаризация). Части пересоздаются заново
+    @Transactional
+    public StockResponse setStock(Long itemId, StockRequest request) {
+        findItem(itemId);
+        if (request.getQuantity() == null && request.getShards() > 0) {
+            throw new IllegalArgumentException("Stock shards require a stock quantity");
+        }
+
+        shardRepository.deleteByItemId(itemId);
+        if (request.getShards() > 0) {
+            itemRepository.setStock(itemId, null, request.getShards());
+            shardRepository.saveAll(split(itemId, request.getQuantity(), request.getShards()));
+        } else {
+            itemRepository.setStock(itemId, request.getQuantity(), 0);
+        }
+        log.info("Stock for item {} set to {} in {} shard(s)", itemId, request.getQuantity(), request.getShards());
+        return toResponse(itemId, request.getQuantity(), request.getShards());
+    }
+
+    private void releaseQuantities(Map<Long, Integer> quantities, Map<Long, Item> items) {
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Item item = items.get(entry.getKey());
+            if (item.getStockShards() > 0) {
+                int shard = ThreadLocalRandom.current().nextInt(item.getStockShards());
+                shardRepository.release(item.getId(), shard, entry.getValue());
+            } else {
+                itemRepository.releaseStock(item.getId(), entry.getValue());
+            }
+        }
+    }
+
+    private void reserveFromShards(Item item, int quantity) {
+        int shards = item.getStockShards();
+        int start = ThreadLocalRandom.current().nextInt(shards);
+        Session session = entityManager.unwrap(Session.class);
+        // Изменения сессии пишутся до точки сохранения, иначе откат к ней молча потеряет их
+        session.flush();
+        Savepoint savepoint = session.doReturningWork(Connection::setSavepoint);
+        if (shardRepository.reserveFromUnlocked(item.getId(), quantity, start, shards) == 1) {
+            session.doWork(connection -> connection.releaseSavepoint(savepoint));
+            return;
+        }
+        // В READ COMMITTED PostgreSQL оставляет блокировку на части, которую успели изменить и которая
+        // при перепроверке уже не подошла. Откат к точке сохранения снимает такие блокировки: медленный
+        // путь ждёт части по возрастанию номера, не держа ни одной части этого товара, и не встаёт
+        // крест-накрест с другим заказом
+        session.doWork(connection -> connection.rollback(savepoint));
+
+        // Свободной части с достаточным остатком нет: остаток раздроблен или части заняты, собираем под блокировкой
+        List<ItemStockShard> locked = shardRepository.lockAllByItemId(item.getId());
+        long available = locked.stream().mapToLong(ItemStockShard::getQuantity).sum();
+        if (available < quantity) {
+            throw insufficientStock(item.getId());
+        }
+        int remaining = quantity;
+        for (ItemStockShard shard : locked) {
+            int taken = Math.min(shard.getQuantity(), remaining);
+            shard.setQuantity(shard.getQuantity() - taken);
+            remaining -= taken;
+            if (remaining == 0) {
+                break;
+            }
+        }
+    }
+
+    private List<ItemStockShard> split(Long itemId, int quantity, int shards) {
+        List<ItemStockShard> parts = new ArrayList<>(shards);
+        for (int i = 0; i < shards; i++) {
+            ItemStockShard part = new ItemStockShard();
+            part.setItemId(itemId);
+            part.setShard(i);
+            part.setQuantity(quantity / shards + (i < quantity % shards ? 1 : 0));
+            parts.add(part);
+        }
+        return parts;
+    }
+
+    private Item findItem(Long itemId) {
+        return itemRepository.findById(itemId)
+                .orElseThrow(() -> new EntityNotFoundException("Item not found with id: " + itemId));
+    }
+
+    private InsufficientStockException insufficientStock(Long itemId) {
+        return new InsufficientStockException("Insufficient stock for item: " + itemId);
+    }
+
+    private StockResponse toResponse(Long itemId, Integer quantity, int shards) {
+        StockResponse response = new StockResponse();
+        response.setItemId(itemId);
+        response.setQuantity(quantity);
+        response.setShards(shards);
+        return response;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.orderservice.specification;
+
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class ItemFullTextQuery {
+    private static final Pattern TOKEN = Pattern.compile("[\\p{L}\\p{N}]+");
+    private static final int MAX_TOKENS = 8;
+
+    private ItemFullTextQuery() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    // "red wid" -> "red:* & wid:*": все слова обязательны, последнее можно не дописывать.
+    // Служебные символы tsquery (&, |, !, :, скобки) отбрасываются вместе с остальной пунктуацией
+    public static String toPrefixTsQuery(String text) {
+        if (text == null) {
+            return null;
+        }
+        StringJoiner query = new StringJoiner(" & ");
+        Matcher matcher = TOKEN.matcher(text.toLowerCase(Locale.ROOT));
+        int tokens = 0;
+        while (matcher.find() && tokens < MAX_TOKENS) {
+            query.add(matcher.group() + ":*");
+            tokens++;
+        }
+        return tokens == 0 ? null : query.toString();
+    }
+}
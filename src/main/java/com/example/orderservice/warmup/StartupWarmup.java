@@ -0,0 +1,228 @@
+package com.example.orderservice.warmup;
+
+import com.example.orderservice.config.WarmupProperties;
+import com.example.orderservice.dto.CursorPageResponse;
+import com.example.orderservice.dto.ItemDTO;
+import com.example.orderservice.dto.OrderFields;
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.dto.PageResponse;
+import com.example.orderservice.dto.UserResponseDTO;
+import com.example.orderservice.entity.Item;
+import com.example.orderservice.mapper.ItemMapper;
+import com.example.orderservice.repository.ItemRepository;
+import com.example.orderservice.service.ItemService;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.specification.ItemFullTextQuery;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Прогрев JIT и пула соединений после старта. ApplicationRunner выполняется до ApplicationReadyEvent,
+// поэтому readiness переходит в ACCEPTING_TRAFFIC только после прогрева или по истечении time-budget;
+// liveness и веб-сервер к этому моменту уже подняты. Сценарий повторяет чтения из горячих эндпоинтов
+// по реальной базе: заказ по id, фильтр заказов, история пользователя, товар, полнотекстовый поиск
+// и JSON-сериализация ответов. Только чтения; user-service не вызывается
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(value = "warmup.enabled", havingValue = "true")
+public class StartupWarmup implements ApplicationRunner {
+    // userInfo не запрашивается: заказы без снимка покупателя пошли бы в user-service
+    private static final OrderFields WITHOUT_USER = new OrderFields(true, false);
+    // Ответ user-service в том виде, в каком его разбирает декодер Feign
+    private static final String STUB_USER_JSON = """
+            {"id": 0, "name": "Warmup", "surname": "User", "birthDate": "1990-01-01", "email": "warmup@example.com",
+             "active": true, "createdAt": "2025-01-01T00:00:00", "updatedAt": "2025-01-01T00:00:00"}""";
+
+    private final OrderService orderService;
+    private final ItemService itemService;
+    private final ItemRepository itemRepository;
+    private final ItemMapper itemMapper;
+    private final ObjectMapper objectMapper;
+    private final DataSource dataSource;
+    private final WarmupProperties properties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        long deadline = start + properties.getTimeBudget().toNanos();
+
+        int primed = properties.isPrimePool() ? primePool(deadline) : 0;
+        Sample sample = sample();
+
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicBoolean stop = new AtomicBoolean();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < properties.getThreads(); i++) {
+            workers.add(Thread.ofPlatform()
+                    .name("warmup-" + i)
+                    .daemon(true)
+                    .start(() -> {
+                        while (!stop.get() && System.nanoTime() < deadline) {
+                            int round = started.getAndIncrement();
+                            if (round >= properties.getIterations()) {
+                                return;
+                            }
+                            try {
+                                runRound(sample, round);
+                                completed.incrementAndGet();
+                            } catch (Exception e) {
+                                // Прогрев не должен мешать старту: ошибки только считаются
+                                failed.incrementAndGet();
+                                log.debug("Warm-up round {} failed: {}", round, e.getMessage());
+                            }
+                        }
+                    }));
+        }
+
+        boolean exhausted = awaitWorkers(workers, deadline);
+        // Потоки, не успевшие в бюджет, заканчивают текущий прогон и выходят; трафик их не ждёт
+        stop.set(true);
+        log.info("Warm-up finished in {} ms: {} pool connections primed, {} rounds completed, {} failed{}",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), primed, completed.get(), failed.get(),
+                exhausted ? ", time budget exhausted" : "");
+    }
+
+    // Hikari открывает соединения до minimum-idle в фоне; здесь они удерживаются все разом,
+    // чтобы пул заполнился до первых запросов и заодно прошла проверка каждого соединения
+    private int primePool(long deadline) {
+        int target = 1;
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+                // minimum-idle не задан (-1) - Hikari держит полный пул
+                target = hikari.getMinimumIdle() < 0
+                        ? hikari.getMaximumPoolSize()
+                        : Math.min(hikari.getMinimumIdle(), hikari.getMaximumPoolSize());
+            }
+        } catch (SQLException e) {
+            log.debug("Cannot inspect connection pool: {}", e.getMessage());
+        }
+
+        List<Connection> connections = new ArrayList<>();
+        try {
+            while (connections.size() < target && System.nanoTime() < deadline) {
+                Connection connection = dataSource.getConnection();
+                connections.add(connection);
+                connection.isValid(1);
+            }
+        } catch (SQLException e) {
+            log.warn("Connection pool priming stopped after {} connections: {}", connections.size(), e.getMessage());
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.debug("Failed to return warm-up connection: {}", e.getMessage());
+                }
+            }
+        }
+        return connections.size();
+    }
+
+    // Последние заказы и первые товары каталога; на пустой базе остаются только выборки списков
+    private Sample sample() {
+        List<Long> orderIds = new ArrayList<>();
+        List<Long> userIds = new ArrayList<>();
+        List<Long> itemIds = new ArrayList<>();
+        List<String> searchTerms = new ArrayList<>();
+        try {
+            Pageable recent = PageRequest.of(0, properties.getSampleSize(), Sort.by("id").descending());
+            for (OrderResponse order : orderService.getOrdersWithFilter(null, null, null, recent, false,
+                    new OrderFields(false, false))) {
+                orderIds.add(order.getId());
+                userIds.add(order.getUserId());
+            }
+            for (ItemDTO item : itemService.getItemsWithPagination(PageRequest.of(0, properties.getSampleSize()))) {
+                itemIds.add(item.getId());
+                String term = item.getName().trim().split("\\s+")[0];
+                if (ItemFullTextQuery.toPrefixTsQuery(term) != null) {
+                    searchTerms.add(term);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Warm-up sample could not be loaded, only list queries will run: {}", e.getMessage());
+        }
+        return new Sample(orderIds, userIds, itemIds, searchTerms);
+    }
+
+    private void runRound(Sample sample, int round) throws IOException {
+        LocalDateTime now = LocalDateTime.now();
+        Pageable page = PageRequest.of(0, 10, Sort.by("createdAt").descending());
+        Page<OrderResponse> orders = orderService.getOrdersWithFilter(now.minusDays(30), now, null, page, false,
+                WITHOUT_USER);
+        serialize(PageResponse.of(orders));
+
+        UserResponseDTO stubUser = objectMapper.readValue(STUB_USER_JSON, UserResponseDTO.class);
+        if (!sample.orderIds().isEmpty()) {
+            int index = round % sample.orderIds().size();
+            OrderResponse order = orderService.getOrderById(sample.orderIds().get(index), false, WITHOUT_USER);
+            order.setUserInfo(stubUser);
+            serialize(order);
+
+            CursorPageResponse<OrderResponse> history = orderService.getOrderHistory(
+                    sample.userIds().get(index), null, null, null, false, WITHOUT_USER);
+            serialize(history);
+        }
+
+        if (!sample.itemIds().isEmpty()) {
+            // ItemService.getItemById кешируется в Caffeine: после первого прогона прогревался бы только
+            // кеш. Чтение в обход кеша проходит JDBC, Hibernate и маппер, как промах кеша под нагрузкой
+            Optional<Item> item = itemRepository.findById(sample.itemIds().get(round % sample.itemIds().size()));
+            if (item.isPresent()) {
+                serialize(itemMapper.toDTO(item.get()));
+            }
+        }
+        if (!sample.searchTerms().isEmpty()) {
+            String term = sample.searchTerms().get(round % sample.searchTerms().size());
+            serialize(PageResponse.of(itemService.searchItemsFullText(term, PageRequest.of(0, 20))));
+        }
+    }
+
+    private void serialize(Object response) throws IOException {
+        objectMapper.writeValueAsBytes(response);
+    }
+
+    // true - бюджет кончился раньше, чем потоки выполнили все прогоны
+    private static boolean awaitWorkers(List<Thread> workers, long deadline) {
+        for (Thread worker : workers) {
+            long remaining = deadline - System.nanoTime();
+            try {
+                if (remaining <= 0 || !worker.join(Duration.ofNanos(remaining))) {
+                    return true;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Sample(List<Long> orderIds, List<Long> userIds, List<Long> itemIds, List<String> searchTerms) {
+    }
+}
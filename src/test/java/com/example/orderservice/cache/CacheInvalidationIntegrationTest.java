@@ -0,0 +1,150 @@
+package com.example.orderservice.cache;
+
+import com.example.orderservice.OrderServiceApplication;
+import com.example.orderservice.dto.ItemDTO;
+import com.example.orderservice.service.ItemService;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.fail;
+
+// Два экземпляра приложения на одной базе: изменение товара на узле A
+// должно вытеснить запись из кэша узла B
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CacheInvalidationIntegrationTest {
+    private static final Duration PROPAGATION_TIMEOUT = Duration.ofSeconds(10);
+
+    @Container
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("cacheDb")
+            .withUsername("test")
+            .withPassword("test");
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    void startNodes() {
+        nodeA = startNode();
+        nodeB = startNode();
+    }
+
+    @AfterAll
+    void stopNodes() {
+        if (nodeB != null) {
+            nodeB.close();
+        }
+        if (nodeA != null) {
+            nodeA.close();
+        }
+    }
+
+    @Test
+    void updateOnOneNode_ShouldEvictCachedItemOnOtherNode() {
+        ItemService itemsA = nodeA.getBean(ItemService.class);
+        ItemService itemsB = nodeB.getBean(ItemService.class);
+        Long id = itemsA.createItem(item("Old name")).getId();
+
+        assertThat(itemsB.getItemById(id).getName()).isEqualTo("Old name");
+
+        itemsA.updateItem(id, item("New name"));
+
+        awaitTrue(() -> "New name".equals(itemsB.getItemById(id).getName()));
+    }
+
+    @Test
+    void deleteOnOneNode_ShouldEvictCachedItemOnOtherNode() {
+        ItemService itemsA = nodeA.getBean(ItemService.class);
+        ItemService itemsB = nodeB.getBean(ItemService.class);
+        Long id = itemsA.createItem(item("Short-lived")).getId();
+
+        assertThat(itemsB.getItemById(id).getName()).isEqualTo("Short-lived");
+
+        itemsA.deleteItem(id);
+
+        awaitTrue(() -> {
+            try {
+                itemsB.getItemById(id);
+                return false;
+            } catch (EntityNotFoundException e) {
+                return true;
+            }
+        });
+        assertThatThrownBy(() -> itemsB.getItemById(id)).isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    void reconnect_ShouldResyncWholeCache() {
+        ItemService itemsB = nodeB.getBean(ItemService.class);
+        JdbcTemplate jdbc = nodeA.getBean(JdbcTemplate.class);
+        Long id = nodeA.getBean(ItemService.class).createItem(item("Before outage")).getId();
+
+        assertThat(itemsB.getItemById(id).getName()).isEqualTo("Before outage");
+
+        // Изменение в обход шины: уведомления нет, узел B узнает о нём только после пересинхронизации
+        jdbc.update("UPDATE items SET name = 'After outage' WHERE id = ?", id);
+        assertThat(itemsB.getItemById(id).getName()).isEqualTo("Before outage");
+
+        jdbc.queryForList("SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE application_name = ?",
+                CacheInvalidationListener.APPLICATION_NAME);
+
+        awaitTrue(() -> "After outage".equals(itemsB.getItemById(id).getName()));
+    }
+
+    // Аргументы командной строки, а не SpringApplicationBuilder.properties: те идут последними по приоритету,
+    // и профиль test из integrationTest подменил бы базу узлов на H2 и выключил бы шину инвалидации
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(OrderServiceApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=" + postgreSQLContainer.getJdbcUrl(),
+                        "--spring.datasource.username=" + postgreSQLContainer.getUsername(),
+                        "--spring.datasource.password=" + postgreSQLContainer.getPassword(),
+                        "--spring.datasource.driver-class-name=org.postgresql.Driver",
+                        "--spring.liquibase.enabled=true",
+                        "--spring.jpa.hibernate.ddl-auto=validate",
+                        "--user.service.url=http://localhost:18091",
+                        "--cache.invalidation.enabled=true",
+                        "--cache.invalidation.reconnect-delay=100ms",
+                        "--resilience4j.circuitbreaker.instances.userService.register-health-indicator=false");
+    }
+
+    private static ItemDTO item(String name) {
+        ItemDTO item = new ItemDTO();
+        item.setName(name);
+        item.setPrice(BigDecimal.valueOf(10));
+        return item;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + PROPAGATION_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (condition.getAsBoolean()) {
+                return;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted while waiting for cache invalidation");
+            }
+        }
+        fail("Cache was not invalidated within " + PROPAGATION_TIMEOUT);
+    }
+}
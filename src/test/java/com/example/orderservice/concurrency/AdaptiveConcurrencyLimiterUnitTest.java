@@ -0,0 +1,78 @@
+package com.example.orderservice.concurrency;
+
+import com.example.orderservice.config.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterUnitTest {
+
+    private ConcurrencyLimitProperties.Adaptive settings;
+
+    @BeforeEach
+    void setUp() {
+        settings = new ConcurrencyLimitProperties.Adaptive();
+        settings.setInitialLimit(10);
+        settings.setMinLimit(2);
+        settings.setMaxLimit(50);
+    }
+
+    @Test
+    void tryAcquire_ShouldRejectRequests_WhenLimitIsReached() {
+        // Arrange
+        settings.setInitialLimit(2);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(settings);
+
+        // Act & Assert
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.cancel();
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void release_ShouldShrinkLimit_WhenLatencyDegrades() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(settings);
+        runAtFullLoad(limiter, 200, TimeUnit.MILLISECONDS.toNanos(10));
+        int healthyLimit = limiter.getLimit();
+
+        // Act
+        runAtFullLoad(limiter, 50, TimeUnit.MILLISECONDS.toNanos(200));
+
+        // Assert
+        assertThat(limiter.getLimit()).isLessThan(healthyLimit);
+        assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(settings.getMinLimit());
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void release_ShouldGrowLimit_WhenLatencyIsStable() {
+        // Arrange
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(settings);
+
+        // Act
+        runAtFullLoad(limiter, 200, TimeUnit.MILLISECONDS.toNanos(10));
+
+        // Assert
+        assertThat(limiter.getLimit()).isGreaterThan(10);
+        assertThat(limiter.getLimit()).isLessThanOrEqualTo(settings.getMaxLimit());
+    }
+
+    private void runAtFullLoad(AdaptiveConcurrencyLimiter limiter, int rounds, long latencyNanos) {
+        for (int round = 0; round < rounds; round++) {
+            int admitted = 0;
+            while (limiter.tryAcquire()) {
+                admitted++;
+            }
+            for (int i = 0; i < admitted; i++) {
+                limiter.release(latencyNanos);
+            }
+        }
+    }
+}
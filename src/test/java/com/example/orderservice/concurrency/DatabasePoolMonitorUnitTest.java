@@ -0,0 +1,116 @@
+package com.example.orderservice.concurrency;
+
+import com.example.orderservice.config.ConcurrencyLimitProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DatabasePoolMonitorUnitTest {
+
+    @Mock
+    private HikariDataSource dataSource;
+
+    @Mock
+    private HikariPoolMXBean pool;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private Timer acquire;
+    private Counter timeouts;
+    private DatabasePoolMonitor monitor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        // Каждый вызов - новый замер
+        properties.getPool().setSampleInterval(Duration.ZERO);
+        properties.getPool().setShedWait(Duration.ofMillis(50));
+        properties.getPool().setShedPending(5);
+        properties.getPool().setSaturatedPending(50);
+
+        lenient().when(dataSource.isWrapperFor(HikariDataSource.class)).thenReturn(true);
+        lenient().when(dataSource.unwrap(HikariDataSource.class)).thenReturn(dataSource);
+        lenient().when(dataSource.getPoolName()).thenReturn("test-pool");
+        lenient().when(dataSource.getHikariPoolMXBean()).thenReturn(pool);
+        acquire = Timer.builder("hikaricp.connections.acquire").tag("pool", "test-pool").register(meterRegistry);
+        timeouts = Counter.builder("hikaricp.connections.timeout").tag("pool", "test-pool").register(meterRegistry);
+
+        monitor = new DatabasePoolMonitor(dataSource, meterRegistry, properties);
+    }
+
+    @Test
+    void current_ShouldBeHealthy_WhenConnectionsAreHandedOutQuickly() {
+        // Arrange
+        acquire.record(Duration.ofMillis(2));
+        acquire.record(Duration.ofMillis(4));
+
+        // Act
+        DatabasePoolMonitor.Snapshot snapshot = monitor.current();
+
+        // Assert
+        assertThat(snapshot.state()).isEqualTo(DatabasePoolMonitor.State.HEALTHY);
+        assertThat(snapshot.averageWait()).isEqualTo(Duration.ofMillis(3));
+    }
+
+    @Test
+    void current_ShouldDegrade_WhenRecentWaitsExceedThreshold() {
+        // Arrange: долгие ожидания в прошлом интервале не влияют на текущий
+        acquire.record(Duration.ofSeconds(2));
+        monitor.current();
+        acquire.record(Duration.ofMillis(1));
+        assertThat(monitor.current().state()).isEqualTo(DatabasePoolMonitor.State.HEALTHY);
+
+        // Act
+        acquire.record(Duration.ofMillis(120));
+        acquire.record(Duration.ofMillis(80));
+        DatabasePoolMonitor.Snapshot snapshot = monitor.current();
+
+        // Assert
+        assertThat(snapshot.state()).isEqualTo(DatabasePoolMonitor.State.DEGRADED);
+        assertThat(snapshot.averageWait()).isEqualTo(Duration.ofMillis(100));
+    }
+
+    @Test
+    void current_ShouldDegrade_WhenThreadsQueueForConnections() {
+        // Arrange
+        when(pool.getThreadsAwaitingConnection()).thenReturn(7);
+
+        // Act & Assert
+        assertThat(monitor.current().state()).isEqualTo(DatabasePoolMonitor.State.DEGRADED);
+    }
+
+    @Test
+    void current_ShouldReportSaturation_UntilTimeoutsStop() {
+        // Arrange
+        timeouts.increment();
+
+        // Act & Assert
+        DatabasePoolMonitor.Snapshot snapshot = monitor.current();
+        assertThat(snapshot.state()).isEqualTo(DatabasePoolMonitor.State.SATURATED);
+        assertThat(snapshot.timeouts()).isEqualTo(1);
+        assertThat(monitor.current().state()).isEqualTo(DatabasePoolMonitor.State.HEALTHY);
+    }
+
+    @Test
+    void current_ShouldStayHealthy_WhenPoolIsNotStarted() {
+        // Arrange
+        when(dataSource.getHikariPoolMXBean()).thenReturn(null);
+        timeouts.increment();
+
+        // Act & Assert
+        assertThat(monitor.current().state()).isEqualTo(DatabasePoolMonitor.State.HEALTHY);
+    }
+}
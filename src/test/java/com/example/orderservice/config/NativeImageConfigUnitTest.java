@@ -0,0 +1,45 @@
+package com.example.orderservice.config;
+
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.dto.UserResponseDTO;
+import com.example.orderservice.id.SnowflakeIdentifierGenerator;
+import com.example.orderservice.logging.RateLimitingTurboFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NativeImageConfigUnitTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void setUp() {
+        new NativeImageConfig.Registrar().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void registerHints_ShouldAllowReflectiveCreationOfHibernateAndLogbackExtensions() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(SnowflakeIdentifierGenerator.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(RateLimitingTurboFilter.class)
+                .withMemberCategories(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS))
+                .accepts(hints);
+    }
+
+    @Test
+    void registerHints_ShouldBindDtosReadOutsideControllers() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(UserResponseDTO.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(OrderResponse.class)).accepts(hints);
+    }
+
+    @Test
+    void registerHints_ShouldIncludeChangelogResources() {
+        assertThat(RuntimeHintsPredicates.resource().forResource("db/changelog/db.changelog-master.yaml")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("db/changelog/versions/012-add-order-user-history-index.yaml"))
+                .accepts(hints);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.orderservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserServiceClientConfigUnitTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(MetricsAutoConfiguration.class,
+                    SimpleMetricsExportAutoConfiguration.class, FeignAutoConfiguration.class))
+            .withUserConfiguration(PropertiesConfig.class, UserServiceClientConfig.class)
+            .withPropertyValues("spring.cloud.openfeign.httpclient.hc5.enabled=true");
+
+    @Test
+    void userServiceConnectionPoolMetrics_ShouldBindToFeignConnectionManager() {
+        contextRunner.run(context -> {
+            MeterRegistry registry = context.getBean(MeterRegistry.class);
+
+            assertThat(registry.find("httpcomponents.httpclient.pool.total.max")
+                    .tag("httpclient", "user-service").gauge()).isNotNull();
+            assertThat(registry.find("httpcomponents.httpclient.pool.total.pending")
+                    .tag("httpclient", "user-service").gauge()).isNotNull();
+        });
+    }
+
+    @Test
+    void userServiceConnectionPoolMetrics_ShouldBeAbsent_WhenHc5IsDisabled() {
+        contextRunner.withPropertyValues("spring.cloud.openfeign.httpclient.hc5.enabled=false").run(context ->
+                assertThat(context.getBean(MeterRegistry.class).find("httpcomponents.httpclient.pool.total.max").gauge())
+                        .isNull());
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableConfigurationProperties(UserServiceClientProperties.class)
+    static class PropertiesConfig {
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.concurrency.ConcurrencyLimitFilter;
+import com.example.orderservice.concurrency.DatabasePoolAdmissionFilter;
+import com.example.orderservice.dto.ItemImportResult;
+import com.example.orderservice.importing.ItemImportService;
+import com.example.orderservice.service.ItemService;
+import com.example.orderservice.service.StockService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = ItemController.class, excludeFilters = @ComponentScan.Filter(
+        type = FilterType.ASSIGNABLE_TYPE, classes = {ConcurrencyLimitFilter.class, DatabasePoolAdmissionFilter.class}))
+@ActiveProfiles("test")
+class ItemControllerImportUnitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ItemService itemService;
+
+    @MockitoBean
+    private ItemImportService itemImportService;
+
+    @MockitoBean
+    private StockService stockService;
+
+    // @EnableJpaAuditing на классе приложения требует JPA-контекст, которого нет в web-срезе
+    @MockitoBean
+    private JpaMetamodelMappingContext jpaMappingContext;
+
+    @Test
+    void importItems_ShouldReturnOk_WhenImportCompleted() throws Exception {
+        // Arrange
+        ItemImportResult result = new ItemImportResult();
+        result.setInserted(2);
+        when(itemImportService.importItems(any(), any())).thenReturn(result);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/items/import").contentType("text/csv").content("external_key,name,price\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.completed").value(true));
+    }
+
+    @Test
+    void importItems_ShouldReturnServerError_WhenDatabaseAbortedImport() throws Exception {
+        // Arrange
+        ItemImportResult result = new ItemImportResult();
+        result.setCompleted(false);
+        result.setAbortCause(ItemImportResult.AbortCause.DATABASE);
+        result.setCommittedThroughLine(5000);
+        when(itemImportService.importItems(any(), any())).thenReturn(result);
+
+        // Act & Assert: клиент видит, до какой строки данные уже загружены
+        mockMvc.perform(post("/api/items/import").contentType("text/csv").content("external_key,name,price\n"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.completed").value(false))
+                .andExpect(jsonPath("$.committedThroughLine").value(5000));
+    }
+
+    @Test
+    void importItems_ShouldReturnBadRequest_WhenBodyCouldNotBeRead() throws Exception {
+        // Arrange
+        ItemImportResult result = new ItemImportResult();
+        result.setCompleted(false);
+        result.setAbortCause(ItemImportResult.AbortCause.INPUT);
+        when(itemImportService.importItems(any(), any())).thenReturn(result);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/items/import").contentType("application/x-ndjson").content("{}\n"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.concurrency.ConcurrencyLimitFilter;
+import com.example.orderservice.concurrency.DatabasePoolAdmissionFilter;
+import com.example.orderservice.config.BinaryFormatsConfig;
+import com.example.orderservice.config.JacksonConfig;
+import com.example.orderservice.dto.CursorPageResponse;
+import com.example.orderservice.dto.OrderItemResponse;
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.dto.UserResponseDTO;
+import com.example.orderservice.entity.OrderStatus;
+import com.example.orderservice.serialization.OrderProtobufHttpMessageConverter;
+import com.example.orderservice.service.IdempotencyService;
+import com.example.orderservice.service.OrderBulkService;
+import com.example.orderservice.service.OrderCreateBatcher;
+import com.example.orderservice.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.google.protobuf.UnknownFieldSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = OrderController.class, excludeFilters = @ComponentScan.Filter(
+        type = FilterType.ASSIGNABLE_TYPE, classes = {ConcurrencyLimitFilter.class, DatabasePoolAdmissionFilter.class}))
+@Import({BinaryFormatsConfig.class, JacksonConfig.class})
+@ActiveProfiles("test")
+class OrderControllerContentNegotiationUnitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private OrderService orderService;
+
+    @MockitoBean
+    private IdempotencyService idempotencyService;
+
+    @MockitoBean
+    private OrderCreateBatcher orderCreateBatcher;
+
+    @MockitoBean
+    private OrderBulkService orderBulkService;
+
+    // @EnableJpaAuditing на классе приложения требует JPA-контекст, которого нет в web-срезе
+    @MockitoBean
+    private JpaMetamodelMappingContext jpaMappingContext;
+
+    private OrderResponse order;
+
+    @BeforeEach
+    void setUp() {
+        UserResponseDTO user = new UserResponseDTO();
+        user.setId(7L);
+        user.setName("John");
+        user.setEmail("john.doe@example.com");
+
+        OrderItemResponse item = new OrderItemResponse();
+        item.setId(3L);
+        item.setItemId(5L);
+        item.setItemName("Widget");
+        item.setItemPrice(new BigDecimal("19.99"));
+        item.setQuantity(2);
+
+        order = new OrderResponse();
+        order.setId(1L);
+        order.setUserId(7L);
+        order.setStatus(OrderStatus.CREATED);
+        order.setTotalPrice(new BigDecimal("39.98"));
+        order.setCreatedAt(LocalDateTime.of(2025, 1, 2, 3, 4, 5));
+        order.setItems(List.of(item));
+        order.setUserInfo(user);
+    }
+
+    @Test
+    void getOrderById_ShouldReturnJson_WhenAcceptIsAny() throws Exception {
+        // Arrange
+        when(orderService.getOrderById(anyLong(), anyBoolean(), any())).thenReturn(order);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/orders/1").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void getOrderById_ShouldWriteSnowflakeIdsAsStrings() throws Exception {
+        // Arrange: 2^57 + 1 не представимо в double, JavaScript округлил бы число
+        order.setId(144115188075855873L);
+        order.getItems().get(0).setId(144115188075855874L);
+        when(orderService.getOrderById(anyLong(), anyBoolean(), any())).thenReturn(order);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/orders/144115188075855873").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value("144115188075855873"))
+                .andExpect(jsonPath("$.items[0].id").value("144115188075855874"))
+                .andExpect(jsonPath("$.userId").value(7));
+    }
+
+    @Test
+    void getOrdersByUserId_ShouldLinkToHistory_WhenListIsTruncated() throws Exception {
+        // Arrange
+        when(orderService.getOrdersByUserId(anyLong(), anyBoolean(), any()))
+                .thenReturn(new CursorPageResponse<>(List.of(order), "next-page"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/orders/user/7").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.LINK, "</api/orders/user/7/history?cursor=next-page>; rel=\"next\""))
+                .andExpect(jsonPath("$[0].id").value("1"));
+    }
+
+    @Test
+    void getOrdersByUserId_ShouldNotLink_WhenListIsComplete() throws Exception {
+        // Arrange
+        when(orderService.getOrdersByUserId(anyLong(), anyBoolean(), any()))
+                .thenReturn(new CursorPageResponse<>(List.of(order), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/orders/user/7").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LINK));
+    }
+
+    @Test
+    void getOrderById_ShouldReturnSmileAndCbor_WhenRequested() throws Exception {
+        // Arrange
+        when(orderService.getOrderById(anyLong(), anyBoolean(), any())).thenReturn(order);
+
+        // Act
+        byte[] smile = mockMvc.perform(get("/api/orders/1").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] cbor = mockMvc.perform(get("/api/orders/1").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        assertThat(new ObjectMapper(new SmileFactory()).readTree(smile).path("totalPrice").decimalValue())
+                .isEqualByComparingTo("39.98");
+        assertThat(new ObjectMapper(new CBORFactory()).readTree(cbor).path("items").get(0).path("itemName").asText())
+                .isEqualTo("Widget");
+    }
+
+    @Test
+    void getOrders_ShouldReturnSlimPageEnvelope_WhenJsonRequested() throws Exception {
+        // Arrange
+        when(orderService.getOrdersWithFilter(any(), any(), any(), any(), anyBoolean(), any()))
+                .thenReturn(new PageImpl<>(List.of(order), PageRequest.of(0, 10), 11));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/orders").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].items[0].itemName").value("Widget"))
+                .andExpect(jsonPath("$.content[0].createdAt").value("2025-01-02T03:04:05"))
+                .andExpect(jsonPath("$.number").value(0))
+                .andExpect(jsonPath("$.size").value(10))
+                .andExpect(jsonPath("$.totalElements").value(11))
+                .andExpect(jsonPath("$.totalPages").value(2))
+                .andExpect(jsonPath("$.pageable").doesNotExist())
+                .andExpect(jsonPath("$.sort").doesNotExist());
+    }
+
+    @Test
+    void getOrders_ShouldReturnProtobufPage_WhenRequested() throws Exception {
+        // Arrange
+        when(orderService.getOrdersWithFilter(any(), any(), any(), any(), anyBoolean(), any()))
+                .thenReturn(new PageImpl<>(List.of(order), PageRequest.of(0, 10), 1));
+
+        // Act
+        byte[] body = mockMvc.perform(get("/api/orders").accept(OrderProtobufHttpMessageConverter.PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(OrderProtobufHttpMessageConverter.PROTOBUF))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert: OrderPage { content = 1, total_elements = 2 }
+        UnknownFieldSet page = UnknownFieldSet.parseFrom(body);
+        assertThat(page.getField(2).getVarintList()).containsExactly(1L);
+        UnknownFieldSet decodedOrder = UnknownFieldSet.parseFrom(page.getField(1).getLengthDelimitedList().get(0));
+        assertThat(decodedOrder.getField(1).getVarintList()).containsExactly(1L);
+        assertThat(decodedOrder.getField(3).getVarintList()).containsExactly(1L);
+        assertThat(decodedOrder.getField(4).getLengthDelimitedList().get(0).toStringUtf8()).isEqualTo("39.98");
+        UnknownFieldSet item = UnknownFieldSet.parseFrom(decodedOrder.getField(7).getLengthDelimitedList().get(0));
+        assertThat(item.getField(3).getLengthDelimitedList().get(0).toStringUtf8()).isEqualTo("Widget");
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.orderservice.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderFieldsUnitTest {
+
+    @Test
+    void parse_ShouldIncludeEverything_WhenFieldsAreMissing() {
+        assertThat(OrderFields.parse(null)).isEqualTo(OrderFields.ALL);
+        assertThat(OrderFields.parse(" ")).isEqualTo(OrderFields.ALL);
+    }
+
+    @Test
+    void parse_ShouldSelectOnlyListedExpensiveFields() {
+        // Act
+        OrderFields scalarsOnly = OrderFields.parse("id,status,totalPrice");
+        OrderFields withUser = OrderFields.parse("id, userInfo");
+
+        // Assert
+        assertThat(scalarsOnly.items()).isFalse();
+        assertThat(scalarsOnly.userInfo()).isFalse();
+        assertThat(withUser.items()).isFalse();
+        assertThat(withUser.userInfo()).isTrue();
+    }
+
+    @Test
+    void parse_ShouldRejectUnknownField() {
+        assertThatThrownBy(() -> OrderFields.parse("id,buyerPassword"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("buyerPassword");
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.orderservice.id;
+
+import com.example.orderservice.config.SnowflakeIdProperties;
+import com.example.orderservice.entity.Order;
+import com.example.orderservice.entity.OrderStatus;
+import com.example.orderservice.repository.NodeIdLeaseRepository;
+import com.example.orderservice.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Аренда node id на настоящей PostgreSQL: INSERT ... ON CONFLICT DO NOTHING, перехват
+// просроченной аренды и потеря аренды, которую забрал другой узел
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "user.service.url=http://localhost:18093",
+        "spring.liquibase.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "resilience4j.circuitbreaker.instances.userService.register-health-indicator=false"
+})
+class NodeIdLeaseIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("leaseDb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+    }
+
+    @Autowired
+    private NodeIdLeaseRepository leaseRepository;
+
+    @Autowired
+    private NodeIdLeaseManager contextManager;
+
+    @Autowired
+    private SnowflakeIdProperties properties;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void tryInsert_ShouldNotOverwriteLease_WhenNodeIdIsTaken() {
+        // Arrange
+        int nodeId = SnowflakeIdGenerator.MAX_NODE_ID;
+        long expiresAt = System.currentTimeMillis() + 60_000;
+
+        // Act
+        int first = leaseRepository.tryInsert(nodeId, "owner-a", expiresAt);
+        int second = leaseRepository.tryInsert(nodeId, "owner-b", expiresAt + 1);
+
+        // Assert
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        assertThat(leaseRepository.findById(nodeId)).hasValueSatisfying(lease -> {
+            assertThat(lease.getOwner()).isEqualTo("owner-a");
+            assertThat(lease.getExpiresAtMs()).isEqualTo(expiresAt);
+        });
+        leaseRepository.deleteById(nodeId);
+    }
+
+    @Test
+    void start_ShouldLeaseDistinctNodeIds_AndTakeOverReleasedOne() throws InterruptedException {
+        // Arrange
+        NodeIdLeaseManager first = new NodeIdLeaseManager(leaseRepository, properties);
+        NodeIdLeaseManager second = new NodeIdLeaseManager(leaseRepository, properties);
+        NodeIdLeaseManager third = new NodeIdLeaseManager(leaseRepository, properties);
+        try {
+            // Act
+            first.start();
+            second.start();
+            int released = first.getGenerator().getNodeId();
+            first.stop();
+            // Освобождённая аренда истекает через миллисекунду после последнего выданного id
+            Thread.sleep(5);
+            third.start();
+
+            // Assert: у работающих узлов разные node id, освобождённый при остановке занят сразу
+            assertThat(second.getGenerator().getNodeId())
+                    .isNotEqualTo(released)
+                    .isNotEqualTo(contextManager.getGenerator().getNodeId());
+            assertThat(third.getGenerator().getNodeId()).isEqualTo(released);
+            assertThat(SnowflakeIdGenerator.nodeIdOf(third.getGenerator().nextId())).isEqualTo(released);
+        } finally {
+            first.stop();
+            second.stop();
+            third.stop();
+        }
+    }
+
+    @Test
+    void renew_ShouldAcquireNewNodeId_WhenLeaseWasTakenByAnotherNode() {
+        // Arrange
+        NodeIdLeaseManager manager = new NodeIdLeaseManager(leaseRepository, properties);
+        try {
+            manager.start();
+            int lost = manager.getGenerator().getNodeId();
+            jdbcTemplate.update("UPDATE id_node_leases SET owner = 'other-node' WHERE node_id = ?", lost);
+
+            // Act
+            manager.renew();
+
+            // Assert: прежний node id больше не используется, аренда другого узла не тронута
+            assertThat(manager.getGenerator().getNodeId()).isNotEqualTo(lost).isNotNegative();
+            assertThat(jdbcTemplate.queryForObject("SELECT owner FROM id_node_leases WHERE node_id = ?",
+                    String.class, lost)).isEqualTo("other-node");
+        } finally {
+            manager.stop();
+        }
+    }
+
+    @Test
+    void save_ShouldAssignSnowflakeIdWithLeasedNodeId() {
+        // Arrange
+        Order order = new Order();
+        order.setUserId(1L);
+        order.setStatus(OrderStatus.CREATED);
+        order.setTotalPrice(BigDecimal.TEN);
+
+        // Act
+        Order saved = orderRepository.save(order);
+
+        // Assert
+        assertThat(SnowflakeIdGenerator.nodeIdOf(saved.getId())).isEqualTo(contextManager.getGenerator().getNodeId());
+        assertThat(Duration.ofMillis(System.currentTimeMillis()
+                - contextManager.getGenerator().timestampMillisOf(saved.getId()))).isLessThan(Duration.ofMinutes(1));
+    }
+}
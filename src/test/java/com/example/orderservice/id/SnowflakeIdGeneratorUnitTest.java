@@ -0,0 +1,122 @@
+package com.example.orderservice.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeIdGeneratorUnitTest {
+    private static final long EPOCH = 1_735_689_600_000L;
+    private static final long NOW = EPOCH + 86_400_000L;
+
+    private final AtomicLong clock = new AtomicLong(NOW);
+
+    @Test
+    void nextId_ShouldEncodeTimestampNodeAndSequence() {
+        SnowflakeIdGenerator generator = generator(50);
+        generator.assign(7, NOW - 1, NOW + 60_000);
+
+        long first = generator.nextId();
+        long second = generator.nextId();
+
+        assertThat(generator.timestampMillisOf(first)).isEqualTo(NOW);
+        assertThat(SnowflakeIdGenerator.nodeIdOf(first)).isEqualTo(7);
+        assertThat(SnowflakeIdGenerator.sequenceOf(first)).isZero();
+        assertThat(SnowflakeIdGenerator.sequenceOf(second)).isEqualTo(1);
+        assertThat(second).isGreaterThan(first);
+    }
+
+    @Test
+    void nextId_ShouldMoveToNextMillisecond_WhenSequenceIsExhausted() {
+        // Часы сдвигаются только после 4096 опросов - ровно ёмкость счётчика
+        AtomicLong calls = new AtomicLong();
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(EPOCH, 50,
+                () -> calls.incrementAndGet() > 4096 ? NOW + 1 : NOW);
+        generator.assign(1, NOW - 1, NOW + 60_000);
+        Set<Long> ids = new HashSet<>();
+
+        long last = 0;
+        for (int i = 0; i < 4097; i++) {
+            last = generator.nextId();
+            ids.add(last);
+        }
+
+        assertThat(ids).hasSize(4097);
+        assertThat(generator.timestampMillisOf(last)).isEqualTo(NOW + 1);
+        assertThat(SnowflakeIdGenerator.sequenceOf(last)).isZero();
+    }
+
+    @Test
+    void nextId_ShouldWaitOut_SmallClockRegression() {
+        Deque<Long> readings = new ArrayDeque<>(List.of(NOW, NOW - 10, NOW - 5, NOW, NOW + 1));
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(EPOCH, 50,
+                () -> readings.size() > 1 ? readings.poll() : readings.peek());
+        generator.assign(1, NOW - 1, NOW + 60_000);
+
+        long before = generator.nextId();
+        long after = generator.nextId();
+
+        assertThat(after).isGreaterThan(before);
+        assertThat(generator.timestampMillisOf(after)).isGreaterThanOrEqualTo(NOW);
+    }
+
+    @Test
+    void nextId_ShouldRefuse_LargeClockRegression() {
+        SnowflakeIdGenerator generator = generator(50);
+        generator.assign(1, NOW - 1, NOW + 60_000);
+        generator.nextId();
+
+        clock.set(NOW - 1_000);
+
+        assertThatThrownBy(generator::nextId)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Clock moved backwards");
+    }
+
+    @Test
+    void nextId_ShouldNotReuse_PreviousOwnersTimeRange() {
+        SnowflakeIdGenerator generator = generator(5_000);
+        // Прежний владелец node id мог выдавать id до NOW + 100
+        generator.assign(3, NOW + 100, NOW + 60_000);
+        clock.set(NOW + 101);
+
+        assertThat(generator.timestampMillisOf(generator.nextId())).isGreaterThan(NOW + 100);
+    }
+
+    @Test
+    void nextId_ShouldFail_WithoutAssignedNodeOrAfterLeaseExpiry() {
+        SnowflakeIdGenerator generator = generator(50);
+        assertThatThrownBy(generator::nextId).isInstanceOf(IllegalStateException.class);
+
+        generator.assign(1, NOW - 1, NOW + 1_000);
+        clock.set(NOW + 1_000);
+        assertThatThrownBy(generator::nextId)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("expired");
+
+        generator.extend(NOW + 2_000);
+        assertThat(generator.nextId()).isPositive();
+
+        generator.revoke();
+        assertThatThrownBy(generator::nextId).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void assign_ShouldReject_NodeIdOutOfRange() {
+        SnowflakeIdGenerator generator = generator(50);
+
+        assertThatThrownBy(() -> generator.assign(SnowflakeIdGenerator.MAX_NODE_ID + 1, NOW, NOW + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private SnowflakeIdGenerator generator(long maxBackwardMillis) {
+        return new SnowflakeIdGenerator(EPOCH, maxBackwardMillis, clock::get);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.orderservice.importing;
+
+import com.example.orderservice.cache.CacheInvalidationPublisher;
+import com.example.orderservice.config.ItemImportProperties;
+import com.example.orderservice.dto.ItemImportResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemImportServiceUnitTest {
+    private static final String DRIVER_MESSAGE =
+            "ERROR: duplicate key value violates unique constraint \"items_external_key_key\"";
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PGConnection pgConnection;
+
+    @Mock
+    private CopyManager copyManager;
+
+    @Mock
+    private CopyIn copyIn;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private PreparedStatement upsert;
+
+    @Mock
+    private ResultSet resultSet;
+
+    @Mock
+    private CacheInvalidationPublisher cacheInvalidationPublisher;
+
+    private ItemImportService service;
+
+    @BeforeEach
+    void setUp() {
+        ItemImportProperties properties = new ItemImportProperties();
+        properties.setChunkSize(2);
+        service = new ItemImportService(dataSource, new ObjectMapper(), properties, cacheInvalidationPublisher);
+    }
+
+    @Test
+    void importItems_ShouldReportCommittedLineWithoutDriverMessage_WhenChunkFails() throws Exception {
+        // Arrange: первая пачка (строки 2-3) фиксируется, вторая (строка 4) падает на upsert
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(true);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.prepareStatement(anyString())).thenReturn(upsert);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        when(copyManager.copyIn(anyString())).thenReturn(copyIn);
+        when(upsert.executeQuery()).thenReturn(resultSet).thenThrow(new SQLException(DRIVER_MESSAGE));
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(2L);
+        String csv = "external_key,name,price\nsku-1,Widget,1.00\nsku-2,Gadget,2.00\nsku-3,Kettle,3.00\n";
+
+        // Act
+        ItemImportResult result = service.importItems(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), ItemImportFormat.CSV);
+
+        // Assert
+        assertThat(result.isCompleted()).isFalse();
+        assertThat(result.getAbortCause()).isEqualTo(ItemImportResult.AbortCause.DATABASE);
+        assertThat(result.getInserted()).isEqualTo(2);
+        assertThat(result.getCommittedThroughLine()).isEqualTo(3);
+        assertThat(result.getAbortReason())
+                .isEqualTo("Database error, rows after line 3 were not imported")
+                .doesNotContain("items_external_key_key");
+    }
+
+    @Test
+    void importItems_ShouldAbortWithoutDriverMessage_WhenConnectionIsUnavailable() throws Exception {
+        // Arrange
+        when(dataSource.getConnection()).thenThrow(new SQLException("FATAL: password authentication failed"));
+
+        // Act
+        ItemImportResult result = service.importItems(
+                new ByteArrayInputStream(new byte[0]), ItemImportFormat.NDJSON);
+
+        // Assert
+        assertThat(result.isCompleted()).isFalse();
+        assertThat(result.getAbortCause()).isEqualTo(ItemImportResult.AbortCause.DATABASE);
+        assertThat(result.getAbortReason()).doesNotContain("password");
+    }
+}
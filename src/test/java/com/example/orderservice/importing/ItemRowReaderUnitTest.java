@@ -0,0 +1,113 @@
+package com.example.orderservice.importing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemRowReaderUnitTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void csv_ShouldReadRowsByHeader_WhenColumnsAreReorderedAndQuoted() throws IOException {
+        // Arrange
+        String csv = "price,External_Key,name\n"
+                + "10.50,sku-1,\"Widget, large\"\n"
+                + "7,sku-2,\"Say \"\"hi\"\"\"\n";
+
+        // Act
+        List<ItemImportRow> rows = readAll(ItemImportFormat.CSV, csv);
+
+        // Assert
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0).line()).isEqualTo(2);
+        assertThat(rows.get(0).externalKey()).isEqualTo("sku-1");
+        assertThat(rows.get(0).name()).isEqualTo("Widget, large");
+        assertThat(rows.get(0).price()).isEqualTo("10.50");
+        assertThat(rows.get(1).name()).isEqualTo("Say \"hi\"");
+    }
+
+    @Test
+    void csv_ShouldReportBrokenRows_AndKeepPhysicalLineNumbers() throws IOException {
+        // Arrange: пустые строки, многострочное значение, лишнее значение и битые кавычки
+        String csv = "external_key,name,price\n"
+                + "\n"
+                + "sku-1,A,1\n"
+                + "\n"
+                + "sku-2,\"multi\nline\",2\n"
+                + "sku-3,B,3,extra\n"
+                + "sku-4,\"bad\"x,4\n"
+                + "sku-5,C,5\n";
+
+        // Act
+        List<ItemImportRow> rows = readAll(ItemImportFormat.CSV, csv);
+
+        // Assert
+        assertThat(rows).extracting(ItemImportRow::line).containsExactly(3L, 5L, 7L, 8L, 9L);
+        assertThat(rows.get(1).name()).isEqualTo("multi\nline");
+        assertThat(rows.get(2).error()).startsWith("Too many values");
+        assertThat(rows.get(3).error()).startsWith("Malformed CSV");
+        assertThat(rows.get(4).isMalformed()).isFalse();
+        assertThat(rows.get(4).externalKey()).isEqualTo("sku-5");
+    }
+
+    @Test
+    void csv_ShouldResumeAfterUnterminatedQuote_WhenRecordExceedsLineLimit() throws IOException {
+        // Arrange
+        StringBuilder csv = new StringBuilder("external_key,name,price\nsku-1,\"never closed,1\n");
+        for (int i = 2; i <= 150; i++) {
+            csv.append("sku-").append(i).append(",Item,1\n");
+        }
+
+        // Act
+        List<ItemImportRow> rows = readAll(ItemImportFormat.CSV, csv.toString());
+
+        // Assert: битой считается только первая запись, остальные читаются со своими номерами строк
+        assertThat(rows).hasSize(150);
+        assertThat(rows.get(0).error()).isEqualTo("Unterminated quoted value");
+        assertThat(rows.get(1).line()).isEqualTo(3);
+        assertThat(rows.get(1).externalKey()).isEqualTo("sku-2");
+        assertThat(rows.get(149).externalKey()).isEqualTo("sku-150");
+    }
+
+    @Test
+    void ndjson_ShouldReportMalformedLine_AndContinueWithNextOne() throws IOException {
+        // Arrange
+        String ndjson = """
+                {"externalKey": "sku-1", "name": "Widget", "price": 19.99}
+                {"externalKey": "sku-2", "name": broken}
+
+                {"external_key": "sku-3", "name": "Gadget", "price": "5"}
+                """;
+
+        // Act
+        List<ItemImportRow> rows = readAll(ItemImportFormat.NDJSON, ndjson);
+
+        // Assert
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(0).price()).isEqualTo("19.99");
+        assertThat(rows.get(1).isMalformed()).isTrue();
+        assertThat(rows.get(1).line()).isEqualTo(2);
+        assertThat(rows.get(2).line()).isEqualTo(4);
+        assertThat(rows.get(2).externalKey()).isEqualTo("sku-3");
+    }
+
+    private List<ItemImportRow> readAll(ItemImportFormat format, String content) throws IOException {
+        List<ItemImportRow> rows = new ArrayList<>();
+        try (ItemRowReader reader = ItemRowReader.open(format,
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), objectMapper)) {
+            ItemImportRow row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
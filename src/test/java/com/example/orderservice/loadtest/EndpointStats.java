@@ -0,0 +1,54 @@
+package com.example.orderservice.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+class EndpointStats {
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final ConcurrentHistogram latencyMicros = new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final Map<String, LongAdder> statusCodes = new ConcurrentHashMap<>();
+
+    void record(long latencyNanos, String status, boolean success) {
+        latencyMicros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_TRACKABLE_MICROS));
+        statusCodes.computeIfAbsent(status, key -> new LongAdder()).increment();
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    Map<String, Object> toReport(double seconds) {
+        long requests = latencyMicros.getTotalCount();
+        Map<String, Object> latency = new TreeMap<>();
+        latency.put("p50", millis(latencyMicros.getValueAtPercentile(50)));
+        latency.put("p95", millis(latencyMicros.getValueAtPercentile(95)));
+        latency.put("p99", millis(latencyMicros.getValueAtPercentile(99)));
+        latency.put("max", millis(latencyMicros.getMaxValue()));
+        latency.put("mean", millis(latencyMicros.getMean()));
+
+        Map<String, Long> codes = new TreeMap<>();
+        statusCodes.forEach((code, count) -> codes.put(code, count.sum()));
+
+        Map<String, Object> report = new TreeMap<>();
+        report.put("requests", requests);
+        report.put("errors", errors.sum());
+        report.put("throughputPerSecond", seconds > 0 ? requests / seconds : 0);
+        report.put("latencyMs", latency);
+        report.put("statusCodes", codes);
+        return report;
+    }
+
+    long requests() {
+        return latencyMicros.getTotalCount();
+    }
+
+    private static double millis(double micros) {
+        return Math.round(micros) / 1000.0;
+    }
+}
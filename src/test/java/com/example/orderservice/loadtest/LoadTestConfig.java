@@ -0,0 +1,89 @@
+package com.example.orderservice.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+record LoadTestConfig(
+        Duration warmup,
+        Duration duration,
+        int concurrency,
+        int seedItems,
+        int seedOrders,
+        int users,
+        Map<Operation, Integer> mix,
+        long userServiceLatencyMs,
+        double userServiceLatencySigma,
+        double userServiceErrorRate,
+        Map<String, String> appProperties,
+        Path output) {
+    private static final String APP_PROPERTY_PREFIX = "loadtest.app.";
+
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Duration.parse(System.getProperty("loadtest.warmup", "PT10S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+                Integer.getInteger("loadtest.concurrency", 32),
+                Integer.getInteger("loadtest.seedItems", 1_000),
+                Integer.getInteger("loadtest.seedOrders", 500),
+                Integer.getInteger("loadtest.users", 1_000),
+                parseMix(System.getProperty("loadtest.mix", "create=20,get=40,list=20,search=20")),
+                Long.getLong("loadtest.userService.latencyMs", 20),
+                Double.parseDouble(System.getProperty("loadtest.userService.latencySigma", "0.3")),
+                Double.parseDouble(System.getProperty("loadtest.userService.errorRate", "0.0")),
+                appPropertiesFromSystemProperties(),
+                Path.of(System.getProperty("loadtest.output", "build/reports/load-test/results.json")));
+    }
+
+    // loadtest.app.orders.group-commit.enabled=true -> orders.group-commit.enabled=true в приложении
+    private static Map<String, String> appPropertiesFromSystemProperties() {
+        Map<String, String> properties = new LinkedHashMap<>();
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith(APP_PROPERTY_PREFIX))
+                .sorted()
+                .forEach(name -> properties.put(name.substring(APP_PROPERTY_PREFIX.length()), System.getProperty(name)));
+        return properties;
+    }
+
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] weight = part.trim().split("=");
+            if (weight.length != 2) {
+                throw new IllegalArgumentException("Invalid loadtest.mix entry: " + part);
+            }
+            mix.put(Operation.fromName(weight[0].trim()), Integer.parseInt(weight[1].trim()));
+        }
+        return mix;
+    }
+
+    enum Operation {
+        CREATE("create", "POST /api/orders"),
+        GET("get", "GET /api/orders/{id}"),
+        LIST("list", "GET /api/orders"),
+        SEARCH("search", "GET /api/items/search");
+
+        private final String shortName;
+        private final String endpoint;
+
+        Operation(String shortName, String endpoint) {
+            this.shortName = shortName;
+            this.endpoint = endpoint;
+        }
+
+        String endpoint() {
+            return endpoint;
+        }
+
+        static Operation fromName(String name) {
+            for (Operation operation : values()) {
+                if (operation.shortName.equalsIgnoreCase(name)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown load test operation: " + name);
+        }
+    }
+}
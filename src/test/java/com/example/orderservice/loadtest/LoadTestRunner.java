@@ -0,0 +1,325 @@
+package com.example.orderservice.loadtest;
+
+import com.example.orderservice.OrderServiceApplication;
+import com.example.orderservice.loadtest.LoadTestConfig.Operation;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+// Нагрузочный прогон: Postgres в Testcontainers, заглушка user-service на WireMock,
+// смешанная нагрузка create/read/search и отчёт в JSON. Запуск: ./gradlew loadTest
+public final class LoadTestRunner {
+    private static final String[] SEARCH_TERMS = {"alpha", "bravo", "charlie", "delta", "echo", "foxtrot"};
+    private static final int KNOWN_ORDERS_CAPACITY = 16_384;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestConfig config;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final AtomicLongArray knownOrderIds = new AtomicLongArray(KNOWN_ORDERS_CAPACITY);
+    private final AtomicLong knownOrderCount = new AtomicLong();
+    private final List<Long> itemIds = new ArrayList<>();
+    private String baseUrl;
+    private Double commitsPerSecond;
+    // Фактическая длина окна измерения: запросы, начатые до его конца, ещё дорабатывают
+    private double measuredSeconds;
+
+    private LoadTestRunner(LoadTestConfig config) {
+        this.config = config;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadTestRunner(LoadTestConfig.fromSystemProperties()).run();
+    }
+
+    private void run() throws Exception {
+        try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+                .withDatabaseName("orderService")
+                .withUsername("load")
+                .withPassword("load")) {
+            postgres.start();
+
+            WireMockServer userService = startUserServiceStub();
+            try (ConfigurableApplicationContext context = startApplication(postgres, userService)) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                baseUrl = "http://localhost:" + port;
+
+                seed();
+                Instant measureFrom = Instant.now().plus(config.warmup());
+                Instant end = measureFrom.plus(config.duration());
+                CompletableFuture<Long> commitsAtStart = CompletableFuture.supplyAsync(
+                        () -> commitsAt(postgres, measureFrom));
+                drive(measureFrom, end);
+                measuredSeconds = Duration.between(measureFrom, Instant.now()).toNanos() / 1e9;
+                commitsPerSecond = (committedTransactions(postgres) - commitsAtStart.join()) / measuredSeconds;
+                writeReport();
+            } finally {
+                userService.stop();
+            }
+        }
+    }
+
+    private WireMockServer startUserServiceStub() {
+        WireMockServer server = new WireMockServer(wireMockConfig()
+                .dynamicPort()
+                .containerThreads(Math.max(64, config.concurrency() * 2))
+                .extensions(new StubUserServiceTransformer(config.userServiceErrorRate())));
+        server.start();
+
+        var response = WireMock.aResponse().withTransformers(StubUserServiceTransformer.NAME);
+        if (config.userServiceLatencySigma() > 0) {
+            response.withLogNormalRandomDelay(config.userServiceLatencyMs(), config.userServiceLatencySigma());
+        } else {
+            response.withFixedDelay((int) config.userServiceLatencyMs());
+        }
+        server.stubFor(WireMock.get(WireMock.urlPathMatching("/api/users/[0-9]+")).willReturn(response));
+        return server;
+    }
+
+    private ConfigurableApplicationContext startApplication(PostgreSQLContainer<?> postgres, WireMockServer userService) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.datasource.url", postgres.getJdbcUrl());
+        properties.put("spring.datasource.username", postgres.getUsername());
+        properties.put("spring.datasource.password", postgres.getPassword());
+        properties.put("spring.jpa.show-sql", false);
+        properties.put("user.service.url", userService.baseUrl());
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.org.hibernate.SQL", "WARN");
+        properties.put("logging.level.com.example.orderservice", "WARN");
+        properties.put("logging.level.org.springframework.cloud.openfeign", "WARN");
+        properties.putAll(config.appProperties());
+        return new SpringApplicationBuilder(OrderServiceApplication.class)
+                .properties(properties)
+                .run();
+    }
+
+    private void seed() throws IOException, InterruptedException {
+        for (int i = 0; i < config.seedItems(); i++) {
+            String term = SEARCH_TERMS[i % SEARCH_TERMS.length];
+            String body = """
+                    {"name": "%s item %d", "price": %d.%02d}
+                    """.formatted(term, i, 1 + i % 500, i % 100);
+            HttpResponse<String> response = send(post("/api/items", body));
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Failed to seed item: " + response.statusCode() + " " + response.body());
+            }
+            itemIds.add(objectMapper.readTree(response.body()).get("id").asLong());
+        }
+        for (int i = 0; i < config.seedOrders(); i++) {
+            HttpResponse<String> response = send(post("/api/orders", orderBody()));
+            if (response.statusCode() == 200) {
+                rememberOrder(response.body());
+            }
+        }
+        System.out.printf("Seeded %d items and %d orders%n", itemIds.size(), knownOrderCount.get());
+    }
+
+    private void drive(Instant measureFrom, Instant end) throws InterruptedException {
+        List<Operation> wheel = new ArrayList<>();
+        config.mix().forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                wheel.add(operation);
+            }
+        });
+        if (wheel.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix must contain at least one operation with positive weight");
+        }
+
+        System.out.printf("Running %d workers: warm-up %s, measurement %s%n",
+                config.concurrency(), config.warmup(), config.duration());
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.concurrency(); i++) {
+                workers.submit(() -> workerLoop(wheel, measureFrom, end));
+            }
+            workers.shutdown();
+            if (!workers.awaitTermination(config.warmup().plus(config.duration()).toSeconds() + 60, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        }
+    }
+
+    private void workerLoop(List<Operation> wheel, Instant measureFrom, Instant end) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (Instant.now().isBefore(end)) {
+            Operation operation = wheel.get(random.nextInt(wheel.size()));
+            HttpRequest request = buildRequest(operation, random);
+            if (request == null) {
+                continue;
+            }
+            boolean measured = !Instant.now().isBefore(measureFrom);
+            long start = System.nanoTime();
+            try {
+                HttpResponse<String> response = send(request);
+                long latency = System.nanoTime() - start;
+                boolean success = response.statusCode() >= 200 && response.statusCode() < 300;
+                if (success && operation == Operation.CREATE) {
+                    rememberOrder(response.body());
+                }
+                if (measured) {
+                    stats.get(operation).record(latency, String.valueOf(response.statusCode()), success);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                if (measured) {
+                    stats.get(operation).record(System.nanoTime() - start, e.getClass().getSimpleName(), false);
+                }
+            }
+        }
+    }
+
+    private HttpRequest buildRequest(Operation operation, ThreadLocalRandom random) {
+        return switch (operation) {
+            case CREATE -> post("/api/orders", orderBody());
+            case GET -> {
+                long known = Math.min(knownOrderCount.get(), KNOWN_ORDERS_CAPACITY);
+                yield known == 0 ? null : get("/api/orders/" + knownOrderIds.get(random.nextInt((int) known)));
+            }
+            case LIST -> get("/api/orders?page=" + random.nextInt(5) + "&size=20");
+            case SEARCH -> get("/api/items/search?name=" + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)]);
+        };
+    }
+
+    private String orderBody() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder items = new StringBuilder();
+        int lines = 1 + random.nextInt(3);
+        for (int i = 0; i < lines; i++) {
+            if (i > 0) {
+                items.append(',');
+            }
+            items.append("{\"itemId\": ").append(itemIds.get(random.nextInt(itemIds.size())))
+                    .append(", \"quantity\": ").append(1 + random.nextInt(5)).append('}');
+        }
+        return "{\"userId\": " + (1 + random.nextInt(config.users())) + ", \"items\": [" + items + "]}";
+    }
+
+    private void rememberOrder(String body) throws IOException {
+        JsonNode id = objectMapper.readTree(body).get("id");
+        if (id != null) {
+            long slot = knownOrderCount.getAndIncrement() % KNOWN_ORDERS_CAPACITY;
+            knownOrderIds.set((int) slot, id.asLong());
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+    }
+
+    private static long commitsAt(PostgreSQLContainer<?> postgres, Instant moment) {
+        try {
+            Thread.sleep(Math.max(0, Duration.between(Instant.now(), moment).toMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return committedTransactions(postgres);
+    }
+
+    // Backend'ы сбрасывают статистику примерно раз в секунду: на минутном окне это погрешность
+    private static long committedTransactions(PostgreSQLContainer<?> postgres) {
+        try (Connection connection = DriverManager.getConnection(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT xact_commit FROM pg_stat_database WHERE datname = current_database()")) {
+            rs.next();
+            return rs.getLong(1);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to read pg_stat_database", e);
+        }
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void writeReport() throws IOException {
+        double seconds = measuredSeconds;
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        long total = 0;
+        for (Map.Entry<Operation, EndpointStats> entry : stats.entrySet()) {
+            if (entry.getValue().requests() > 0) {
+                endpoints.put(entry.getKey().endpoint(), entry.getValue().toReport(seconds));
+                total += entry.getValue().requests();
+            }
+        }
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("warmup", config.warmup().toString());
+        settings.put("duration", config.duration().toString());
+        settings.put("concurrency", config.concurrency());
+        settings.put("mix", config.mix());
+        settings.put("userServiceLatencyMs", config.userServiceLatencyMs());
+        settings.put("userServiceLatencySigma", config.userServiceLatencySigma());
+        settings.put("userServiceErrorRate", config.userServiceErrorRate());
+        settings.put("appProperties", config.appProperties());
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("config", settings);
+        report.put("measuredSeconds", seconds);
+        report.put("totalRequests", total);
+        report.put("throughputPerSecond", total / seconds);
+        // Зафиксированные транзакции в БД за окно измерения: сравнение групповой фиксации с обычной
+        report.put("databaseCommitsPerSecond", commitsPerSecond);
+        report.put("endpoints", endpoints);
+
+        Files.createDirectories(config.output().toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(config.output().toFile(), report);
+        System.out.printf("Load test finished: %d requests, %.1f req/s. Report: %s%n",
+                total, total / seconds, config.output().toAbsolutePath());
+    }
+}
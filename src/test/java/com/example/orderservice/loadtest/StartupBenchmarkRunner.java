@@ -0,0 +1,322 @@
+package com.example.orderservice.loadtest;
+
+import com.example.orderservice.migration.DatabaseMigrationApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Замер времени старта и памяти приложения в отдельном процессе для каждого варианта запуска:
+// fat jar с Liquibase и без, распакованный jar, AppCDS-архив, Spring AOT (jar собран с -Paot),
+// native-образ (собран с -Pnative). Каждый запуск проверяется запросами к API, RSS снимается после них.
+// Миграции применяются один раз заранее, как это делает разовая команда перед выкаткой узлов.
+// Запуск: ./gradlew startupBenchmark [-Paot | -Pnative] -Pstartup.runs=5 [-Pstartup.variants=jar,native]
+public final class StartupBenchmarkRunner {
+    // Строка Spring Boot о завершении старта; в JSON-логе она внутри поля message
+    private static final Pattern STARTED = Pattern.compile(
+            "Started \\w+ in ([0-9.]+) seconds \\(process running for ([0-9.]+)\\)");
+    private static final Pattern VM_RSS = Pattern.compile("VmRSS:\\s+(\\d+) kB");
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+
+    // Обучающий запуск для CDS: контекст поднимается до фазы lifecycle и JVM завершается.
+    // База не нужна - те же флаги использует Dockerfile, где базы при сборке нет
+    static final List<String> TRAINING_ARGS = List.of(
+            "--spring.liquibase.enabled=false",
+            "--spring.jpa.hibernate.ddl-auto=none",
+            "--spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+            "--spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false",
+            "--spring.datasource.url=jdbc:postgresql://localhost:1/training",
+            "--spring.datasource.username=training",
+            "--spring.datasource.password=training");
+
+    private final Path jar;
+    private final boolean aot;
+    private final Path nativeExecutable;
+    private final Set<String> selectedVariants;
+    private final boolean smoke;
+    private final int runs;
+    private final Path output;
+    private final String java = ProcessHandle.current().info().command().orElse("java");
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private StartupBenchmarkRunner() {
+        this.jar = Path.of(System.getProperty("startup.jar", "build/libs/order-service.jar"));
+        this.aot = Boolean.parseBoolean(System.getProperty("startup.aot", "false"));
+        String nativePath = System.getProperty("startup.native", "");
+        this.nativeExecutable = nativePath.isBlank() ? null : Path.of(nativePath);
+        String variants = System.getProperty("startup.variants", "");
+        this.selectedVariants = variants.isBlank() ? Set.of() : Set.of(variants.trim().split("\\s*,\\s*"));
+        this.smoke = Boolean.parseBoolean(System.getProperty("startup.smoke", "true"));
+        this.runs = Integer.getInteger("startup.runs", 5);
+        this.output = Path.of(System.getProperty("startup.output", "build/reports/startup/results.json"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new StartupBenchmarkRunner().run();
+    }
+
+    private void run() throws Exception {
+        Path workDir = Files.createTempDirectory("startup-benchmark");
+        Path extracted = workDir.resolve("app");
+        exec(List.of(java, "-Djarmode=tools", "-jar", jar.toString(), "extract", "--destination", extracted.toString()));
+        Path extractedJar = extracted.resolve(jar.getFileName());
+
+        try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine")
+                .withDatabaseName("orderService")
+                .withUsername("startup")
+                .withPassword("startup")) {
+            postgres.start();
+            List<String> database = List.of(
+                    "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                    "--spring.datasource.username=" + postgres.getUsername(),
+                    "--spring.datasource.password=" + postgres.getPassword());
+
+            long migrationStart = System.nanoTime();
+            exec(concat(List.of(java, "-cp", extractedJar.toString(), DatabaseMigrationApplication.class.getName()),
+                    database));
+            double migrationSeconds = (System.nanoTime() - migrationStart) / 1e9;
+
+            // Сервис пользователей недоступен: заказы получают запасного покупателя через fallback
+            List<String> app = concat(database, List.of("--user.service.url=http://localhost:9",
+                    "--cache.invalidation.enabled=false"));
+            List<String> noLiquibase = concat(app, List.of("--spring.liquibase.enabled=false"));
+
+            Map<String, List<String>> variants = new LinkedHashMap<>();
+            variants.put("jar+liquibase", concat(List.of(java, "-jar", jar.toString()), app));
+            variants.put("jar", concat(List.of(java, "-jar", jar.toString()), noLiquibase));
+            variants.put("extracted", concat(List.of(java, "-jar", extractedJar.toString()), noLiquibase));
+            if (selected("extracted+cds")) {
+                variants.put("extracted+cds", concat(List.of(java,
+                        "-XX:SharedArchiveFile=" + train(extractedJar, workDir.resolve("app.jsa"), false),
+                        "-jar", extractedJar.toString()), noLiquibase));
+            }
+            if (aot) {
+                variants.put("extracted+aot", concat(List.of(java, "-Dspring.aot.enabled=true",
+                        "-jar", extractedJar.toString()), noLiquibase));
+                if (selected("extracted+aot+cds")) {
+                    variants.put("extracted+aot+cds", concat(List.of(java, "-Dspring.aot.enabled=true",
+                            "-XX:SharedArchiveFile=" + train(extractedJar, workDir.resolve("app-aot.jsa"), true),
+                            "-jar", extractedJar.toString()), noLiquibase));
+                }
+            }
+            // Liquibase исключён из native-образа при сборке, флаг ему не передаётся
+            if (nativeExecutable != null) {
+                variants.put("native", concat(List.of(nativeExecutable.toString()), app));
+            }
+            variants.keySet().removeIf(name -> !selected(name));
+            if (variants.isEmpty()) {
+                throw new IllegalArgumentException("No startup variants selected: " + selectedVariants);
+            }
+
+            Map<String, Object> results = new LinkedHashMap<>();
+            for (Map.Entry<String, List<String>> variant : variants.entrySet()) {
+                results.put(variant.getKey(), measure(variant.getKey(), variant.getValue()));
+            }
+            writeReport(migrationSeconds, results);
+        }
+    }
+
+    private Path train(Path extractedJar, Path archive, boolean withAot) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of(java, "-XX:ArchiveClassesAtExit=" + archive,
+                "-Dspring.context.exit=onRefresh"));
+        if (withAot) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.addAll(List.of("-jar", extractedJar.toString()));
+        command.addAll(TRAINING_ARGS);
+        exec(command);
+        return archive;
+    }
+
+    private boolean selected(String variant) {
+        return selectedVariants.isEmpty() || selectedVariants.contains(variant);
+    }
+
+    private Map<String, Object> measure(String name, List<String> command) throws IOException, InterruptedException {
+        List<Double> readySeconds = new ArrayList<>();
+        List<Double> wallSeconds = new ArrayList<>();
+        List<Long> rssMb = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            int port = freePort();
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(concat(command, List.of("--server.port=" + port)))
+                    .redirectErrorStream(true)
+                    .start();
+            try {
+                Matcher started = awaitStarted(process);
+                wallSeconds.add((System.nanoTime() - start) / 1e9);
+                readySeconds.add(Double.parseDouble(started.group(2)));
+                if (smoke) {
+                    smoke(name, "http://localhost:" + port);
+                }
+                Long rss = residentSetMb(process.pid());
+                if (rss != null) {
+                    rssMb.add(rss);
+                }
+            } finally {
+                process.destroy();
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("command", String.join(" ", command));
+        result.put("processRunningSecondsMedian", median(readySeconds));
+        result.put("wallSecondsMedian", median(wallSeconds));
+        result.put("processRunningSeconds", readySeconds);
+        Double rssMedian = rssMb.isEmpty() ? null : median(rssMb.stream().map(Long::doubleValue).toList());
+        result.put(smoke ? "rssMbAfterSmokeMedian" : "rssMbAfterStartMedian", rssMedian);
+        System.out.printf("%-20s ready in %.2fs (median of %d), wall %.2fs, RSS %s MB%n",
+                name, median(readySeconds), runs, median(wallSeconds), rssMedian == null ? "n/a" : Math.round(rssMedian));
+        return result;
+    }
+
+    // Путь через JSON, Hibernate с ленивыми строками заказа, генератор id, остатки и Feign с fallback:
+    // в native-образе недостающие подсказки рефлексии и прокси проявляются именно на этих запросах
+    private void smoke(String variant, String baseUrl) throws IOException, InterruptedException {
+        JsonNode item = request(variant, "POST", baseUrl + "/api/items",
+                "{\"name\": \"Startup smoke item\", \"price\": 12.50}");
+        long itemId = item.path("id").asLong();
+        request(variant, "PUT", baseUrl + "/api/items/" + itemId + "/stock", "{\"quantity\": 1000}");
+        request(variant, "GET", baseUrl + "/api/items/" + itemId, null);
+
+        JsonNode order = request(variant, "POST", baseUrl + "/api/orders",
+                "{\"userId\": 1, \"items\": [{\"itemId\": " + itemId + ", \"quantity\": 2}]}");
+        JsonNode loaded = request(variant, "GET", baseUrl + "/api/orders/" + order.path("id").asText(), null);
+        if (loaded.path("items").size() != 1) {
+            throw new IllegalStateException(variant + ": order lines were not returned: " + loaded);
+        }
+        request(variant, "GET", baseUrl + "/api/orders/user/1/history?size=5", null);
+        request(variant, "GET", baseUrl + "/actuator/health", null);
+    }
+
+    private JsonNode request(String variant, String method, String url, String body) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json");
+        if (body == null) {
+            builder.method(method, HttpRequest.BodyPublishers.noBody());
+        } else {
+            builder.header("Content-Type", "application/json").method(method, HttpRequest.BodyPublishers.ofString(body));
+        }
+        HttpResponse<String> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(variant + ": " + method + " " + url + " returned "
+                    + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    // Порт выбирается заранее, а не server.port=0: адрес нужен для запросов до разбора логов
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    // Вывод процесса читается до строки о старте, остальное сливается в фоне, чтобы процесс не встал на полном буфере
+    private Matcher awaitStarted(Process process) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        CompletableFuture<Matcher> started = CompletableFuture.supplyAsync(() -> {
+            StringBuilder tail = new StringBuilder();
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    Matcher matcher = STARTED.matcher(line);
+                    if (matcher.find()) {
+                        CompletableFuture.runAsync(() -> reader.lines().forEach(ignored -> { }));
+                        return matcher;
+                    }
+                    tail.append(line).append('\n');
+                    if (tail.length() > 20_000) {
+                        tail.delete(0, tail.length() - 20_000);
+                    }
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            throw new IllegalStateException("Application exited before startup completed:\n" + tail);
+        });
+        try {
+            return started.get(START_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("Application did not start within " + START_TIMEOUT, e);
+        }
+    }
+
+    private static Long residentSetMb(long pid) {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (!Files.isReadable(status)) {
+            return null;
+        }
+        try {
+            Matcher matcher = VM_RSS.matcher(Files.readString(status));
+            return matcher.find() ? Long.parseLong(matcher.group(1)) / 1024 : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void exec(List<String> command) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command).inheritIO().start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("Command failed (" + process.exitValue() + "): " + String.join(" ", command));
+        }
+    }
+
+    private static List<String> concat(List<String> first, List<String> second) {
+        List<String> result = new ArrayList<>(first);
+        result.addAll(second);
+        return result;
+    }
+
+    private static double median(List<Double> values) {
+        List<Double> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        int middle = sorted.size() / 2;
+        return sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+    }
+
+    private void writeReport(double migrationSeconds, Map<String, Object> variants) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("jar", jar.toAbsolutePath().toString());
+        report.put("runs", runs);
+        report.put("javaVersion", Runtime.version().toString());
+        report.put("nativeExecutable", nativeExecutable == null ? null : nativeExecutable.toAbsolutePath().toString());
+        report.put("smokeRequests", smoke);
+        // Разовая команда миграций на пустой базе: столько же узел тратил бы при первом старте с Liquibase
+        report.put("migrationCommandSeconds", migrationSeconds);
+        report.put("variants", variants);
+
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), report);
+        System.out.printf("Startup benchmark finished. Report: %s%n", output.toAbsolutePath());
+    }
+}
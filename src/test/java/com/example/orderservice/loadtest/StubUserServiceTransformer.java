@@ -0,0 +1,55 @@
+package com.example.orderservice.loadtest;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Заглушка user-service: отвечает активным пользователем с id из пути
+// и с заданной вероятностью возвращает 500. Ответ строится от определения заглушки (like),
+// иначе терялись бы заданные в LoadTestRunner задержки
+class StubUserServiceTransformer extends ResponseDefinitionTransformer {
+    static final String NAME = "stub-user-service";
+
+    private final double errorRate;
+
+    StubUserServiceTransformer(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    @Override
+    public ResponseDefinition transform(Request request, ResponseDefinition responseDefinition,
+                                        FileSource files, Parameters parameters) {
+        if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            return ResponseDefinitionBuilder.like(responseDefinition)
+                    .withStatus(500)
+                    .withBody("injected failure")
+                    .build();
+        }
+
+        String path = request.getUrl();
+        String id = path.substring(path.lastIndexOf('/') + 1);
+        String body = """
+                {"id": %s, "name": "Load", "surname": "User%s", "email": "user%s@load.test", "active": true}
+                """.formatted(id, id, id);
+        return ResponseDefinitionBuilder.like(responseDefinition)
+                .withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withBody(body)
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.orderservice.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PricingEngineUnitTest {
+
+    @Test
+    void addLine_ShouldMatchBigDecimalArithmetic() {
+        // Arrange
+        BigDecimal[] prices = {new BigDecimal("19.99"), new BigDecimal("0.01"), new BigDecimal("1234.50")};
+        int[] quantities = {3, 7, 2};
+        BigDecimal expected = BigDecimal.ZERO;
+        long total = 0;
+
+        // Act
+        for (int i = 0; i < prices.length; i++) {
+            expected = expected.add(prices[i].multiply(BigDecimal.valueOf(quantities[i])));
+            total = PricingEngine.addLine(total, PricingEngine.toMinorUnits(prices[i]), quantities[i]);
+        }
+
+        // Assert
+        assertThat(PricingEngine.toDecimal(total)).isEqualTo(expected.setScale(2));
+    }
+
+    @Test
+    void toMinorUnits_ShouldRoundHalfUp_LikeDecimalColumn() {
+        assertThat(PricingEngine.toMinorUnits(new BigDecimal("10.005"))).isEqualTo(1001L);
+        assertThat(PricingEngine.toMinorUnits(new BigDecimal("10.004"))).isEqualTo(1000L);
+        assertThat(PricingEngine.toMinorUnits(new BigDecimal("100"))).isEqualTo(10_000L);
+    }
+
+    @Test
+    void addLine_ShouldReject_WhenTotalExceedsDecimalColumn() {
+        long maxPrice = PricingEngine.toMinorUnits(new BigDecimal("99999999.99"));
+
+        assertThatThrownBy(() -> PricingEngine.addLine(0, maxPrice, 2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("99999999.99");
+        assertThatThrownBy(() -> PricingEngine.addLine(0, maxPrice, Integer.MAX_VALUE))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PricingEngine.addLine(maxPrice, 1, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void toMinorUnits_ShouldReject_WhenPriceIsMissingOrTooLarge() {
+        assertThatThrownBy(() -> PricingEngine.toMinorUnits(null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PricingEngine.toMinorUnits(new BigDecimal("100000000.00")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.orderservice.processing;
+
+import com.example.orderservice.config.OrderProcessingProperties;
+import com.example.orderservice.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+// Два воркера (как на двух узлах) по четыре потока разбирают одну очередь:
+// каждый заказ обрабатывается ровно один раз, сбойный - повторяется
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "user.service.url=http://localhost:18092",
+        "spring.liquibase.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "orders.processing.enabled=true",
+        "orders.processing.worker-threads=4",
+        "orders.processing.batch-size=10",
+        "orders.processing.retry-backoff=0s",
+        "orders.processing.poll-interval=50ms",
+        "resilience4j.circuitbreaker.instances.userService.register-health-indicator=false"
+})
+class OrderProcessingIntegrationTest {
+    private static final int ORDERS = 300;
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @Container
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("processingDb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+    }
+
+    static final Map<Long, AtomicInteger> INVOCATIONS = new ConcurrentHashMap<>();
+    static final Set<Long> FAIL_ONCE = ConcurrentHashMap.newKeySet();
+
+    @TestConfiguration
+    static class ProcessorConfig {
+        @Bean
+        OrderProcessor countingProcessor() {
+            return order -> {
+                INVOCATIONS.computeIfAbsent(order.getId(), id -> new AtomicInteger()).incrementAndGet();
+                if (FAIL_ONCE.remove(order.getId())) {
+                    throw new IllegalStateException("Payment gateway timeout");
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderProcessingQueue queue;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ObjectProvider<OrderProcessor> processor;
+
+    @Autowired
+    private OrderProcessingProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        INVOCATIONS.clear();
+        FAIL_ONCE.clear();
+    }
+
+    @Test
+    void workers_ShouldProcessEachOrderExactlyOnce_AndRetryFailures() {
+        // Второй воркер в том же процессе ведёт себя как воркер соседнего узла
+        OrderProcessingWorker secondNode = new OrderProcessingWorker(queue, orderService, processor, properties,
+                new SimpleMeterRegistry());
+        secondNode.start();
+        try {
+            Long flaky = insertOrder();
+            FAIL_ONCE.add(flaky);
+            for (int i = 1; i < ORDERS; i++) {
+                insertOrder();
+            }
+
+            awaitAllCompleted();
+
+            assertThat(INVOCATIONS).hasSize(ORDERS);
+            INVOCATIONS.forEach((id, count) -> assertThat(count.get())
+                    .as("invocations of order %d", id)
+                    .isEqualTo(id.equals(flaky) ? 2 : 1));
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT processing_attempts FROM orders WHERE id = ?", Integer.class, flaky)).isEqualTo(2);
+        } finally {
+            secondNode.stop();
+        }
+    }
+
+    @Test
+    void worker_ShouldReclaimOrder_WhenVisibilityTimeoutExpired() {
+        // Заказ, который "упавший" воркер оставил в PROCESSING с истёкшим сроком
+        Long id = insertAbandonedOrder(1);
+
+        awaitAllCompleted();
+
+        assertThat(INVOCATIONS.get(id).get()).isEqualTo(1);
+        assertThat(queue.complete(id, "dead-worker")).isFalse();
+    }
+
+    @Test
+    void queue_ShouldReturnExpiredOrderToCreated_WhenLastAttemptWasLost() {
+        // Воркер умер во время последней разрешённой попытки
+        Long id = insertAbandonedOrder(properties.getMaxAttempts());
+        try {
+            awaitStatus(id, "CREATED");
+
+            Map<String, Object> row = jdbcTemplate.queryForMap("SELECT processing_claimed_by, processing_locked_until, "
+                    + "processing_error, processing_attempts FROM orders WHERE id = ?", id);
+            assertThat(row.get("processing_claimed_by")).isNull();
+            assertThat(row.get("processing_locked_until")).isNull();
+            assertThat((String) row.get("processing_error")).contains("visibility timeout");
+            assertThat(row.get("processing_attempts")).isEqualTo(properties.getMaxAttempts());
+            // Исчерпанный заказ больше не выбирается и не обрабатывается
+            assertThat(queue.claim("next-worker")).doesNotContain(id);
+            assertThat(INVOCATIONS).doesNotContainKey(id);
+        } finally {
+            jdbcTemplate.update("UPDATE orders SET deleted = true WHERE id = ?", id);
+        }
+    }
+
+    private void awaitStatus(Long id, String status) {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (status.equals(jdbcTemplate.queryForObject("SELECT status FROM orders WHERE id = ?", String.class, id))) {
+                return;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted while waiting for order " + id);
+            }
+        }
+        fail("Order " + id + " did not reach " + status + " within " + TIMEOUT);
+    }
+
+    private Long insertOrder() {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO orders (user_id, status, total_price, deleted, created_at, updated_at, buyer_name)
+                VALUES (1, 'CREATED', 10, false, now(), now(), 'Buyer') RETURNING id""", Long.class);
+    }
+
+    // Сразу в PROCESSING с истёкшим сроком: вставка в CREATED и последующий UPDATE оставляли
+    // работающим воркерам окно, чтобы забрать и обработать заказ как обычный
+    private Long insertAbandonedOrder(int attempts) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO orders (user_id, status, total_price, deleted, created_at, updated_at, buyer_name,
+                                    processing_claimed_by, processing_attempts, processing_locked_until)
+                VALUES (1, 'PROCESSING', 10, false, now(), now(), 'Buyer', 'dead-worker', ?,
+                        now() - INTERVAL '1 minute') RETURNING id""", Long.class, attempts);
+    }
+
+    private void awaitAllCompleted() {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            Integer pending = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM orders WHERE deleted = false AND status <> 'COMPLETED'", Integer.class);
+            if (pending != null && pending == 0) {
+                return;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("Interrupted while waiting for order processing");
+            }
+        }
+        fail("Orders were not processed within " + TIMEOUT);
+    }
+}
@@ -0,0 +1,375 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.entity.OrderStatus;
+import com.example.orderservice.specification.ItemSpecifications;
+import com.example.orderservice.specification.OrderSpecifications;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+// Регрессия планов запросов: каждый метод репозитория и комбинация спецификаций выполняется
+// на синтетических данных, перехваченный SQL прогоняется через EXPLAIN (GENERIC_PLAN, FORMAT JSON).
+// Тест падает, если появился Seq Scan по большой таблице, не разрешённый явно в описании случая,
+// или стоимость плана выросла больше порога относительно query-plans/baseline.json.
+// Случай без записи в базовой линии тоже ошибка: иначе пустой baseline.json проходит всегда.
+// Обновить базовую линию: ./gradlew integrationTest --tests '*QueryPlanRegression*' -Pqueryplan.updateBaseline=true
+// Параметры: queryplan.scale (множитель объёма данных), queryplan.costThreshold (доля, по умолчанию 0.25)
+@SpringBootTest
+@Testcontainers
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestPropertySource(properties = {
+        "user.service.url=http://localhost:18090",
+        "spring.liquibase.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.orderservice.repository.SqlCapturingInspector",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "resilience4j.circuitbreaker.instances.userService.register-health-indicator=false"
+})
+class QueryPlanRegressionIntegrationTest {
+    private static final Path BASELINE = Path.of("src/test/resources/query-plans/baseline.json");
+    private static final Set<String> LARGE_TABLE_CANDIDATES = Set.of("orders", "order_items", "items");
+    private static final long LARGE_TABLE_ROWS = 10_000;
+    // Мелкие абсолютные колебания стоимости после ANALYZE не считаются регрессией
+    private static final double MIN_COST_DELTA = 50;
+
+    private static final Pageable ORDER_PAGE = PageRequest.of(0, 20, Sort.by("createdAt").descending());
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    // GENERIC_PLAN появился в PostgreSQL 16
+    @Container
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("planDb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+    }
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Double> observedCosts = new TreeMap<>();
+    private final Set<String> largeTables = new HashSet<>();
+    private JsonNode baseline;
+    private double costThreshold;
+    private boolean updateBaseline;
+    private Connection explainConnection;
+
+    @BeforeAll
+    void seedAndLoadBaseline() throws IOException, SQLException {
+        int scale = Integer.getInteger("queryplan.scale", 1);
+        costThreshold = Double.parseDouble(System.getProperty("queryplan.costThreshold", "0.25"));
+        updateBaseline = Boolean.getBoolean("queryplan.updateBaseline");
+        baseline = Files.exists(BASELINE) ? objectMapper.readTree(BASELINE.toFile()).path("cases") : objectMapper.createObjectNode();
+
+        seed(50_000 * scale, 200_000 * scale, 20_000 * scale);
+
+        jdbcTemplate.query("SELECT relname, reltuples FROM pg_class WHERE relkind = 'r'", rs -> {
+            if (LARGE_TABLE_CANDIDATES.contains(rs.getString(1)) && rs.getDouble(2) >= LARGE_TABLE_ROWS) {
+                largeTables.add(rs.getString(1));
+            }
+        });
+
+        // EXPLAIN (GENERIC_PLAN) с $1, $2 без значений принимается только в simple query protocol:
+        // в extended драйвер готовит оператор, и сервер требует привязать каждый параметр
+        Properties connectionProperties = new Properties();
+        connectionProperties.setProperty("user", dataSourceProperties.getUsername());
+        connectionProperties.setProperty("password", dataSourceProperties.getPassword());
+        connectionProperties.setProperty("preferQueryMode", "simple");
+        explainConnection = DriverManager.getConnection(dataSourceProperties.getUrl(), connectionProperties);
+    }
+
+    // Данные детерминированы: одинаковые объёмы и распределения при каждом прогоне
+    private void seed(int items, int orders, int users) {
+        jdbcTemplate.update("""
+                INSERT INTO items (name, price, external_key, created_at, updated_at)
+                SELECT (ARRAY['red','green','steel','wireless','compact','large'])[1 + g % 6] || ' '
+                           || (ARRAY['widget','gadget','kettle','lamp','chair','cable'])[1 + (g / 6) % 6] || ' ' || g,
+                       1 + (g % 10000) / 100.0, 'sku-' || g,
+                       TIMESTAMP '2023-01-01' + g * INTERVAL '1 minute', TIMESTAMP '2023-01-01' + g * INTERVAL '1 minute'
+                FROM generate_series(1, ?) g""", items);
+        jdbcTemplate.update("""
+                INSERT INTO orders (user_id, status, total_price, deleted, created_at, updated_at,
+                                    buyer_name, buyer_surname, buyer_email)
+                SELECT 1 + g % ?, (ARRAY['CREATED','PROCESSING','COMPLETED','CANCELLED'])[1 + g % 4],
+                       10 + g % 500, g % 50 = 0,
+                       TIMESTAMP '2023-06-01' + g * INTERVAL '5 minutes', TIMESTAMP '2023-06-01' + g * INTERVAL '5 minutes',
+                       CASE WHEN g % 20 = 0 THEN NULL ELSE 'Buyer' END, 'Test',
+                       CASE WHEN g % 20 = 0 THEN NULL ELSE 'buyer' || (g % 1000) || '@example.com' END
+                FROM generate_series(1, ?) g""", users, orders);
+        jdbcTemplate.update("""
+                INSERT INTO order_items (order_id, item_id, quantity, unit_price, item_name, created_at, updated_at)
+                SELECT o.id, i.id, 1 + n, i.price, i.name, o.created_at, o.created_at
+                FROM orders o
+                CROSS JOIN generate_series(0, 1 + (o.id % 3)::int) n
+                JOIN items i ON i.id = 1 + (o.id * 7 + n) % ?""", items);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueryPlans() {
+        return cases().stream().map(planCase -> DynamicTest.dynamicTest(planCase.name(), () -> verify(planCase)));
+    }
+
+    private List<PlanCase> cases() {
+        List<PlanCase> cases = new ArrayList<>();
+
+        cases.add(PlanCase.of("order.findByIdAndDeletedFalse", () -> orderRepository.findByIdAndDeletedFalse(1L)));
+        cases.add(PlanCase.of("order.findWithoutItemsByIdAndDeletedFalse",
+                () -> orderRepository.findWithoutItemsByIdAndDeletedFalse(1L)));
+        cases.add(PlanCase.of("order.findHistoryIds",
+                () -> orderRepository.findHistoryIds(42L, NOW, Long.MAX_VALUE, 21)));
+        cases.add(PlanCase.of("order.findHistoryIdsByStatuses",
+                () -> orderRepository.findHistoryIdsByStatuses(42L, List.of("CREATED", "COMPLETED"), NOW, Long.MAX_VALUE, 21)));
+        cases.add(PlanCase.of("order.findAllWithItemsByIdIn",
+                () -> orderRepository.findAllWithItemsByIdIn(List.of(1L, 2L, 3L))));
+        cases.add(PlanCase.of("order.softDelete", () -> orderRepository.softDelete(1L)));
+        cases.add(PlanCase.of("order.findUserIdsWithoutBuyerSnapshot",
+                () -> orderRepository.findUserIdsWithoutBuyerSnapshot(0L, PageRequest.of(0, 200))));
+        cases.add(PlanCase.of("order.fillBuyerSnapshot",
+                () -> orderRepository.fillBuyerSnapshot(42L, "John", "Doe", "john@example.com", NOW)));
+        cases.add(PlanCase.of("order.lockProcessable",
+                () -> orderRepository.lockProcessable(NOW, 5, 20)));
+        cases.add(PlanCase.of("order.abandonExhausted",
+                () -> orderRepository.abandonExhausted(NOW, 5, 20, "error")));
+        cases.add(PlanCase.of("order.completeProcessing",
+                () -> orderRepository.completeProcessing(1L, "token", NOW)));
+
+        // Фильтры GET /api/orders; count(*) без селективного условия по индексу неизбежно читает таблицу целиком
+        String pageCount = "Page.totalElements counts every non-deleted order matching a non-indexed filter";
+        cases.add(PlanCase.of("order.filter.none",
+                () -> orderRepository.findAll(OrderSpecifications.buildSpecification(null, null, null), ORDER_PAGE))
+                .allowSeqScan("orders", pageCount));
+        cases.add(PlanCase.of("order.filter.dateRange",
+                () -> orderRepository.findAll(OrderSpecifications.buildSpecification(NOW.minusDays(30), NOW, null), ORDER_PAGE)));
+        cases.add(PlanCase.of("order.filter.startOnly",
+                () -> orderRepository.findAll(OrderSpecifications.buildSpecification(NOW.minusDays(7), null, null), ORDER_PAGE))
+                .allowSeqScan("orders", "generic plan assumes an open-ended range matches a third of the table"));
+        cases.add(PlanCase.of("order.filter.endOnly",
+                () -> orderRepository.findAll(OrderSpecifications.buildSpecification(null, NOW, null), ORDER_PAGE))
+                .allowSeqScan("orders", "generic plan assumes an open-ended range matches a third of the table"));
+        cases.add(PlanCase.of("order.filter.statuses",
+                () -> orderRepository.findAll(OrderSpecifications.buildSpecification(null, null,
+                        List.of(OrderStatus.CREATED, OrderStatus.PROCESSING)), ORDER_PAGE))
+                .allowSeqScan("orders", pageCount));
+        cases.add(PlanCase.of("order.filter.dateRangeAndStatuses",
+                () -> orderRepository.findAll(OrderSpecifications.buildSpecification(NOW.minusDays(30), NOW,
+                        List.of(OrderStatus.COMPLETED)), ORDER_PAGE)));
+
+        String noPriceIndex = "no index on items.price";
+        cases.add(PlanCase.of("item.findById", () -> itemRepository.findById(1L)));
+        cases.add(PlanCase.of("item.findAllPagedByName",
+                () -> itemRepository.findAll(PageRequest.of(0, 10, Sort.by("name").ascending())))
+                .allowSeqScan("items", "no index on items.name; top-N sort over the catalog"));
+        cases.add(PlanCase.of("item.findByNameContainingIgnoreCase",
+                () -> itemRepository.findByNameContainingIgnoreCase("kettle"))
+                .allowSeqScan("items", "leading-wildcard LIKE; use the full-text search instead"));
+        cases.add(PlanCase.of("item.findByPriceBetween",
+                () -> itemRepository.findByPriceBetween(BigDecimal.ONE, BigDecimal.TEN)).allowSeqScan("items", noPriceIndex));
+        cases.add(PlanCase.of("item.findItemsBelowPrice",
+                () -> itemRepository.findItemsBelowPrice(BigDecimal.TEN)).allowSeqScan("items", noPriceIndex));
+        cases.add(PlanCase.of("item.findItemsAbovePrice",
+                () -> itemRepository.findItemsAbovePrice(BigDecimal.TEN)).allowSeqScan("items", noPriceIndex));
+        cases.add(PlanCase.of("item.spec.nameAndPrice",
+                () -> itemRepository.findAll(ItemSpecifications.nameContains("lamp")
+                        .and(ItemSpecifications.priceBetween(BigDecimal.ONE, BigDecimal.TEN))))
+                .allowSeqScan("items", "leading-wildcard LIKE combined with an unindexed price range"));
+        cases.add(PlanCase.of("item.existsInOrderItems", () -> itemRepository.existsInOrderItems(1L)));
+        cases.add(PlanCase.of("item.searchByFullText",
+                () -> itemRepository.searchByFullText("steel:* & kett:*", PageRequest.of(0, 20))));
+
+        cases.add(PlanCase.of("idempotency.findStateByKey", () -> idempotencyKeyRepository.findStateByKey("key")));
+        cases.add(PlanCase.of("idempotency.deleteExpiredBatch",
+                () -> idempotencyKeyRepository.deleteExpiredBatch(NOW, 500)));
+        return cases;
+    }
+
+    private void verify(PlanCase planCase) throws IOException, SQLException {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<String> statements = new ArrayList<>();
+        // Изменяющие запросы тоже выполняются, поэтому всё откатывается
+        transaction.executeWithoutResult(status -> {
+            statements.addAll(SqlCapturingInspector.capture(planCase.action()));
+            status.setRollbackOnly();
+        });
+        assertThat(statements).as("SQL captured for %s", planCase.name()).isNotEmpty();
+
+        List<String> failures = new ArrayList<>();
+        for (int i = 0; i < statements.size(); i++) {
+            String key = statements.size() == 1 ? planCase.name() : planCase.name() + "#" + (i + 1);
+            JsonNode plan = explain(statements.get(i));
+
+            List<String> seqScans = new ArrayList<>();
+            collectSeqScans(plan, seqScans);
+            for (String table : seqScans) {
+                if (largeTables.contains(table) && !planCase.allowedSeqScans().containsKey(table)) {
+                    failures.add(key + ": Seq Scan on " + table + "\n  SQL: " + statements.get(i)
+                            + "\n  Plan: " + summarize(plan));
+                }
+            }
+
+            double cost = plan.path("Total Cost").asDouble();
+            observedCosts.put(key, cost);
+            JsonNode expected = baseline.path(key).path("totalCost");
+            if (!updateBaseline && !expected.isNumber()) {
+                failures.add(key + ": no baseline cost recorded in " + BASELINE
+                        + "; run with -Pqueryplan.updateBaseline=true and commit the file");
+            } else if (!updateBaseline) {
+                double limit = expected.asDouble() * (1 + costThreshold);
+                if (cost > limit && cost - expected.asDouble() > MIN_COST_DELTA) {
+                    failures.add(String.format("%s: cost %.1f exceeds baseline %.1f by more than %.0f%%%n  Plan: %s",
+                            key, cost, expected.asDouble(), costThreshold * 100, summarize(plan)));
+                }
+            }
+        }
+        if (!failures.isEmpty()) {
+            fail(String.join("\n", failures));
+        }
+    }
+
+    private JsonNode explain(String sql) throws IOException, SQLException {
+        try (Statement statement = explainConnection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN (GENERIC_PLAN, FORMAT JSON) " + toPositionalParameters(sql))) {
+            rs.next();
+            return objectMapper.readTree(rs.getString(1)).get(0).get("Plan");
+        }
+    }
+
+    // GENERIC_PLAN принимает только $1, $2, ...; '?' внутри строковых литералов не трогаем
+    private static String toPositionalParameters(String sql) {
+        StringBuilder result = new StringBuilder(sql.length() + 16);
+        boolean inLiteral = false;
+        int parameter = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            }
+            if (c == '?' && !inLiteral) {
+                result.append('$').append(++parameter);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    private static void collectSeqScans(JsonNode node, List<String> tables) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            tables.add(node.path("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSeqScans(child, tables);
+        }
+    }
+
+    private static String summarize(JsonNode node) {
+        StringBuilder summary = new StringBuilder(node.path("Node Type").asText());
+        if (node.has("Index Name")) {
+            summary.append(" using ").append(node.path("Index Name").asText());
+        } else if (node.has("Relation Name")) {
+            summary.append(" on ").append(node.path("Relation Name").asText());
+        }
+        List<String> children = new ArrayList<>();
+        for (JsonNode child : node.path("Plans")) {
+            children.add(summarize(child));
+        }
+        if (!children.isEmpty()) {
+            summary.append(" -> (").append(String.join(", ", children)).append(')');
+        }
+        return summary.toString();
+    }
+
+    @AfterAll
+    void writeBaseline() throws IOException, SQLException {
+        if (explainConnection != null) {
+            explainConnection.close();
+        }
+        if (!updateBaseline) {
+            return;
+        }
+        ObjectNode cases = objectMapper.createObjectNode();
+        observedCosts.forEach((key, cost) -> cases.putObject(key).put("totalCost", Math.round(cost * 100) / 100.0));
+        ObjectNode root = objectMapper.createObjectNode();
+        root.set("cases", cases);
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(BASELINE.toFile(), root);
+    }
+
+    private record PlanCase(String name, Runnable action, Map<String, String> allowedSeqScans) {
+
+        static PlanCase of(String name, Runnable action) {
+            return new PlanCase(name, action, new HashMap<>());
+        }
+
+        // Осознанно принятый Seq Scan: причина остаётся рядом со случаем и видна на ревью
+        PlanCase allowSeqScan(String table, String reason) {
+            allowedSeqScans.put(table, reason);
+            return this;
+        }
+    }
+}
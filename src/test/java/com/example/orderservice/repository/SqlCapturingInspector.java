@@ -0,0 +1,38 @@
+package com.example.orderservice.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Запоминает SQL, который Hibernate отправляет в базу, пока включён захват.
+// Подключается через spring.jpa.properties.hibernate.session_factory.statement_inspector
+public class SqlCapturingInspector implements StatementInspector {
+    private static final List<String> CAPTURED = new ArrayList<>();
+    private static volatile boolean capturing;
+
+    @Override
+    public String inspect(String sql) {
+        if (capturing) {
+            synchronized (CAPTURED) {
+                CAPTURED.add(sql);
+            }
+        }
+        return sql;
+    }
+
+    public static List<String> capture(Runnable action) {
+        synchronized (CAPTURED) {
+            CAPTURED.clear();
+        }
+        capturing = true;
+        try {
+            action.run();
+        } finally {
+            capturing = false;
+        }
+        synchronized (CAPTURED) {
+            return new ArrayList<>(CAPTURED);
+        }
+    }
+}
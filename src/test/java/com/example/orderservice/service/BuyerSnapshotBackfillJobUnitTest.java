@@ -0,0 +1,74 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.config.BuyerSnapshotBackfillProperties;
+import com.example.orderservice.dto.UserResponseDTO;
+import com.example.orderservice.repository.OrderRepository;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BuyerSnapshotBackfillJobUnitTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private UserServiceClient userServiceClient;
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    private BuyerSnapshotBackfillJob job;
+
+    @BeforeEach
+    void setUp() {
+        BuyerSnapshotBackfillProperties properties = new BuyerSnapshotBackfillProperties();
+        properties.setMaxBatchesPerRun(1);
+        properties.setPauseBetweenBatches(Duration.ZERO);
+        job = new BuyerSnapshotBackfillJob(orderRepository, userServiceClient, properties, circuitBreakerRegistry);
+    }
+
+    @Test
+    void backfill_ShouldMarkUserAsChecked_WhenUserHasNoNameOrEmail() {
+        // Arrange
+        UserResponseDTO user = new UserResponseDTO();
+        user.setId(7L);
+        when(orderRepository.findUserIdsWithoutBuyerSnapshot(eq(0L), any(Pageable.class))).thenReturn(List.of(7L));
+        when(userServiceClient.getUserById(7L)).thenReturn(user);
+
+        // Act
+        job.backfill();
+
+        // Assert: отметка проверки не даёт выбирать пользователя на каждом запуске
+        verify(orderRepository).fillBuyerSnapshot(eq(7L), isNull(), isNull(), isNull(), any());
+    }
+
+    @Test
+    void backfill_ShouldStopRun_WhenCircuitBreakerIsOpen() {
+        // Arrange
+        circuitBreakerRegistry.circuitBreaker("userService").transitionToOpenState();
+        when(orderRepository.findUserIdsWithoutBuyerSnapshot(eq(0L), any(Pageable.class))).thenReturn(List.of(7L, 8L));
+
+        // Act
+        job.backfill();
+
+        // Assert
+        verify(userServiceClient, never()).getUserById(anyLong());
+        verify(orderRepository, never()).fillBuyerSnapshot(anyLong(), any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderItemRequest;
+import com.example.orderservice.dto.OrderRequest;
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.entity.IdempotencyStatus;
+import com.example.orderservice.entity.Item;
+import com.example.orderservice.exception.IdempotencyConflictException;
+import com.example.orderservice.repository.IdempotencyKeyRepository;
+import com.example.orderservice.repository.ItemRepository;
+import com.example.orderservice.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "user.service.url=http://localhost:9",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.liquibase.enabled=false",
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect"
+})
+class IdempotencyIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("testDb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+    }
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private OrderCreateBatcher orderCreateBatcher;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private OrderRequest request;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyKeyRepository.deleteAll();
+        orderRepository.deleteAll();
+        itemRepository.deleteAll();
+
+        Item item = new Item();
+        item.setName("Idempotency Test Item");
+        item.setPrice(BigDecimal.valueOf(25.00));
+        item.setCreatedAt(LocalDateTime.now());
+        item.setUpdatedAt(LocalDateTime.now());
+        Item savedItem = itemRepository.save(item);
+
+        OrderItemRequest line = new OrderItemRequest();
+        line.setItemId(savedItem.getId());
+        line.setQuantity(2);
+        request = new OrderRequest();
+        request.setUserId(1L);
+        request.setItems(List.of(line));
+    }
+
+    @Test
+    void execute_ShouldCreateOneOrder_WhenRequestIsRetried() {
+        // Act
+        OrderResponse first = idempotencyService.execute("retry-key", request, OrderResponse.class,
+                claim -> orderCreateBatcher.createOrder(request, claim));
+        OrderResponse retried = idempotencyService.execute("retry-key", request, OrderResponse.class,
+                claim -> orderCreateBatcher.createOrder(request, claim));
+
+        // Assert
+        assertThat(retried.getId()).isEqualTo(first.getId());
+        assertThat(orderRepository.count()).isEqualTo(1);
+        assertThat(idempotencyKeyRepository.findStateByKey("retry-key").orElseThrow().getStatus())
+                .isEqualTo(IdempotencyStatus.COMPLETED);
+    }
+
+    @Test
+    void execute_ShouldKeepCompletedKey_WhenCallerFailsAfterOrderCommitted() {
+        // Arrange: заказ и ответ зафиксированы, после чего вызывающий код падает
+        AtomicInteger actions = new AtomicInteger();
+        assertThatThrownBy(() -> idempotencyService.execute("after-commit-key", request, OrderResponse.class, claim -> {
+            actions.incrementAndGet();
+            orderCreateBatcher.createOrder(request, claim);
+            throw new IllegalStateException("connection reset after commit");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // Act
+        OrderResponse retried = idempotencyService.execute("after-commit-key", request, OrderResponse.class, claim -> {
+            actions.incrementAndGet();
+            return orderCreateBatcher.createOrder(request, claim);
+        });
+
+        // Assert: ключ не освобождён, повтор вернул сохранённый ответ, второго заказа нет
+        assertThat(actions.get()).isEqualTo(1);
+        assertThat(orderRepository.count()).isEqualTo(1);
+        assertThat(retried.getId()).isEqualTo(orderRepository.findAll().get(0).getId());
+    }
+
+    @Test
+    void execute_ShouldRollBackOrder_WhenKeyWasTakenOverBeforeCommit() {
+        // Act: пока владелец работал дольше lock-timeout, ключ перехватил другой запрос
+        assertThatThrownBy(() -> idempotencyService.execute("taken-over-key", request, OrderResponse.class, claim -> {
+            jdbcTemplate.update("UPDATE idempotency_keys SET owner_token = 'other-owner' WHERE idempotency_key = ?",
+                    claim.key());
+            return orderCreateBatcher.createOrder(request, claim);
+        })).isInstanceOf(IdempotencyConflictException.class);
+
+        // Assert: заказ прежнего владельца откатился, ключ остался за новым владельцем
+        assertThat(orderRepository.count()).isZero();
+        assertThat(idempotencyKeyRepository.findById("taken-over-key"))
+                .hasValueSatisfying(key -> {
+                    assertThat(key.getStatus()).isEqualTo(IdempotencyStatus.IN_PROGRESS);
+                    assertThat(key.getOwnerToken()).isEqualTo("other-owner");
+                });
+    }
+}
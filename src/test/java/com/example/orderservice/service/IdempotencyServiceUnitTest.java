@@ -0,0 +1,179 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.config.IdempotencyProperties;
+import com.example.orderservice.dto.OrderRequest;
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.entity.IdempotencyStatus;
+import com.example.orderservice.exception.IdempotencyConflictException;
+import com.example.orderservice.repository.IdempotencyKeyRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceUnitTest {
+
+    @Mock
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private IdempotencyService idempotencyService;
+    private OrderRequest request;
+    private OrderResponse response;
+
+    @BeforeEach
+    void setUp() {
+        IdempotencyProperties properties = new IdempotencyProperties();
+        properties.setWaitTimeout(Duration.ofMillis(200));
+        properties.setPollInterval(Duration.ofMillis(10));
+        idempotencyService = new IdempotencyService(idempotencyKeyRepository, properties, new ObjectMapper());
+
+        request = new OrderRequest();
+        request.setUserId(1L);
+
+        response = new OrderResponse();
+        response.setId(42L);
+        response.setUserId(1L);
+    }
+
+    @Test
+    void execute_ShouldRunActionAndStoreResponse_WhenKeyIsNew() {
+        // Arrange
+        when(idempotencyKeyRepository.tryInsert(eq("key-1"), anyString(), anyString(), any(), any(), any())).thenReturn(1);
+
+        when(idempotencyKeyRepository.complete(eq("key-1"), anyString(), anyString())).thenReturn(1);
+
+        // Act: действие сохраняет ответ само, в своей транзакции
+        OrderResponse result = idempotencyService.execute("key-1", request, OrderResponse.class, claim -> {
+            idempotencyService.complete(claim, response);
+            return response;
+        });
+
+        // Assert
+        assertThat(result.getId()).isEqualTo(42L);
+        ArgumentCaptor<String> owner = ArgumentCaptor.forClass(String.class);
+        verify(idempotencyKeyRepository).tryInsert(eq("key-1"), anyString(), owner.capture(), any(), any(), any());
+        verify(idempotencyKeyRepository).complete(eq("key-1"), eq(owner.getValue()), anyString());
+        verify(idempotencyKeyRepository, never()).release(anyString(), anyString());
+    }
+
+    @Test
+    void complete_ShouldFail_WhenKeyWasTakenOver() {
+        // Arrange
+        when(idempotencyKeyRepository.complete(eq("key-6"), eq("stale-owner"), anyString())).thenReturn(0);
+
+        // Act & Assert: исключение откатывает транзакцию заказа
+        assertThatThrownBy(() -> idempotencyService.complete(new IdempotencyService.Claim("key-6", "stale-owner"), response))
+                .isInstanceOf(IdempotencyConflictException.class)
+                .hasMessageContaining("taken over");
+    }
+
+    @Test
+    void execute_ShouldReplayStoredResponse_WhenKeyIsCompleted() {
+        // Arrange
+        AtomicInteger invocations = new AtomicInteger();
+        when(idempotencyKeyRepository.tryInsert(eq("key-2"), anyString(), anyString(), any(), any(), any())).thenReturn(1, 0);
+        idempotencyService.execute("key-2", request, OrderResponse.class, claim -> response);
+
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        verify(idempotencyKeyRepository).tryInsert(eq("key-2"), hash.capture(), anyString(), any(), any(), any());
+        when(idempotencyKeyRepository.findStateByKey("key-2"))
+                .thenReturn(Optional.of(state(hash.getValue(), IdempotencyStatus.COMPLETED, "{\"id\":42,\"userId\":1}")));
+
+        // Act
+        OrderResponse replayed = idempotencyService.execute("key-2", request, OrderResponse.class, claim -> {
+            invocations.incrementAndGet();
+            return response;
+        });
+
+        // Assert
+        assertThat(replayed.getId()).isEqualTo(42L);
+        assertThat(invocations.get()).isZero();
+    }
+
+    @Test
+    void execute_ShouldRejectKeyReuse_WhenRequestDiffers() {
+        // Arrange
+        when(idempotencyKeyRepository.tryInsert(eq("key-3"), anyString(), anyString(), any(), any(), any())).thenReturn(0);
+        when(idempotencyKeyRepository.findStateByKey("key-3"))
+                .thenReturn(Optional.of(state("other-hash", IdempotencyStatus.COMPLETED, "{}")));
+
+        // Act & Assert
+        assertThatThrownBy(() -> idempotencyService.execute("key-3", request, OrderResponse.class, claim -> response))
+                .isInstanceOf(IdempotencyConflictException.class)
+                .hasMessageContaining("different request");
+    }
+
+    @Test
+    void execute_ShouldReleaseKey_WhenActionFails() {
+        // Arrange
+        when(idempotencyKeyRepository.tryInsert(eq("key-4"), anyString(), anyString(), any(), any(), any())).thenReturn(1);
+
+        // Act & Assert
+        assertThatThrownBy(() -> idempotencyService.execute("key-4", request, OrderResponse.class, claim -> {
+            throw new IllegalArgumentException("User is inactive");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        verify(idempotencyKeyRepository).release(eq("key-4"), anyString());
+        verify(idempotencyKeyRepository, never()).complete(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void execute_ShouldFailWithConflict_WhenFirstRequestIsStillInProgress() {
+        // Arrange
+        when(idempotencyKeyRepository.tryInsert(eq("key-5"), anyString(), anyString(), any(), any(), any())).thenReturn(1, 0);
+        idempotencyService.execute("key-5", request, OrderResponse.class, claim -> response);
+
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        verify(idempotencyKeyRepository).tryInsert(eq("key-5"), hash.capture(), anyString(), any(), any(), any());
+        when(idempotencyKeyRepository.findStateByKey("key-5"))
+                .thenReturn(Optional.of(state(hash.getValue(), IdempotencyStatus.IN_PROGRESS, null)));
+        when(idempotencyKeyRepository.takeOverExpiredLock(eq("key-5"), anyString(), any(), any())).thenReturn(0);
+
+        // Act & Assert
+        assertThatThrownBy(() -> idempotencyService.execute("key-5", request, OrderResponse.class, claim -> response))
+                .isInstanceOf(IdempotencyConflictException.class)
+                .hasMessageContaining("still in progress");
+    }
+
+    @Test
+    void execute_ShouldRejectBlankKey() {
+        assertThatThrownBy(() -> idempotencyService.execute(" ", request, OrderResponse.class, claim -> response))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private IdempotencyKeyRepository.KeyState state(String hash, IdempotencyStatus status, String body) {
+        return new IdempotencyKeyRepository.KeyState() {
+            @Override
+            public String getRequestHash() {
+                return hash;
+            }
+
+            @Override
+            public IdempotencyStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public String getResponseBody() {
+                return body;
+            }
+        };
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.BulkOrderResult;
+import com.example.orderservice.dto.BulkOrderSelection;
+import com.example.orderservice.entity.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Маленький размер пачки: операции заведомо проходят несколькими транзакциями
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "user.service.url=http://localhost:18093",
+        "spring.liquibase.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "orders.bulk.chunk-size=3",
+        "resilience4j.circuitbreaker.instances.userService.register-health-indicator=false"
+})
+class OrderBulkServiceIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("bulkDb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+    }
+
+    @Autowired
+    private OrderBulkService orderBulkService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long itemId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM order_items");
+        jdbcTemplate.update("DELETE FROM orders");
+        itemId = jdbcTemplate.queryForObject("""
+                INSERT INTO items (name, price, stock_quantity, stock_shards, created_at, updated_at)
+                VALUES ('Bulk item', 5, 100, 0, now(), now()) RETURNING id""", Long.class);
+    }
+
+    @Test
+    void changeStatus_ShouldCancelAllowedOrdersAndReleaseStock() {
+        List<Long> created = insertOrders(7, OrderStatus.CREATED, 1L);
+        Long completed = insertOrders(1, OrderStatus.COMPLETED, 1L).get(0);
+        List<Long> ids = new ArrayList<>(created);
+        ids.add(completed);
+        ids.add(created.get(0));
+        ids.add(Long.MAX_VALUE);
+
+        BulkOrderResult result = orderBulkService.changeStatus(selectionOf(ids), OrderStatus.CANCELLED);
+
+        assertThat(result.getRequested()).isEqualTo(9);
+        assertThat(result.getAffected()).isEqualTo(7);
+        assertThat(result.getSkipped()).isEqualTo(2);
+        assertThat(countWithStatus(OrderStatus.CANCELLED)).isEqualTo(7);
+        assertThat(statusOf(completed)).isEqualTo("COMPLETED");
+        // 7 отменённых заказов по 2 штуки вернулись на склад, завершённый заказ свой остаток не вернул
+        assertThat(stockOfItem()).isEqualTo(100 + 7 * 2);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM order_items WHERE stock_reserved = true", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void changeStatus_ShouldApplyFilterAcrossSeveralChunks() {
+        insertOrders(8, OrderStatus.CREATED, 1L);
+        insertOrders(2, OrderStatus.CREATED, 2L);
+        insertOrders(2, OrderStatus.COMPLETED, 1L);
+
+        BulkOrderSelection.Filter filter = new BulkOrderSelection.Filter();
+        filter.setUserId(1L);
+        BulkOrderSelection selection = new BulkOrderSelection();
+        selection.setFilter(filter);
+
+        BulkOrderResult result = orderBulkService.changeStatus(selection, OrderStatus.PROCESSING);
+
+        assertThat(result.getAffected()).isEqualTo(8);
+        assertThat(result.getRequested()).isNull();
+        assertThat(countWithStatus(OrderStatus.PROCESSING)).isEqualTo(8);
+        assertThat(countWithStatus(OrderStatus.CREATED)).isEqualTo(2);
+        assertThat(stockOfItem()).isEqualTo(100);
+    }
+
+    @Test
+    void delete_ShouldSoftDeleteMatchingOrdersAndReleaseStock() {
+        insertOrders(5, OrderStatus.CREATED, 3L);
+        insertOrders(2, OrderStatus.CREATED, 4L);
+
+        BulkOrderSelection.Filter filter = new BulkOrderSelection.Filter();
+        filter.setUserId(3L);
+        filter.setStatuses(List.of(OrderStatus.CREATED));
+        BulkOrderSelection selection = new BulkOrderSelection();
+        selection.setFilter(filter);
+
+        assertThat(orderBulkService.delete(selection).getAffected()).isEqualTo(5);
+        assertThat(orderBulkService.delete(selection).getAffected()).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM orders WHERE deleted = true", Integer.class)).isEqualTo(5);
+        assertThat(stockOfItem()).isEqualTo(100 + 5 * 2);
+    }
+
+    @Test
+    void changeStatus_ShouldRejectInvalidSelection() {
+        BulkOrderSelection empty = new BulkOrderSelection();
+        assertThatThrownBy(() -> orderBulkService.changeStatus(empty, OrderStatus.CANCELLED))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        BulkOrderSelection ids = selectionOf(List.of(1L));
+        assertThatThrownBy(() -> orderBulkService.changeStatus(ids, OrderStatus.CREATED))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Каждый заказ - одна строка на 2 штуки с зарезервированным остатком
+    private List<Long> insertOrders(int count, OrderStatus status, Long userId) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Long orderId = jdbcTemplate.queryForObject("""
+                    INSERT INTO orders (user_id, status, total_price, deleted, created_at, updated_at, buyer_name)
+                    VALUES (?, ?, 10, false, now(), now(), 'Buyer') RETURNING id""", Long.class, userId, status.name());
+            jdbcTemplate.update("""
+                    INSERT INTO order_items (order_id, item_id, quantity, unit_price, item_name, stock_reserved,
+                                             created_at, updated_at)
+                    VALUES (?, ?, 2, 5, 'Bulk item', true, now(), now())""", orderId, itemId);
+            ids.add(orderId);
+        }
+        return ids;
+    }
+
+    private BulkOrderSelection selectionOf(List<Long> ids) {
+        BulkOrderSelection selection = new BulkOrderSelection();
+        selection.setIds(ids);
+        return selection;
+    }
+
+    private Integer countWithStatus(OrderStatus status) {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM orders WHERE status = ? AND deleted = false", Integer.class, status.name());
+    }
+
+    private String statusOf(Long id) {
+        return jdbcTemplate.queryForObject("SELECT status FROM orders WHERE id = ?", String.class, id);
+    }
+
+    private Integer stockOfItem() {
+        return jdbcTemplate.queryForObject("SELECT stock_quantity FROM items WHERE id = ?", Integer.class, itemId);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderItemRequest;
+import com.example.orderservice.dto.OrderRequest;
+import com.example.orderservice.dto.OrderResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Пачки групповой фиксации конкурируют с одиночными заказами за одни и те же строки items.
+// Внутри пачки строки блокируются не по возрастанию id, поэтому deadlock с одиночной транзакцией
+// возможен; заказы пачки при этом не должны получать чужую ошибку
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "user.service.url=http://localhost:9",
+        "spring.liquibase.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "orders.group-commit.enabled=true",
+        "orders.group-commit.max-batch-size=8",
+        "orders.group-commit.linger=20ms",
+        "resilience4j.circuitbreaker.instances.userService.register-health-indicator=false"
+})
+class OrderCreateBatcherIntegrationTest {
+    private static final int BATCHED = 200;
+    private static final int DIRECT = 200;
+    private static final int STOCK = 10_000;
+
+    @Container
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("groupCommitDb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+    }
+
+    @Autowired
+    private OrderCreateBatcher orderCreateBatcher;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void createOrder_ShouldNotFailBatchedOrders_WhenBatchConflictsWithSingleOrders() throws Exception {
+        // Arrange: два товара с остатком; заказы пачки берут их в обоих порядках
+        Long first = insertItem("Hot item A");
+        Long second = insertItem("Hot item B");
+        ExecutorService callers = Executors.newFixedThreadPool(32);
+        List<CompletableFuture<OrderResponse>> batched = new ArrayList<>();
+        AtomicInteger directCommitted = new AtomicInteger();
+
+        // Act
+        try {
+            for (int i = 0; i < Math.max(BATCHED, DIRECT); i++) {
+                if (i < BATCHED) {
+                    OrderRequest request = i % 2 == 0 ? request(first, second) : request(second, first);
+                    batched.add(CompletableFuture.supplyAsync(() -> orderCreateBatcher.createOrder(request), callers));
+                }
+                if (i < DIRECT) {
+                    OrderRequest request = request(second, first);
+                    callers.execute(() -> {
+                        try {
+                            orderService.createOrder(request);
+                            directCommitted.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            // Одиночный заказ может стать жертвой deadlock - это его собственная ошибка
+                        }
+                    });
+                }
+            }
+            CompletableFuture.allOf(batched.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+        } finally {
+            callers.shutdown();
+            assertThat(callers.awaitTermination(60, TimeUnit.SECONDS)).isTrue();
+        }
+
+        // Assert: каждый заказ пачки сохранён, остаток списан ровно за сохранённые заказы
+        batched.forEach(result -> assertThat(result.join().getId()).isNotNull());
+        int committed = BATCHED + directCommitted.get();
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM orders", Integer.class)).isEqualTo(committed);
+        assertThat(stock(first)).isEqualTo(STOCK - committed);
+        assertThat(stock(second)).isEqualTo(STOCK - committed);
+    }
+
+    private Long insertItem(String name) {
+        return jdbcTemplate.queryForObject("INSERT INTO items (name, price, stock_quantity, created_at, updated_at) "
+                + "VALUES (?, 10.00, ?, now(), now()) RETURNING id", Long.class, name, STOCK);
+    }
+
+    private Integer stock(Long itemId) {
+        return jdbcTemplate.queryForObject("SELECT stock_quantity FROM items WHERE id = ?", Integer.class, itemId);
+    }
+
+    private static OrderRequest request(Long... itemIds) {
+        List<OrderItemRequest> lines = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            OrderItemRequest line = new OrderItemRequest();
+            line.setItemId(itemId);
+            line.setQuantity(1);
+            lines.add(line);
+        }
+        OrderRequest request = new OrderRequest();
+        request.setUserId(1L);
+        request.setItems(lines);
+        return request;
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.config.GroupCommitProperties;
+import com.example.orderservice.dto.OrderRequest;
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.dto.UserResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderCreateBatcherUnitTest {
+    private static final int ORDERS = 8;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicInteger commits = new AtomicInteger();
+    private final AtomicInteger rollbacks = new AtomicInteger();
+    private final ExecutorService callers = Executors.newFixedThreadPool(ORDERS);
+    private OrderCreateBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        GroupCommitProperties properties = new GroupCommitProperties();
+        properties.setEnabled(true);
+        properties.setMaxBatchSize(ORDERS);
+        // Большой linger: все вызывающие гарантированно попадают в одну пачку
+        properties.setLinger(Duration.ofMillis(500));
+        batcher = new OrderCreateBatcher(orderService, idempotencyService, transactionManager, properties, new SimpleMeterRegistry());
+
+        lenient().when(orderService.verifyBuyer(anyLong()))
+                .thenReturn(new OrderService.VerifiedBuyer(new UserResponseDTO(), true));
+        lenient().when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        lenient().doAnswer(invocation -> {
+            TransactionStatus status = invocation.getArgument(0);
+            (status.isRollbackOnly() ? rollbacks : commits).incrementAndGet();
+            return null;
+        }).when(transactionManager).commit(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.stop();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void createOrder_ShouldCommitConcurrentOrdersInOneTransaction() {
+        // Arrange
+        when(orderService.createVerifiedOrder(any(), any())).thenAnswer(invocation -> response(invocation.getArgument(0)));
+        batcher.start();
+
+        // Act
+        List<CompletableFuture<OrderResponse>> results = submitAll();
+
+        // Assert
+        for (int i = 0; i < ORDERS; i++) {
+            assertThat(results.get(i).join().getUserId()).isEqualTo((long) i);
+        }
+        assertThat(commits.get()).isEqualTo(1);
+        verify(orderService, never()).createOrder(any());
+    }
+
+    @Test
+    void createOrder_ShouldFailOnlyBadOrder_AndCommitTheRest() {
+        // Arrange
+        when(orderService.createVerifiedOrder(any(), any())).thenAnswer(invocation -> {
+            OrderRequest request = invocation.getArgument(0);
+            if (request.getUserId() == 3L) {
+                throw new IllegalArgumentException("Quantity must be positive");
+            }
+            return response(request);
+        });
+        batcher.start();
+
+        // Act
+        List<CompletableFuture<OrderResponse>> results = submitAll();
+
+        // Assert
+        for (int i = 0; i < ORDERS; i++) {
+            CompletableFuture<OrderResponse> result = results.get(i);
+            if (i == 3) {
+                assertThatThrownBy(result::join).hasCauseInstanceOf(IllegalArgumentException.class);
+            } else {
+                assertThat(result.join().getUserId()).isEqualTo((long) i);
+            }
+        }
+        assertThat(rollbacks.get()).isEqualTo(1);
+        assertThat(commits.get()).isEqualTo(1);
+    }
+
+    @Test
+    void createOrder_ShouldCommitOneByOne_WhenBatchCommitFails() {
+        // Arrange
+        when(orderService.createVerifiedOrder(any(), any())).thenAnswer(invocation -> response(invocation.getArgument(0)));
+        AtomicInteger attempts = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (attempts.getAndIncrement() == 0) {
+                throw new TransactionSystemException("could not serialize access");
+            }
+            commits.incrementAndGet();
+            return null;
+        }).when(transactionManager).commit(any());
+        batcher.start();
+
+        // Act
+        List<CompletableFuture<OrderResponse>> results = submitAll();
+
+        // Assert
+        results.forEach(result -> assertThat(result.join()).isNotNull());
+        assertThat(commits.get()).isEqualTo(ORDERS);
+    }
+
+    @Test
+    void createOrder_ShouldCommitOneByOne_WhenBatchHitsLockConflict() {
+        // Arrange: deadlock проявился на заказе 3, но вызван порядком блокировок всей пачки
+        AtomicInteger conflicts = new AtomicInteger();
+        when(orderService.createVerifiedOrder(any(), any())).thenAnswer(invocation -> {
+            OrderRequest request = invocation.getArgument(0);
+            if (request.getUserId() == 3L && conflicts.getAndIncrement() == 0) {
+                throw new CannotAcquireLockException("deadlock detected");
+            }
+            return response(request);
+        });
+        batcher.start();
+
+        // Act
+        List<CompletableFuture<OrderResponse>> results = submitAll();
+
+        // Assert: заказ 3 не получает чужую ошибку, пачка откатывается и сохраняется по одному
+        for (int i = 0; i < ORDERS; i++) {
+            assertThat(results.get(i).join().getUserId()).isEqualTo((long) i);
+        }
+        assertThat(rollbacks.get()).isEqualTo(1);
+        assertThat(commits.get()).isEqualTo(ORDERS);
+    }
+
+    @Test
+    void createOrder_ShouldUseRegularPath_WhenDisabled() {
+        // Arrange
+        OrderRequest request = request(1);
+        when(orderService.createOrder(request)).thenReturn(response(request));
+
+        // Act
+        OrderResponse result = batcher.createOrder(request);
+
+        // Assert
+        assertThat(result.getUserId()).isEqualTo(1L);
+        verify(orderService, never()).createVerifiedOrder(any(), any());
+    }
+
+    private List<CompletableFuture<OrderResponse>> submitAll() {
+        List<CompletableFuture<OrderResponse>> results = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            OrderRequest request = request(i);
+            results.add(CompletableFuture.supplyAsync(() -> batcher.createOrder(request), callers));
+        }
+        return results;
+    }
+
+    private static OrderRequest request(long userId) {
+        OrderRequest request = new OrderRequest();
+        request.setUserId(userId);
+        return request;
+    }
+
+    @Test
+    void createOrder_ShouldStoreIdempotentResponseInOrderTransaction_WhenDisabled() {
+        // Arrange
+        OrderRequest request = request(1);
+        IdempotencyService.Claim claim = new IdempotencyService.Claim("key-1", "owner-1");
+        OrderResponse response = response(request);
+        when(orderService.createVerifiedOrder(any(), any())).thenReturn(response);
+
+        // Act
+        batcher.createOrder(request, claim);
+
+        // Assert: заказ и ответ по ключу в одной транзакции
+        verify(idempotencyService).complete(claim, response);
+        assertThat(commits.get()).isEqualTo(1);
+        verify(orderService, never()).createOrder(any());
+    }
+
+    private static OrderResponse response(OrderRequest request) {
+        OrderResponse response = new OrderResponse();
+        response.setUserId(request.getUserId());
+        return response;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.orderservice.service;
 
+import com.example.orderservice.dto.OrderFields;
 import com.example.orderservice.dto.OrderItemRequest;
 import com.example.orderservice.dto.OrderRequest;
 import com.example.orderservice.dto.OrderResponse;
@@ -26,6 +27,7 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
@@ -205,6 +207,51 @@ class OrderServiceIntegrationTest {
         assertThat(retrievedOrder.getTotalPrice()).isEqualByComparingTo(BigDecimal.valueOf(100.00)); // 50 * 2
     }
 
+    @Test
+    void getOrderById_ShouldKeepPurchasePrice_WhenItemChangesAfterOrder(){
+        // Arrange
+        String userJson = """
+            {
+                "id": 3,
+                "name": "Ann",
+                "surname": "Lee",
+                "email": "ann.lee@example.com",
+                "active": true
+            }
+            """;
+
+        stubFor(get(urlEqualTo("/api/users/3"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .withBody(userJson)));
+
+        OrderRequest orderRequest = new OrderRequest();
+        orderRequest.setUserId(3L);
+        orderRequest.setStatus(OrderStatus.CREATED);
+
+        OrderItemRequest orderItemRequest = new OrderItemRequest();
+        orderItemRequest.setItemId(savedItem.getId());
+        orderItemRequest.setQuantity(2);
+        orderRequest.setItems(List.of(orderItemRequest));
+
+        Long orderId = orderService.createOrder(orderRequest).getId();
+
+        savedItem.setName("Renamed Item");
+        savedItem.setPrice(BigDecimal.valueOf(75.00));
+        itemRepository.save(savedItem);
+
+        // Act
+        OrderResponse retrievedOrder = orderService.getOrderById(orderId);
+
+        // Assert
+        assertThat(retrievedOrder.getItems()).hasSize(1);
+        assertThat(retrievedOrder.getItems().get(0).getItemId()).isEqualTo(savedItem.getId());
+        assertThat(retrievedOrder.getItems().get(0).getItemName()).isEqualTo("Integration Test Item");
+        assertThat(retrievedOrder.getItems().get(0).getItemPrice()).isEqualByComparingTo(BigDecimal.valueOf(50.00));
+        assertThat(retrievedOrder.getTotalPrice()).isEqualByComparingTo(BigDecimal.valueOf(100.00));
+    }
+
     @Test
     void updateOrder_ShouldUpdateOrderSuccessfully(){
         // Arrange
@@ -370,6 +417,44 @@ class OrderServiceIntegrationTest {
         assertThat(orders).extracting("userId").containsOnly(5L);
     }
 
+    @Test
+    void getOrderHistory_ShouldPageNewestFirst_WithStatusFilter() {
+        // Arrange
+        stubFor(get(urlEqualTo("/api/users/6"))
+                .willReturn(aResponse()
+                        .withStatus(HttpStatus.OK.value())
+                        .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .withBody("""
+                            {"id": 6, "name": "Dana", "surname": "Lee", "email": "dana.lee@example.com", "active": true}
+                            """)));
+
+        List<Long> created = new ArrayList<>();
+        for (OrderStatus status : List.of(OrderStatus.CREATED, OrderStatus.COMPLETED, OrderStatus.CREATED,
+                OrderStatus.CREATED)) {
+            OrderItemRequest itemRequest = new OrderItemRequest();
+            itemRequest.setItemId(savedItem.getId());
+            itemRequest.setQuantity(1);
+            OrderRequest request = new OrderRequest();
+            request.setUserId(6L);
+            request.setStatus(status);
+            request.setItems(List.of(itemRequest));
+            created.add(orderService.createOrder(request).getId());
+        }
+
+        // Act
+        OrderFields fields = OrderFields.parse("id,status,items");
+        var first = orderService.getOrderHistory(6L, List.of(OrderStatus.CREATED), null, 2, false, fields);
+        var second = orderService.getOrderHistory(6L, List.of(OrderStatus.CREATED), first.getNextCursor(), 2,
+                false, fields);
+
+        // Assert
+        assertThat(first.getContent()).extracting("id").containsExactly(created.get(3), created.get(2));
+        assertThat(first.getContent().get(0).getItems()).hasSize(1);
+        assertThat(first.getNextCursor()).isNotNull();
+        assertThat(second.getContent()).extracting("id").containsExactly(created.get(0));
+        assertThat(second.getNextCursor()).isNull();
+    }
+
     @Test
     void createOrder_ShouldUseCircuitBreakerFallback_WhenUserServiceFails(){
         // Arrange
@@ -1,6 +1,10 @@
 package com.example.orderservice.service;
 
 import com.example.orderservice.client.UserServiceClient;
+import com.example.orderservice.config.OrderHistoryProperties;
+import com.example.orderservice.dto.CursorPageResponse;
+import com.example.orderservice.dto.OrderFields;
+import com.example.orderservice.dto.OrderHistoryCursor;
 import com.example.orderservice.dto.OrderRequest;
 import com.example.orderservice.dto.OrderResponse;
 import com.example.orderservice.dto.OrderItemRequest;
@@ -20,6 +24,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
@@ -40,6 +45,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
 import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.times;
@@ -66,6 +72,12 @@ class OrderServiceUnitTest {
     @Mock
     private OrderItemMapper orderItemMapper;
 
+    @Mock
+    private StockService stockService;
+
+    @Spy
+    private OrderHistoryProperties historyProperties = new OrderHistoryProperties();
+
     @InjectMocks
     private OrderService orderService;
 
@@ -154,9 +166,12 @@ class OrderServiceUnitTest {
         assertThat(result.getId()).isEqualTo(1L);
         assertThat(result.getUserId()).isEqualTo(1L);
         assertThat(result.getStatus()).isEqualTo(OrderStatus.CREATED);
-        assertThat(result.getTotalPrice()).isEqualTo(BigDecimal.valueOf(200.00));
+        assertThat(result.getTotalPrice()).isEqualTo(new BigDecimal("200.00"));
 
-        verify(userServiceClient, times(2)).getUserById(1L);
+        assertThat(orderItem.getUnitPrice()).isEqualTo(item.getPrice());
+        assertThat(orderItem.getItemName()).isEqualTo("Test Item");
+
+        verify(userServiceClient, times(1)).getUserById(1L);
         verify(orderRepository).save(any(Order.class));
         verify(itemRepository).findById(1L);
     }
@@ -225,6 +240,94 @@ class OrderServiceUnitTest {
         verify(orderRepository).findByIdAndDeletedFalse(1L);
     }
 
+    @Test
+    void getOrderById_ShouldUseBuyerSnapshot_WhenSnapshotIsPresent() {
+        // Arrange
+        order.setBuyerName("John");
+        order.setBuyerSurname("Doe");
+        order.setBuyerEmail("john.doe@example.com");
+        when(orderRepository.findByIdAndDeletedFalse(anyLong())).thenReturn(Optional.of(order));
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(orderResponse);
+        when(orderItemMapper.toResponse(any(OrderItem.class))).thenReturn(orderItemResponse);
+
+        // Act
+        OrderResponse result = orderService.getOrderById(1L);
+
+        // Assert
+        assertThat(result.getUserInfo().getEmail()).isEqualTo("john.doe@example.com");
+        assertThat(result.getUserInfo().getActive()).isTrue();
+        verify(userServiceClient, never()).getUserById(anyLong());
+    }
+
+    @Test
+    void getOrderById_ShouldUseEmptySnapshot_WhenBuyerWasAlreadyChecked() {
+        // Arrange: backfill получил 404 и отметил пользователя проверенным
+        order.setBuyerSnapshotCheckedAt(LocalDateTime.now());
+        when(orderRepository.findByIdAndDeletedFalse(anyLong())).thenReturn(Optional.of(order));
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(orderResponse);
+        when(orderItemMapper.toResponse(any(OrderItem.class))).thenReturn(orderItemResponse);
+
+        // Act
+        OrderResponse result = orderService.getOrderById(1L);
+
+        // Assert
+        assertThat(result.getUserInfo().getId()).isEqualTo(order.getUserId());
+        assertThat(result.getUserInfo().getEmail()).isNull();
+        verify(userServiceClient, never()).getUserById(anyLong());
+    }
+
+    @Test
+    void getOrderById_ShouldCallUserService_WhenRefreshIsRequested() {
+        // Arrange
+        order.setBuyerName("Old Name");
+        when(orderRepository.findByIdAndDeletedFalse(anyLong())).thenReturn(Optional.of(order));
+        when(userServiceClient.getUserById(anyLong())).thenReturn(userResponseDTO);
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(orderResponse);
+        when(orderItemMapper.toResponse(any(OrderItem.class))).thenReturn(orderItemResponse);
+
+        // Act
+        OrderResponse result = orderService.getOrderById(1L, true);
+
+        // Assert
+        assertThat(result.getUserInfo().getName()).isEqualTo("John");
+        verify(userServiceClient).getUserById(1L);
+    }
+
+    @Test
+    void getOrderById_ShouldSkipItemsAndUserService_WhenFieldsExcludeThem() {
+        // Arrange
+        when(orderRepository.findWithoutItemsByIdAndDeletedFalse(anyLong())).thenReturn(Optional.of(order));
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(new OrderResponse());
+
+        // Act
+        OrderResponse result = orderService.getOrderById(1L, true, OrderFields.parse("id,status,totalPrice"));
+
+        // Assert
+        assertThat(result.getItems()).isNull();
+        assertThat(result.getUserInfo()).isNull();
+        verify(orderRepository, never()).findByIdAndDeletedFalse(anyLong());
+        verify(userServiceClient, never()).getUserById(anyLong());
+        verify(orderItemMapper, never()).toResponse(any(OrderItem.class));
+    }
+
+    @Test
+    void getOrdersByUserId_ShouldLoadItemsWithoutUserService_WhenOnlyItemsRequested() {
+        // Arrange
+        when(orderRepository.findHistoryIds(anyLong(), any(), anyLong(), anyInt())).thenReturn(List.of(1L));
+        when(orderRepository.findAllWithItemsByIdIn(List.of(1L))).thenReturn(List.of(order));
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(new OrderResponse());
+        when(orderItemMapper.toResponse(any(OrderItem.class))).thenReturn(orderItemResponse);
+
+        // Act
+        List<OrderResponse> result = orderService.getOrdersByUserId(1L, false, OrderFields.parse("id,items"))
+                .getContent();
+
+        // Assert
+        assertThat(result.get(0).getItems()).hasSize(1);
+        assertThat(result.get(0).getUserInfo()).isNull();
+        verify(userServiceClient, never()).getUserById(anyLong());
+    }
+
     @Test
     void getOrdersWithFilter_ShouldReturnPaginatedOrders() {
         // Arrange
@@ -253,18 +356,83 @@ class OrderServiceUnitTest {
     @Test
     void getOrdersByUserId_ShouldReturnUserOrders() {
         // Arrange
-        when(orderRepository.findByUserIdAndDeletedFalse(anyLong())).thenReturn(List.of(order));
+        when(orderRepository.findHistoryIds(anyLong(), any(), anyLong(), anyInt())).thenReturn(List.of(1L));
+        when(orderRepository.findAllWithItemsByIdIn(List.of(1L))).thenReturn(List.of(order));
         when(userServiceClient.getUserById(anyLong())).thenReturn(userResponseDTO);
         when(orderMapper.toResponse(any(Order.class))).thenReturn(orderResponse);
         when(orderItemMapper.toResponse(any(OrderItem.class))).thenReturn(orderItemResponse);
 
+        int legacyMaxResults = historyProperties.getLegacyMaxResults();
+
         // Act
         List<OrderResponse> result = orderService.getOrdersByUserId(1L);
 
         // Assert
         assertThat(result).isNotEmpty();
         assertThat(result).hasSize(1);
-        verify(orderRepository).findByUserIdAndDeletedFalse(1L);
+        verify(orderRepository).findHistoryIds(eq(1L), any(), anyLong(), eq(legacyMaxResults + 1));
+    }
+
+    @Test
+    void getOrdersByUserId_ShouldNotReportTruncation_WhenUserHasExactlyLimitOrders() {
+        // Arrange
+        historyProperties.setLegacyMaxResults(1);
+        when(orderRepository.findHistoryIds(anyLong(), any(), anyLong(), anyInt())).thenReturn(List.of(1L));
+        when(orderRepository.findAllById(List.of(1L))).thenReturn(List.of(order));
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(new OrderResponse());
+
+        // Act
+        CursorPageResponse<OrderResponse> result = orderService.getOrdersByUserId(1L, false, OrderFields.parse("id"));
+
+        // Assert
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getOrdersByUserId_ShouldReturnLimitAndCursor_WhenUserHasMoreOrders() {
+        // Arrange
+        historyProperties.setLegacyMaxResults(1);
+        when(orderRepository.findHistoryIds(anyLong(), any(), anyLong(), anyInt())).thenReturn(List.of(1L, 2L));
+        when(orderRepository.findAllById(List.of(1L))).thenReturn(List.of(order));
+        when(orderMapper.toResponse(any(Order.class))).thenReturn(new OrderResponse());
+
+        // Act
+        CursorPageResponse<OrderResponse> result = orderService.getOrdersByUserId(1L, false, OrderFields.parse("id"));
+
+        // Assert: вторая строка только признак обрезки, в ответ не попадает
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(OrderHistoryCursor.parse(result.getNextCursor()).id()).isEqualTo(order.getId());
+        verify(orderRepository).findHistoryIds(eq(1L), any(), anyLong(), eq(2));
+    }
+
+    @Test
+    void getOrderHistory_ShouldReturnNextCursor_WhenMoreOrdersExist() {
+        // Arrange
+        Order older = new Order();
+        older.setId(2L);
+        older.setUserId(1L);
+        older.setCreatedAt(order.getCreatedAt().minusDays(1));
+        when(orderRepository.findHistoryIdsByStatuses(eq(1L), eq(List.of("CREATED")), any(), anyLong(), eq(3)))
+                .thenReturn(List.of(1L, 2L, 3L));
+        when(orderRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(older, order));
+        when(orderMapper.toResponse(any(Order.class))).thenAnswer(invocation -> new OrderResponse());
+
+        // Act
+        CursorPageResponse<OrderResponse> page = orderService.getOrderHistory(1L, List.of(OrderStatus.CREATED),
+                null, 2, false, OrderFields.parse("id,status"));
+
+        // Assert
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(OrderHistoryCursor.parse(page.getNextCursor()))
+                .isEqualTo(new OrderHistoryCursor(older.getCreatedAt(), 2L));
+    }
+
+    @Test
+    void getOrderHistory_ShouldRejectOversizedPage() {
+        assertThatThrownBy(() -> orderService.getOrderHistory(1L, null, null, 1000, false, OrderFields.ALL))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(orderRepository, never()).findHistoryIds(anyLong(), any(), anyLong(), anyInt());
     }
 
     @Test
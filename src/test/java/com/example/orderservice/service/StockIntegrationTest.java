@@ -0,0 +1,143 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderItemRequest;
+import com.example.orderservice.dto.OrderRequest;
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.dto.StockRequest;
+import com.example.orderservice.entity.Item;
+import com.example.orderservice.exception.InsufficientStockException;
+import com.example.orderservice.repository.ItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Остатки на настоящей PostgreSQL со схемой из Liquibase (миграция 009): параллельные заказы
+// одного товара не уводят остаток в минус ни в строке товара, ни в частях
+@SpringBootTest
+@Testcontainers
+@TestPropertySource(properties = {
+        "user.service.url=http://localhost:9",
+        "spring.liquibase.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "resilience4j.circuitbreaker.instances.userService.register-health-indicator=false"
+})
+class StockIntegrationTest {
+    private static final int STOCK = 40;
+    private static final int ORDERS = 60;
+
+    @Container
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("stockDb")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Test
+    void createOrder_ShouldNeverOversell_WhenOrdersRaceForItemRow() {
+        assertNoOversell(0);
+    }
+
+    @Test
+    void createOrder_ShouldNeverOversell_WhenOrdersRaceForStockShards() {
+        assertNoOversell(8);
+    }
+
+    @Test
+    void deleteOrder_ShouldReturnReservedStock() {
+        // Arrange
+        Long itemId = itemWithStock(STOCK, 0);
+        OrderResponse order = orderService.createOrder(request(itemId, 3));
+        assertThat(stockService.getStock(itemId).getQuantity()).isEqualTo(STOCK - 3);
+
+        // Act
+        orderService.deleteOrder(order.getId());
+
+        // Assert
+        assertThat(stockService.getStock(itemId).getQuantity()).isEqualTo(STOCK);
+    }
+
+    private void assertNoOversell(int shards) {
+        // Arrange
+        Long itemId = itemWithStock(STOCK, shards);
+        AtomicInteger rejected = new AtomicInteger();
+        List<CompletableFuture<OrderResponse>> results = new ArrayList<>();
+
+        // Act
+        try (ExecutorService callers = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < ORDERS; i++) {
+                results.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return orderService.createOrder(request(itemId, 1));
+                    } catch (InsufficientStockException e) {
+                        rejected.incrementAndGet();
+                        return null;
+                    }
+                }, callers));
+            }
+        }
+
+        // Assert
+        long created = results.stream().map(CompletableFuture::join).filter(result -> result != null).count();
+        assertThat(created).isEqualTo(STOCK);
+        assertThat(rejected.get()).isEqualTo(ORDERS - STOCK);
+        assertThat(stockService.getStock(itemId).getQuantity()).isZero();
+    }
+
+    private Long itemWithStock(int quantity, int shards) {
+        Item item = new Item();
+        item.setName("Hot item");
+        item.setPrice(BigDecimal.TEN);
+        item.setCreatedAt(LocalDateTime.now());
+        item.setUpdatedAt(LocalDateTime.now());
+        Long itemId = itemRepository.save(item).getId();
+
+        StockRequest stock = new StockRequest();
+        stock.setQuantity(quantity);
+        stock.setShards(shards);
+        stockService.setStock(itemId, stock);
+        return itemId;
+    }
+
+    private static OrderRequest request(Long itemId, int quantity) {
+        OrderItemRequest line = new OrderItemRequest();
+        line.setItemId(itemId);
+        line.setQuantity(quantity);
+        OrderRequest request = new OrderRequest();
+        request.setUserId(1L);
+        request.setItems(List.of(line));
+        return request;
+    }
+}
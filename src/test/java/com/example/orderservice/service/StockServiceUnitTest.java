@@ -0,0 +1,155 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.entity.Item;
+import com.example.orderservice.entity.ItemStockShard;
+import com.example.orderservice.entity.OrderItem;
+import com.example.orderservice.exception.InsufficientStockException;
+import com.example.orderservice.repository.ItemRepository;
+import com.example.orderservice.repository.ItemStockShardRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StockServiceUnitTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ItemStockShardRepository shardRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    @InjectMocks
+    private StockService stockService;
+
+    @Test
+    void reserve_ShouldSkipItems_WhenStockIsNotTracked() {
+        // Arrange
+        OrderItem line = line(item(1L, null, 0), 5);
+
+        // Act
+        stockService.reserve(List.of(line));
+
+        // Assert
+        assertThat(line.isStockReserved()).isFalse();
+        verify(itemRepository, never()).reserveStock(anyLong(), anyInt());
+    }
+
+    @Test
+    void reserve_ShouldDecrementOncePerItem_WhenItemRepeatsInOrder() {
+        // Arrange
+        Item item = item(1L, 10, 0);
+        OrderItem first = line(item, 2);
+        OrderItem second = line(item, 3);
+        when(itemRepository.reserveStock(1L, 5)).thenReturn(1);
+
+        // Act
+        stockService.reserve(List.of(first, second));
+
+        // Assert
+        assertThat(first.isStockReserved()).isTrue();
+        assertThat(second.isStockReserved()).isTrue();
+        verify(itemRepository).reserveStock(1L, 5);
+    }
+
+    @Test
+    void reserve_ShouldThrow_WhenConditionalUpdateMatchesNothing() {
+        // Arrange
+        when(itemRepository.reserveStock(1L, 4)).thenReturn(0);
+
+        // Act & Assert
+        assertThatThrownBy(() -> stockService.reserve(List.of(line(item(1L, 3, 0), 4))))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessageContaining("1");
+    }
+
+    @Test
+    void reserve_ShouldTakeFromOneShard_WhenUnlockedShardHasEnough() {
+        // Arrange
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(shardRepository.reserveFromUnlocked(eq(1L), eq(5), anyInt(), eq(2))).thenReturn(1);
+
+        // Act
+        stockService.reserve(List.of(line(item(1L, null, 2), 5)));
+
+        // Assert
+        verify(shardRepository, never()).lockAllByItemId(anyLong());
+    }
+
+    @Test
+    void reserve_ShouldCombineShards_WhenNoSingleShardHasEnough() {
+        // Arrange
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(shardRepository.reserveFromUnlocked(eq(1L), eq(5), anyInt(), eq(2))).thenReturn(0);
+        ItemStockShard first = shard(0, 3);
+        ItemStockShard second = shard(1, 4);
+        when(shardRepository.lockAllByItemId(1L)).thenReturn(List.of(first, second));
+
+        // Act
+        stockService.reserve(List.of(line(item(1L, null, 2), 5)));
+
+        // Assert
+        assertThat(first.getQuantity()).isZero();
+        assertThat(second.getQuantity()).isEqualTo(2);
+    }
+
+    @Test
+    void release_ShouldReturnOnlyReservedLines() {
+        // Arrange
+        OrderItem reserved = line(item(1L, 0, 0), 2);
+        reserved.setStockReserved(true);
+        OrderItem notReserved = line(item(2L, 0, 0), 7);
+
+        // Act
+        stockService.release(List.of(reserved, notReserved));
+
+        // Assert
+        assertThat(reserved.isStockReserved()).isFalse();
+        verify(itemRepository).releaseStock(1L, 2);
+        verify(itemRepository, never()).releaseStock(eq(2L), anyInt());
+    }
+
+    private Item item(Long id, Integer stock, int shards) {
+        Item item = new Item();
+        item.setId(id);
+        item.setStockQuantity(stock);
+        item.setStockShards(shards);
+        return item;
+    }
+
+    private OrderItem line(Item item, int quantity) {
+        OrderItem line = new OrderItem();
+        line.setItem(item);
+        line.setQuantity(quantity);
+        return line;
+    }
+
+    private ItemStockShard shard(int index, int quantity) {
+        ItemStockShard shard = new ItemStockShard();
+        shard.setItemId(1L);
+        shard.setShard(index);
+        shard.setQuantity(quantity);
+        return shard;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.orderservice.specification;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemFullTextQueryUnitTest {
+
+    @Test
+    void toPrefixTsQuery_ShouldRequireAllWordsWithPrefixMatch() {
+        assertThat(ItemFullTextQuery.toPrefixTsQuery("Red  Wid")).isEqualTo("red:* & wid:*");
+    }
+
+    @Test
+    void toPrefixTsQuery_ShouldDropTsQueryOperators() {
+        assertThat(ItemFullTextQuery.toPrefixTsQuery("foo & !bar:* | (baz)")).isEqualTo("foo:* & bar:* & baz:*");
+    }
+
+    @Test
+    void toPrefixTsQuery_ShouldKeepNonLatinWords() {
+        assertThat(ItemFullTextQuery.toPrefixTsQuery("Чайник 2л")).isEqualTo("чайник:* & 2л:*");
+    }
+
+    @Test
+    void toPrefixTsQuery_ShouldReturnNull_WhenNoWordsPresent() {
+        assertThat(ItemFullTextQuery.toPrefixTsQuery(" -- ")).isNull();
+        assertThat(ItemFullTextQuery.toPrefixTsQuery(null)).isNull();
+    }
+}
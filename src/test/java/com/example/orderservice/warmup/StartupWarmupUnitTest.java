@@ -0,0 +1,136 @@
+package com.example.orderservice.warmup;
+
+import com.example.orderservice.config.WarmupProperties;
+import com.example.orderservice.dto.CursorPageResponse;
+import com.example.orderservice.dto.ItemDTO;
+import com.example.orderservice.dto.OrderResponse;
+import com.example.orderservice.entity.Item;
+import com.example.orderservice.mapper.ItemMapper;
+import com.example.orderservice.repository.ItemRepository;
+import com.example.orderservice.service.ItemService;
+import com.example.orderservice.service.OrderService;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StartupWarmupUnitTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private ItemService itemService;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ItemMapper itemMapper;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    private final WarmupProperties properties = new WarmupProperties();
+    private StartupWarmup warmup;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties.setEnabled(true);
+        properties.setIterations(20);
+        properties.setThreads(2);
+        properties.setTimeBudget(Duration.ofSeconds(10));
+        warmup = new StartupWarmup(orderService, itemService, itemRepository, itemMapper,
+                JsonMapper.builder().findAndAddModules().build(), dataSource, properties);
+
+        OrderResponse order = new OrderResponse();
+        order.setId(1L);
+        order.setUserId(7L);
+        ItemDTO item = new ItemDTO();
+        item.setId(3L);
+        item.setName("Red widget");
+
+        lenient().when(dataSource.getConnection()).thenReturn(connection);
+        lenient().when(orderService.getOrdersWithFilter(any(), any(), any(), any(), anyBoolean(), any()))
+                .thenReturn(new PageImpl<>(List.of(order)));
+        lenient().when(orderService.getOrderById(anyLong(), anyBoolean(), any())).thenReturn(new OrderResponse());
+        lenient().when(orderService.getOrderHistory(anyLong(), any(), any(), any(), anyBoolean(), any()))
+                .thenReturn(new CursorPageResponse<>(List.of(order), null));
+        lenient().when(itemService.getItemsWithPagination(any())).thenReturn(new PageImpl<>(List.of(item)));
+        Item entity = new Item();
+        entity.setId(3L);
+        lenient().when(itemRepository.findById(anyLong())).thenReturn(Optional.of(entity));
+        lenient().when(itemMapper.toDTO(entity)).thenReturn(item);
+        lenient().when(itemService.searchItemsFullText(anyString(), any())).thenReturn(new PageImpl<>(List.of(item)));
+    }
+
+    @Test
+    void run_ShouldExecuteConfiguredRoundsAndReleasePrimedConnections() throws Exception {
+        // Act
+        warmup.run(null);
+
+        // Assert
+        verify(orderService, times(20)).getOrderById(eq(1L), eq(false), any());
+        verify(orderService, times(20)).getOrderHistory(eq(7L), any(), any(), any(), eq(false), any());
+        verify(itemService, times(20)).searchItemsFullText(eq("Red"), any());
+        // Товар читается в обход кеша ItemService
+        verify(itemRepository, times(20)).findById(3L);
+        verify(itemService, never()).getItemById(anyLong());
+        verify(connection).close();
+    }
+
+    @Test
+    void run_ShouldReturnWhenTimeBudgetIsExhausted() {
+        // Arrange
+        properties.setIterations(Integer.MAX_VALUE);
+        properties.setTimeBudget(Duration.ofMillis(200));
+        when(itemRepository.findById(anyLong())).thenAnswer(invocation -> {
+            Thread.sleep(1000);
+            return Optional.empty();
+        });
+
+        // Act
+        long start = System.nanoTime();
+        warmup.run(null);
+
+        // Assert: прогоны ещё идут, но старт их не ждёт
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(900));
+    }
+
+    @Test
+    void run_ShouldNotFailStartup_WhenReadsFail() {
+        // Arrange
+        when(orderService.getOrderById(anyLong(), anyBoolean(), any())).thenThrow(new IllegalStateException("db down"));
+
+        // Act
+        warmup.run(null);
+
+        // Assert: все прогоны выполнены, ошибки только посчитаны
+        verify(orderService, times(20)).getOrderById(anyLong(), anyBoolean(), any());
+    }
+}